@@ -6,6 +6,8 @@ package net.casual.arcade.boundary
 
 import com.mojang.serialization.Codec
 import com.mojang.serialization.codecs.RecordCodecBuilder
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap
 import net.casual.arcade.boundary.extension.LevelBoundaryExtension
 import net.casual.arcade.boundary.renderer.BoundaryRenderer
 import net.casual.arcade.boundary.shape.BoundaryShape
@@ -14,14 +16,17 @@ import net.casual.arcade.boundary.utils.ClientboundSetBorderWarningDistancePacke
 import net.casual.arcade.utils.time.MinecraftTimeDuration
 import net.casual.arcade.visuals.core.TrackedPlayerUI
 import net.minecraft.core.BlockPos
+import net.minecraft.core.SectionPos
 import net.minecraft.network.protocol.Packet
 import net.minecraft.network.protocol.game.ClientGamePacketListener
 import net.minecraft.server.level.ServerLevel
 import net.minecraft.server.level.ServerPlayer
+import net.minecraft.server.network.ServerGamePacketListenerImpl
 import net.minecraft.util.Mth
 import net.minecraft.world.level.border.WorldBorder
 import net.minecraft.world.phys.AABB
 import net.minecraft.world.phys.Vec3
+import java.util.*
 import java.util.function.Consumer
 import kotlin.math.max
 
@@ -47,6 +52,15 @@ public class LevelBoundary(
      */
     public val renderer: BoundaryRenderer,
 ): TrackedPlayerUI() {
+    private val states = Reference2ObjectOpenHashMap<ServerGamePacketListenerImpl, PlayerState>()
+    private val sections = Long2ObjectOpenHashMap<Containment>()
+
+    private var lastSize = Vec3.ZERO
+    private var lastCenter = Vec3.ZERO
+
+    private var sectionsSize: Vec3? = null
+    private var sectionsCenter: Vec3? = null
+
     /**
      * Determines how much damage to deal to the player
      * while they're outside the boundary.
@@ -64,6 +78,12 @@ public class LevelBoundary(
      * start displaying a vignette.
      */
     public var warningBlocks: Int = 5
+        set(value) {
+            field = value
+            for (state in this.states.values) {
+                state.reset()
+            }
+        }
 
     /**
      * Constructs a boundary from the given [Settings].
@@ -114,6 +134,14 @@ public class LevelBoundary(
      * @return The [Containment] of the position.
      */
     public fun contains(pos: BlockPos): Containment {
+        val section = this.getSectionContainment(
+            SectionPos.blockToSectionCoord(pos.x),
+            SectionPos.blockToSectionCoord(pos.y),
+            SectionPos.blockToSectionCoord(pos.z)
+        )
+        if (section != Containment.Partial) {
+            return section
+        }
         return this.shape.contains(pos)
     }
 
@@ -124,9 +152,74 @@ public class LevelBoundary(
      * @return Whether the point is in the border.
      */
     public fun contains(point: Vec3): Boolean {
+        val section = this.getSectionContainment(
+            SectionPos.blockToSectionCoord(point.x),
+            SectionPos.blockToSectionCoord(point.y),
+            SectionPos.blockToSectionCoord(point.z)
+        )
+        if (section != Containment.Partial) {
+            return section == Containment.Full
+        }
         return this.shape.contains(point)
     }
 
+    /**
+     * Checks whether many points are within the border at once.
+     *
+     * See [BoundaryShape.containsAll] for the format of the [positions].
+     *
+     * @param positions The packed coordinates of the points.
+     * @param count The number of points to check.
+     * @return The bitset of points within the border.
+     */
+    @JvmOverloads
+    public fun containsAll(positions: DoubleArray, count: Int = positions.size / 3): BitSet {
+        return this.shape.containsAll(positions, count)
+    }
+
+    /**
+     * Gets the [Containment] of a whole chunk section.
+     *
+     * If the shape has exact containment, see [BoundaryShape.hasExactContainment],
+     * the result is cached until the size or center of the shape
+     * changes, so most block and entity checks can be answered per section.
+     * Otherwise, this always returns [Containment.Partial].
+     *
+     * @param x The section x coordinate.
+     * @param y The section y coordinate.
+     * @param z The section z coordinate.
+     * @return The [Containment] of the section.
+     */
+    public fun getSectionContainment(x: Int, y: Int, z: Int): Containment {
+        if (!this.shape.hasExactContainment()) {
+            return Containment.Partial
+        }
+        // The shape may be modified directly, so we check whether it has changed
+        val shapeSize = this.shape.size()
+        val shapeCenter = this.shape.center()
+        if (shapeSize != this.sectionsSize || shapeCenter != this.sectionsCenter) {
+            this.sections.clear()
+            this.sectionsSize = shapeSize
+            this.sectionsCenter = shapeCenter
+        }
+        val packed = SectionPos.asLong(x, y, z)
+        val cached = this.sections.get(packed)
+        if (cached != null) {
+            return cached
+        }
+        if (this.sections.size >= MAX_CACHED_SECTIONS) {
+            this.sections.clear()
+        }
+        val minX = SectionPos.sectionToBlockCoord(x).toDouble()
+        val minY = SectionPos.sectionToBlockCoord(y).toDouble()
+        val minZ = SectionPos.sectionToBlockCoord(z).toDouble()
+        val size = SectionPos.SECTION_SIZE.toDouble()
+        val box = AABB(minX, minY, minZ, minX + size, minY + size, minZ + size)
+        val containment = this.shape.contains(box)
+        this.sections.put(packed, containment)
+        return containment
+    }
+
     /**
      * Gets the distance to a given [point].
      *
@@ -210,46 +303,73 @@ public class LevelBoundary(
     public fun tick(level: ServerLevel) {
         this.shape.tick()
 
+        val size = this.shape.size()
+        val center = this.shape.center()
+        val moved = size != this.lastSize || center != this.lastCenter
+        this.lastSize = size
+        this.lastCenter = center
+
         val players = this.getPlayers()
         this.renderer.render(level, players)
         for (player in players) {
-            this.tickPlayer(player)
+            this.tickPlayer(player, moved)
         }
     }
 
     override fun onAddPlayer(player: ServerPlayer) {
+        this.states[player.connection] = PlayerState()
         this.renderer.startRendering(player)
     }
 
     override fun onRemovePlayer(player: ServerPlayer) {
+        this.states.remove(player.connection)
         this.renderer.stopRendering(player)
         player.connection.send(INSIDE_BORDER_PACKET)
     }
 
     override fun resendTo(player: ServerPlayer, sender: Consumer<Packet<ClientGamePacketListener>>) {
+        // The client may have reset its warning, so it needs to be re-sent
+        this.states[player.connection]?.reset()
         this.renderer.restartRendering(player, sender)
     }
 
-    private fun tickPlayer(player: ServerPlayer) {
+    internal fun onBorderPacketSent(player: ServerPlayer, packet: Packet<*>) {
+        val state = this.states[player.connection] ?: return
+        if (!state.hasSent(packet)) {
+            state.reset()
+        }
+    }
+
+    private fun tickPlayer(player: ServerPlayer, moved: Boolean) {
         val position = player.position()
         if (!player.isAlive) {
             return
         }
 
+        val state = this.states.getOrPut(player.connection, ::PlayerState)
+        // Players deep inside the boundary can't reach the warning
+        // distance until they've moved further than their slack
+        if (!moved && state.canSkip(position)) {
+            return
+        }
+
         val distance = this.getDistanceBetween(position)
         val inside = this.contains(position)
         if (inside) {
             if (distance < this.warningBlocks) {
                 val ratio = (this.warningBlocks / distance)
                 val simulated = player.level().worldBorder.getDistanceToBorder(player) * ratio
-                player.connection.send(ClientboundSetBorderWarningDistancePacket(simulated.toInt()))
+                state.send(player, simulated.toInt())
+                state.clearSlack()
             } else {
-                player.connection.send(INSIDE_BORDER_PACKET)
+                state.send(player, INSIDE_BORDER)
+                state.setSlack(position, distance - this.warningBlocks)
             }
             return
         }
 
-        player.connection.send(OUTSIDE_BORDER_PACKET)
+        state.send(player, OUTSIDE_BORDER)
+        state.clearSlack()
         val damagingDistance = distance - this.damageSafeZone
         if (damagingDistance > 0 && this.damagePerBlock > 0) {
             val damage = max(1, Mth.floor(damagingDistance * this.damagePerBlock)).toFloat()
@@ -290,8 +410,59 @@ public class LevelBoundary(
         }
     }
 
+    private class PlayerState {
+        private var sent = UNSENT
+        private var packet: Packet<*>? = null
+        private var checked: Vec3? = null
+        private var slack = 0.0
+
+        fun send(player: ServerPlayer, warning: Int) {
+            if (this.sent == warning) {
+                return
+            }
+            this.sent = warning
+            val packet = when (warning) {
+                INSIDE_BORDER -> INSIDE_BORDER_PACKET
+                OUTSIDE_BORDER -> OUTSIDE_BORDER_PACKET
+                else -> ClientboundSetBorderWarningDistancePacket(warning)
+            }
+            this.packet = packet
+            player.connection.send(packet)
+        }
+
+        fun hasSent(packet: Packet<*>): Boolean {
+            return this.packet === packet
+        }
+
+        fun canSkip(position: Vec3): Boolean {
+            val checked = this.checked ?: return false
+            return checked.distanceToSqr(position) < this.slack * this.slack
+        }
+
+        fun setSlack(position: Vec3, slack: Double) {
+            this.checked = position
+            this.slack = slack
+        }
+
+        fun clearSlack() {
+            this.checked = null
+        }
+
+        fun reset() {
+            this.sent = UNSENT
+            this.packet = null
+            this.clearSlack()
+        }
+    }
+
     private companion object {
-        val INSIDE_BORDER_PACKET = ClientboundSetBorderWarningDistancePacket(0)
-        val OUTSIDE_BORDER_PACKET = ClientboundSetBorderWarningDistancePacket(Int.MAX_VALUE)
+        const val MAX_CACHED_SECTIONS = 65536
+
+        const val UNSENT = Int.MIN_VALUE
+        const val INSIDE_BORDER = 0
+        const val OUTSIDE_BORDER = Int.MAX_VALUE
+
+        val INSIDE_BORDER_PACKET = ClientboundSetBorderWarningDistancePacket(INSIDE_BORDER)
+        val OUTSIDE_BORDER_PACKET = ClientboundSetBorderWarningDistancePacket(OUTSIDE_BORDER)
     }
 }
\ No newline at end of file
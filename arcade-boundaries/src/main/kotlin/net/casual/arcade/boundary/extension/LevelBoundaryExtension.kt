@@ -10,10 +10,14 @@ import net.casual.arcade.events.ListenerRegistry.Companion.register
 import net.casual.arcade.events.server.entity.EntityStartTrackingEvent
 import net.casual.arcade.events.server.entity.EntityStopTrackingEvent
 import net.casual.arcade.events.server.level.LevelTickEvent
+import net.casual.arcade.events.server.network.ClientboundPacketListeners
+import net.casual.arcade.events.server.player.PlayerClientboundPacketEvent
 import net.casual.arcade.extensions.DataExtension
 import net.casual.arcade.extensions.event.LevelExtensionEvent
 import net.casual.arcade.extensions.event.LevelExtensionEvent.Companion.getExtension
 import net.casual.arcade.utils.ArcadeUtils
+import net.minecraft.network.protocol.game.ClientboundInitializeBorderPacket
+import net.minecraft.network.protocol.game.ClientboundSetBorderWarningDistancePacket
 import net.minecraft.resources.ResourceLocation
 import net.minecraft.server.level.ServerLevel
 import net.minecraft.server.level.ServerPlayer
@@ -96,6 +100,21 @@ public class LevelBoundaryExtension(
                     level.getExtension<LevelBoundaryExtension>().stopTrackingPlayer(entity)
                 }
             }
+            ClientboundPacketListeners.register<ClientboundSetBorderWarningDistancePacket>(listener = ::onBorderPacket)
+            ClientboundPacketListeners.register<ClientboundInitializeBorderPacket>(listener = ::onBorderPacket)
+        }
+
+        private fun onBorderPacket(event: PlayerClientboundPacketEvent) {
+            // Vanilla border packets (e.g. from /worldborder warning) overwrite
+            // our warning distance, the boundary must re-send its own
+            val player = event.player
+            val packet = event.packet
+            val server = player.level().server
+            if (server.isSameThread) {
+                player.level().levelBoundary?.onBorderPacketSent(player, packet)
+            } else {
+                server.execute { player.level().levelBoundary?.onBorderPacketSent(player, packet) }
+            }
         }
     }
 }
\ No newline at end of file
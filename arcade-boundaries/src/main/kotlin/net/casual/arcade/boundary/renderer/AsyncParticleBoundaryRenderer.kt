@@ -4,51 +4,123 @@
  */
 package net.casual.arcade.boundary.renderer
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder
 import com.mojang.serialization.Codec
 import com.mojang.serialization.MapCodec
 import com.mojang.serialization.codecs.RecordCodecBuilder
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet
 import net.casual.arcade.boundary.renderer.options.ParticleRenderOptions
 import net.casual.arcade.boundary.shape.BoundaryShape
 import net.casual.arcade.utils.ArcadeUtils
 import net.casual.arcade.utils.codec.CodecProvider
-import net.minecraft.Util
+import net.minecraft.core.particles.ParticleOptions
+import net.minecraft.network.protocol.Packet
+import net.minecraft.network.protocol.game.ClientGamePacketListener
 import net.minecraft.resources.ResourceLocation
 import net.minecraft.server.level.ServerLevel
 import net.minecraft.server.level.ServerPlayer
+import net.minecraft.util.ExtraCodecs
+import net.minecraft.world.phys.Vec3
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicReference
 
 /**
  * Extension of [ParticleBoundaryRenderer] that updates asynchronously
  * as generating the particle positions can be expensive.
  *
+ * Each render, a snapshot of the shape and the player positions is
+ * taken on the main thread, the particles are then generated on a
+ * dedicated executor. If the executor falls behind then any frame
+ * which has not yet started is replaced by the newest frame.
+ * The generated packets are sent on the main thread on the following render.
+ *
+ * If the shape does not support [BoundaryShape.snapshot] then the
+ * particles are generated synchronously, like [ParticleBoundaryRenderer].
+ *
  * @param shape The shape to render.
  * @param particles The particle render options.
  * @param range The range at which to display particles to the player.
  * @param particlesPerBlock The number of particles to display per block.
+ * @param interval The number of ticks between each render.
  * @see ParticleBoundaryRenderer
  */
 public class AsyncParticleBoundaryRenderer(
     shape: BoundaryShape,
     particles: ParticleRenderOptions = ParticleRenderOptions.DEFAULT,
     range: Double = 40.0,
-    particlesPerBlock: Double = 0.25
-): ParticleBoundaryRenderer(shape, particles, range, particlesPerBlock) {
+    particlesPerBlock: Double = 0.25,
+    interval: Int = 1
+): ParticleBoundaryRenderer(shape, particles, range, particlesPerBlock, interval) {
+    private val pending = AtomicReference<Frame?>()
+    private val completed = AtomicReference<List<PlayerPackets>?>()
+    private val scheduled = AtomicBoolean()
+
     override fun render(level: ServerLevel, players: Collection<ServerPlayer>) {
-        if (players.isNotEmpty()) {
-            Util.ioPool().execute { super.render(level, players) }
+        this.sendCompleted(players)
+        if (players.isEmpty() || level.server.tickCount % this.interval != 0) {
+            return
+        }
+
+        val snapshot = this.shape.snapshot()
+        if (snapshot == null) {
+            super.render(level, players)
+            return
+        }
+        val positions = players.map { PlayerPosition(it, it.position()) }
+        val frame = Frame(snapshot, this.particles.get(this.shape), positions)
+        this.pending.set(frame)
+        if (this.scheduled.compareAndSet(false, true)) {
+            EXECUTOR.execute(this::process)
         }
     }
 
     override fun factory(): BoundaryRenderer.Factory {
-        return Factory(this.particles, this.range, this.particlesPerBlock)
+        return Factory(this.particles, this.range, this.particlesPerBlock, this.interval)
+    }
+
+    private fun sendCompleted(players: Collection<ServerPlayer>) {
+        val completed = this.completed.getAndSet(null) ?: return
+        // Players may have stopped observing since the frame was taken
+        val observing = ReferenceOpenHashSet(players)
+        for ((player, packets) in completed) {
+            if (player in observing && !player.hasDisconnected()) {
+                this.sendBundled(player, packets)
+            }
+        }
+    }
+
+    private fun process() {
+        do {
+            var frame = this.pending.getAndSet(null)
+            while (frame != null) {
+                try {
+                    this.completed.set(this.generate(frame))
+                } catch (e: Exception) {
+                    ArcadeUtils.logger.error("Failed to render particle boundary", e)
+                }
+                frame = this.pending.getAndSet(null)
+            }
+            this.scheduled.set(false)
+            // A frame may have been submitted after we last checked
+        } while (this.pending.get() != null && this.scheduled.compareAndSet(false, true))
+    }
+
+    private fun generate(frame: Frame): List<PlayerPackets> {
+        this.invalidatePackets(frame.particle, frame.shape.size(), frame.shape.center())
+        val packets = this.getPacketsFor(frame.shape, frame.players.map(PlayerPosition::position), frame.particle)
+        return frame.players.zip(packets) { (player), playerPackets -> PlayerPackets(player, playerPackets) }
     }
 
     public open class Factory(
         private val particles: ParticleRenderOptions,
         private val range: Double,
-        private val pointsPerBlock: Double
+        private val pointsPerBlock: Double,
+        private val interval: Int = 1
     ): BoundaryRenderer.Factory {
         override fun create(shape: BoundaryShape): BoundaryRenderer {
-            return AsyncParticleBoundaryRenderer(shape, this.particles, this.range, this.pointsPerBlock)
+            return AsyncParticleBoundaryRenderer(shape, this.particles, this.range, this.pointsPerBlock, this.interval)
         }
 
         override fun codec(): MapCodec<out BoundaryRenderer.Factory> {
@@ -62,9 +134,22 @@ public class AsyncParticleBoundaryRenderer(
                 instance.group(
                     ParticleRenderOptions.CODEC.fieldOf("particles").forGetter(Factory::particles),
                     Codec.DOUBLE.fieldOf("range").forGetter(Factory::range),
-                    Codec.DOUBLE.fieldOf("points_per_block").forGetter(Factory::pointsPerBlock)
+                    Codec.DOUBLE.fieldOf("points_per_block").forGetter(Factory::pointsPerBlock),
+                    ExtraCodecs.POSITIVE_INT.optionalFieldOf("interval", 1).forGetter(Factory::interval)
                 ).apply(instance, ::Factory)
             }
         }
     }
+
+    private data class PlayerPosition(val player: ServerPlayer, val position: Vec3)
+
+    private class Frame(val shape: BoundaryShape, val particle: ParticleOptions, val players: List<PlayerPosition>)
+
+    private data class PlayerPackets(val player: ServerPlayer, val packets: List<Packet<ClientGamePacketListener>>)
+
+    private companion object {
+        private val EXECUTOR: ExecutorService = Executors.newFixedThreadPool(
+            2, ThreadFactoryBuilder().setNameFormat("boundary-renderer-%d").setDaemon(true).build()
+        )
+    }
 }
\ No newline at end of file
@@ -7,48 +7,71 @@ package net.casual.arcade.boundary.renderer
 import com.mojang.serialization.Codec
 import com.mojang.serialization.MapCodec
 import com.mojang.serialization.codecs.RecordCodecBuilder
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap
+import it.unimi.dsi.fastutil.objects.ObjectArrayList
 import net.casual.arcade.boundary.renderer.options.ParticleRenderOptions
 import net.casual.arcade.boundary.shape.BoundaryShape
 import net.casual.arcade.utils.ArcadeUtils
 import net.casual.arcade.utils.ClientboundLevelParticlesPacket
 import net.casual.arcade.utils.codec.CodecProvider
+import net.casual.arcade.utils.network.SharedPacketEncoder
+import net.minecraft.core.particles.ParticleOptions
 import net.minecraft.network.protocol.Packet
 import net.minecraft.network.protocol.game.ClientGamePacketListener
+import net.minecraft.network.protocol.game.ClientboundBundlePacket
 import net.minecraft.resources.ResourceLocation
 import net.minecraft.server.level.ServerLevel
 import net.minecraft.server.level.ServerPlayer
+import net.minecraft.util.ExtraCodecs
+import net.minecraft.world.phys.AABB
+import net.minecraft.world.phys.Vec3
 import java.util.function.Consumer
 
 /**
  * Implementation of [BoundaryRenderer] that renders the boundary
  * as particles to the player.
  *
+ * If the shape supports it, only the part of the boundary within [range]
+ * of each player is generated, see [BoundaryShape.getPointsWithin],
+ * otherwise the whole boundary is generated once for all players. Particle packets
+ * are cached and reused for all players while the boundary is
+ * stationary, and each player is sent their particles in a bundle.
+ * Packets are encoded once for all players if the particle allows
+ * it, see [SharedPacketEncoder.isShareable].
+ *
  * @param shape The shape to render.
  * @param particles The particle render options.
  * @param range The range at which to display particles to the player.
  * @param particlesPerBlock The number of particles to display per block.
+ * @param interval The number of ticks between each render.
  * @see AsyncParticleBoundaryRenderer
  */
 public open class ParticleBoundaryRenderer(
     protected val shape: BoundaryShape,
     protected val particles: ParticleRenderOptions = ParticleRenderOptions.DEFAULT,
     protected val range: Double = 40.0,
-    protected val particlesPerBlock: Double = 0.25
+    protected val particlesPerBlock: Double = 0.25,
+    protected val interval: Int = 1
 ): BoundaryRenderer {
+    private val packets = Object2ObjectOpenHashMap<Vec3, Packet<ClientGamePacketListener>>()
+
+    private var particle: ParticleOptions? = null
+    private var size = Vec3.ZERO
+    private var center = Vec3.ZERO
+
+    init {
+        require(this.interval > 0) { "Render interval must be positive" }
+    }
+
     override fun render(level: ServerLevel, players: Collection<ServerPlayer>) {
-        if (players.isEmpty()) {
+        if (players.isEmpty() || level.server.tickCount % this.interval != 0) {
             return
         }
         val particle = this.particles.get(this.shape)
-        for (point in this.shape.getPoints().iterator(this.particlesPerBlock)) {
-            val packet = ClientboundLevelParticlesPacket(
-                particle, point, alwaysRender = true, overrideLimiter = true
-            )
-            for (player in players) {
-                if (player.position().closerThan(point, this.range)) {
-                    player.connection.send(packet)
-                }
-            }
+        this.invalidatePackets(particle, this.shape.size(), this.shape.center())
+        val packets = this.getPacketsFor(this.shape, players.map(ServerPlayer::position), particle)
+        for ((player, playerPackets) in players.zip(packets)) {
+            this.sendBundled(player, playerPackets)
         }
     }
 
@@ -65,16 +88,102 @@ public open class ParticleBoundaryRenderer(
     }
 
     override fun factory(): BoundaryRenderer.Factory {
-        return Factory(this.particles, this.range, this.particlesPerBlock)
+        return Factory(this.particles, this.range, this.particlesPerBlock, this.interval)
+    }
+
+    /**
+     * Gets the particle packets to send for each of the given [positions].
+     *
+     * @param shape The shape to render.
+     * @param positions The positions of the players.
+     * @param particle The particle to render.
+     * @return The particle packets for each position, in the same order.
+     */
+    protected fun getPacketsFor(
+        shape: BoundaryShape,
+        positions: List<Vec3>,
+        particle: ParticleOptions
+    ): List<List<Packet<ClientGamePacketListener>>> {
+        val packets = List(positions.size) { ObjectArrayList<Packet<ClientGamePacketListener>>() }
+        for ((i, position) in positions.withIndex()) {
+            val area = AABB.ofSize(position, this.range * 2, this.range * 2, this.range * 2)
+            // If the shape can't generate only the nearby points, we generate all the points once
+            val points = shape.getPointsWithin(area) ?: return this.getPacketsForAll(shape, positions, particle)
+            for (point in points.iterator(this.particlesPerBlock)) {
+                if (position.closerThan(point, this.range)) {
+                    packets[i].add(this.getPacket(particle, point))
+                }
+            }
+        }
+        return packets
+    }
+
+    private fun getPacketsForAll(
+        shape: BoundaryShape,
+        positions: List<Vec3>,
+        particle: ParticleOptions
+    ): List<List<Packet<ClientGamePacketListener>>> {
+        val packets = List(positions.size) { ObjectArrayList<Packet<ClientGamePacketListener>>() }
+        for (point in shape.getPoints().iterator(this.particlesPerBlock)) {
+            for ((i, position) in positions.withIndex()) {
+                if (position.closerThan(point, this.range)) {
+                    packets[i].add(this.getPacket(particle, point))
+                }
+            }
+        }
+        return packets
+    }
+
+    private fun getPacket(particle: ParticleOptions, point: Vec3): Packet<ClientGamePacketListener> {
+        return this.packets.getOrPut(point) { createParticlePacket(particle, point) }
+    }
+
+    /**
+     * Clears any cached particle packets if the shape or
+     * particle has changed since the last render.
+     *
+     * @param particle The particle to render.
+     * @param size The size of the shape.
+     * @param center The center of the shape.
+     */
+    protected fun invalidatePackets(particle: ParticleOptions, size: Vec3, center: Vec3) {
+        val changed = this.particle !== particle || this.size != size || this.center != center
+        if (changed || this.packets.size > MAX_CACHED_PACKETS) {
+            this.packets.clear()
+            this.particle = particle
+            this.size = size
+            this.center = center
+        }
+    }
+
+    /**
+     * Sends the given packets to the player, bundled
+     * so the client handles them in a single frame.
+     *
+     * @param player The player to send the packets to.
+     * @param packets The packets to send.
+     */
+    protected fun sendBundled(player: ServerPlayer, packets: List<Packet<ClientGamePacketListener>>) {
+        if (packets.isEmpty()) {
+            return
+        }
+        if (packets.size == 1) {
+            player.connection.send(packets[0])
+            return
+        }
+        for (chunk in packets.chunked(MAX_BUNDLE_SIZE)) {
+            player.connection.send(ClientboundBundlePacket(chunk))
+        }
     }
 
     public class Factory(
         private val particles: ParticleRenderOptions,
         private val range: Double,
-        private val pointsPerBlock: Double
+        private val pointsPerBlock: Double,
+        private val interval: Int = 1
     ): BoundaryRenderer.Factory {
         override fun create(shape: BoundaryShape): BoundaryRenderer {
-            return ParticleBoundaryRenderer(shape, this.particles, this.range, this.pointsPerBlock)
+            return ParticleBoundaryRenderer(shape, this.particles, this.range, this.pointsPerBlock, this.interval)
         }
 
         override fun codec(): MapCodec<out BoundaryRenderer.Factory> {
@@ -88,9 +197,22 @@ public open class ParticleBoundaryRenderer(
                 instance.group(
                     ParticleRenderOptions.CODEC.fieldOf("particles").forGetter(Factory::particles),
                     Codec.DOUBLE.fieldOf("range").forGetter(Factory::range),
-                    Codec.DOUBLE.fieldOf("points_per_block").forGetter(Factory::pointsPerBlock)
+                    Codec.DOUBLE.fieldOf("points_per_block").forGetter(Factory::pointsPerBlock),
+                    ExtraCodecs.POSITIVE_INT.optionalFieldOf("interval", 1).forGetter(Factory::interval)
                 ).apply(instance, ::Factory)
             }
         }
     }
+
+    private companion object {
+        private const val MAX_CACHED_PACKETS = 65536
+        private const val MAX_BUNDLE_SIZE = 4096
+
+        private fun createParticlePacket(particle: ParticleOptions, point: Vec3): Packet<ClientGamePacketListener> {
+            val packet = ClientboundLevelParticlesPacket(
+                particle, point, alwaysRender = true, overrideLimiter = true
+            )
+            return SharedPacketEncoder.share(packet)
+        }
+    }
 }
\ No newline at end of file
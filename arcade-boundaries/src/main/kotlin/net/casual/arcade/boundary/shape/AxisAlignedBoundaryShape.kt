@@ -20,7 +20,10 @@ import net.minecraft.resources.ResourceLocation
 import net.minecraft.util.ExtraCodecs
 import net.minecraft.world.phys.AABB
 import net.minecraft.world.phys.Vec3
+import java.util.*
 import java.util.function.Function
+import kotlin.math.max
+import kotlin.math.sqrt
 
 /**
  * This is an implementation of [BoundaryShape] that
@@ -90,6 +93,66 @@ public class AxisAlignedBoundaryShape private constructor(
         return this.aabb.contains(point)
     }
 
+    override fun contains(box: AABB): BoundaryShape.Containment {
+        val aabb = this.aabb
+        if (box.minX >= aabb.minX && box.maxX < aabb.maxX
+            && box.minY >= aabb.minY && box.maxY < aabb.maxY
+            && box.minZ >= aabb.minZ && box.maxZ < aabb.maxZ
+        ) {
+            return BoundaryShape.Containment.Full
+        }
+        if (aabb.intersects(box)) {
+            return BoundaryShape.Containment.Partial
+        }
+        return BoundaryShape.Containment.None
+    }
+
+    override fun hasExactContainment(): Boolean {
+        return true
+    }
+
+    override fun containsAll(positions: DoubleArray, count: Int): BitSet {
+        val aabb = this.aabb
+        val minX = aabb.minX
+        val minY = aabb.minY
+        val minZ = aabb.minZ
+        val maxX = aabb.maxX
+        val maxY = aabb.maxY
+        val maxZ = aabb.maxZ
+        val result = BitSet(count)
+        for (i in 0 until count) {
+            val x = positions[i * 3]
+            val y = positions[i * 3 + 1]
+            val z = positions[i * 3 + 2]
+            if (x >= minX && x < maxX && y >= minY && y < maxY && z >= minZ && z < maxZ) {
+                result.set(i)
+            }
+        }
+        return result
+    }
+
+    override fun getDistancesBetween(positions: DoubleArray, distances: DoubleArray, count: Int): DoubleArray {
+        val aabb = this.aabb
+        for (i in 0 until count) {
+            val x = positions[i * 3]
+            val y = positions[i * 3 + 1]
+            val z = positions[i * 3 + 2]
+            // Positive components are outside the box, negative inside
+            val dx = max(aabb.minX - x, x - aabb.maxX)
+            val dy = max(aabb.minY - y, y - aabb.maxY)
+            val dz = max(aabb.minZ - z, z - aabb.maxZ)
+            distances[i] = if (dx <= 0.0 && dy <= 0.0 && dz <= 0.0) {
+                -max(dx, max(dy, dz))
+            } else {
+                val ox = max(dx, 0.0)
+                val oy = max(dy, 0.0)
+                val oz = max(dz, 0.0)
+                sqrt(ox * ox + oy * oy + oz * oz)
+            }
+        }
+        return distances
+    }
+
     override fun getDirectionFrom(point: Vec3): Vec3 {
         val min = this.aabb.minPosition
         val max = this.aabb.maxPosition
@@ -121,6 +184,14 @@ public class AxisAlignedBoundaryShape private constructor(
         return CuboidShape(this.aabb)
     }
 
+    override fun getPointsWithin(area: AABB): ShapePoints {
+        return CuboidShape(this.aabb).within(area)
+    }
+
+    override fun snapshot(): BoundaryShape {
+        return AxisAlignedBoundaryShape(this.aabb)
+    }
+
     override fun codec(): MapCodec<out BoundaryShape> {
         return CODEC
     }
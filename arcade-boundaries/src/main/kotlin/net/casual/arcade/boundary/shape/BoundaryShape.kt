@@ -16,6 +16,7 @@ import net.minecraft.core.BlockPos
 import net.minecraft.core.Registry
 import net.minecraft.world.phys.AABB
 import net.minecraft.world.phys.Vec3
+import java.util.*
 import java.util.function.Function
 
 /**
@@ -84,6 +85,8 @@ public interface BoundaryShape {
      *
      * This returns [Containment] which dictates whether the box
      * is fully, partially, or not contained within the border.
+     * Implementations should prefer returning [Containment.Partial]
+     * over [Containment.None] if they cannot be precise.
      *
      * @param box The box to check.
      * @return The [Containment] of the box.
@@ -99,6 +102,20 @@ public interface BoundaryShape {
         return if (anyInside) Containment.Full else Containment.None
     }
 
+    /**
+     * Whether [contains] for boxes is exact for this shape.
+     *
+     * The default implementation only tests the corners of the
+     * box, which may miss parts of the shape passing through the
+     * box. Shapes which override [contains] to be exact should
+     * return `true`, this allows the results to be cached.
+     *
+     * @return Whether box containment is exact.
+     */
+    public fun hasExactContainment(): Boolean {
+        return false
+    }
+
     /**
      * Checks whether a point given by [x], [y], [z]
      * is within the border.
@@ -120,6 +137,52 @@ public interface BoundaryShape {
         return this.contains(point.x, point.y, point.z)
     }
 
+    /**
+     * Checks whether many points are within the border at once.
+     *
+     * The points are packed into the [positions] array as
+     * consecutive `x`, `y`, `z` coordinates. The bit at index `i`
+     * of the result is set if the `i`th point is in the border.
+     *
+     * @param positions The packed coordinates of the points.
+     * @param count The number of points to check.
+     * @return The bitset of points within the border.
+     */
+    public fun containsAll(positions: DoubleArray, count: Int = positions.size / 3): BitSet {
+        val result = BitSet(count)
+        for (i in 0 until count) {
+            val offset = i * 3
+            if (this.contains(positions[offset], positions[offset + 1], positions[offset + 2])) {
+                result.set(i)
+            }
+        }
+        return result
+    }
+
+    /**
+     * Gets the distances between this boundary and many points at once.
+     *
+     * The points are packed into the [positions] array as
+     * consecutive `x`, `y`, `z` coordinates, the distance to the
+     * `i`th point is written to index `i` of the [distances].
+     *
+     * @param positions The packed coordinates of the points.
+     * @param distances The array to write the distances to.
+     * @param count The number of points.
+     * @return The distances array.
+     */
+    public fun getDistancesBetween(
+        positions: DoubleArray,
+        distances: DoubleArray = DoubleArray(positions.size / 3),
+        count: Int = positions.size / 3
+    ): DoubleArray {
+        for (i in 0 until count) {
+            val offset = i * 3
+            distances[i] = this.getDistanceBetween(Vec3(positions[offset], positions[offset + 1], positions[offset + 2]))
+        }
+        return distances
+    }
+
     /**
      * Gets the distance between this boundary and a given [point].
      *
@@ -153,6 +216,36 @@ public interface BoundaryShape {
      */
     public fun getPoints(): ShapePoints
 
+    /**
+     * Gets the points that make up the part of the world
+     * border shape which lies within a given [area].
+     *
+     * By default, shapes cannot generate only the points within
+     * an area, in which case this returns `null` and [getPoints]
+     * should be used instead. Implementations should only override
+     * this if they can avoid generating the points outside the area.
+     *
+     * @param area The area to get the points within.
+     * @return Points on the world border within the area, or `null` if not supported.
+     */
+    public fun getPointsWithin(area: AABB): ShapePoints? {
+        return null
+    }
+
+    /**
+     * Creates a stationary copy of the current geometry of this
+     * boundary shape, which can be safely read from other threads.
+     *
+     * By default, shapes cannot be snapshotted, in which case
+     * anything that requires a snapshot should fall back to
+     * using the shape directly on the main thread.
+     *
+     * @return A snapshot of the boundary shape, or `null` if not supported.
+     */
+    public fun snapshot(): BoundaryShape? {
+        return null
+    }
+
     public fun codec(): MapCodec<out BoundaryShape>
 
     public enum class Containment {
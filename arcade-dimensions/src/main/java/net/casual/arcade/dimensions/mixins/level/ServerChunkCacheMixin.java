@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.dimensions.mixins.level;
+
+import net.casual.arcade.dimensions.level.CustomLevel;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ServerChunkCache.class)
+public class ServerChunkCacheMixin {
+	@Shadow @Final ServerLevel level;
+
+	@Inject(
+		method = "save",
+		at = @At("HEAD"),
+		cancellable = true
+	)
+	private void onSave(boolean flush, CallbackInfo ci) {
+		if (this.level instanceof CustomLevel custom && custom.isDiscarded()) {
+			ci.cancel();
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.dimensions.mixins.level.storage;
+
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import net.casual.arcade.dimensions.level.storage.ChunkStore;
+import net.casual.arcade.dimensions.level.storage.ChunkStores;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.StreamTagVisitor;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.storage.IOWorker;
+import net.minecraft.world.level.chunk.storage.RegionFileStorage;
+import net.minecraft.world.level.chunk.storage.RegionStorageInfo;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Mixin(IOWorker.class)
+public class IOWorkerMixin {
+	@Shadow @Final private RegionFileStorage storage;
+
+	@Unique @Nullable private ChunkStore arcade$store;
+
+	@Inject(
+		method = "<init>",
+		at = @At("TAIL")
+	)
+	private void onCreateStorage(RegionStorageInfo info, Path folder, boolean sync, CallbackInfo ci) {
+		this.arcade$store = ChunkStores.create(info, folder, this.storage);
+	}
+
+	@WrapOperation(
+		method = "*",
+		at = @At(
+			value = "INVOKE",
+			target = "Lnet/minecraft/world/level/chunk/storage/RegionFileStorage;read(Lnet/minecraft/world/level/ChunkPos;)Lnet/minecraft/nbt/CompoundTag;"
+		)
+	)
+	private CompoundTag onRead(
+		RegionFileStorage instance,
+		ChunkPos pos,
+		Operation<CompoundTag> original
+	) throws IOException {
+		if (this.arcade$store != null) {
+			return this.arcade$store.read(pos);
+		}
+		return original.call(instance, pos);
+	}
+
+	@WrapOperation(
+		method = "*",
+		at = @At(
+			value = "INVOKE",
+			target = "Lnet/minecraft/world/level/chunk/storage/RegionFileStorage;write(Lnet/minecraft/world/level/ChunkPos;Lnet/minecraft/nbt/CompoundTag;)V"
+		)
+	)
+	private void onWrite(
+		RegionFileStorage instance,
+		ChunkPos pos,
+		CompoundTag tag,
+		Operation<Void> original
+	) throws IOException {
+		if (this.arcade$store != null) {
+			this.arcade$store.write(pos, tag);
+			return;
+		}
+		original.call(instance, pos, tag);
+	}
+
+	@WrapOperation(
+		method = "*",
+		at = @At(
+			value = "INVOKE",
+			target = "Lnet/minecraft/world/level/chunk/storage/RegionFileStorage;scanChunk(Lnet/minecraft/world/level/ChunkPos;Lnet/minecraft/nbt/StreamTagVisitor;)V"
+		)
+	)
+	private void onScan(
+		RegionFileStorage instance,
+		ChunkPos pos,
+		StreamTagVisitor visitor,
+		Operation<Void> original
+	) throws IOException {
+		if (this.arcade$store != null) {
+			this.arcade$store.scan(pos, visitor);
+			return;
+		}
+		original.call(instance, pos, visitor);
+	}
+
+	@WrapOperation(
+		method = "*",
+		at = @At(
+			value = "INVOKE",
+			target = "Lnet/minecraft/world/level/chunk/storage/RegionFileStorage;flush()V"
+		)
+	)
+	private void onFlush(RegionFileStorage instance, Operation<Void> original) throws IOException {
+		if (this.arcade$store != null) {
+			this.arcade$store.flush();
+			return;
+		}
+		original.call(instance);
+	}
+
+	@WrapOperation(
+		method = "*",
+		at = @At(
+			value = "INVOKE",
+			target = "Lnet/minecraft/world/level/chunk/storage/RegionFileStorage;close()V"
+		)
+	)
+	private void onClose(RegionFileStorage instance, Operation<Void> original) throws IOException {
+		if (this.arcade$store != null) {
+			try {
+				this.arcade$store.close();
+			} finally {
+				original.call(instance);
+			}
+			return;
+		}
+		original.call(instance);
+	}
+}
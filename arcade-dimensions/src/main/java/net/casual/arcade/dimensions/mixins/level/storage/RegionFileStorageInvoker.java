@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.dimensions.mixins.level.storage;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.storage.RegionFileStorage;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import java.io.IOException;
+
+@Mixin(RegionFileStorage.class)
+public interface RegionFileStorageInvoker {
+	@Invoker("write")
+	void invokeWrite(ChunkPos pos, @Nullable CompoundTag tag) throws IOException;
+}
@@ -5,8 +5,10 @@
 package net.casual.arcade.dimensions
 
 import net.casual.arcade.dimensions.level.CustomLevel
+import net.casual.arcade.dimensions.level.CustomLevelPool
 import net.casual.arcade.dimensions.level.LevelPersistence
 import net.casual.arcade.dimensions.level.builder.CustomLevelBuilder
+import net.casual.arcade.dimensions.level.generation.ChunkPregenerator
 import net.casual.arcade.dimensions.level.spawner.extension.LevelCustomMobSpawningExtension
 import net.casual.arcade.dimensions.level.vanilla.extension.DragonDataExtension
 import net.casual.arcade.dimensions.utils.*
@@ -20,6 +22,7 @@ import net.minecraft.resources.ResourceKey
 import net.minecraft.resources.ResourceLocation
 import net.minecraft.server.MinecraftServer
 import net.minecraft.world.level.Level
+import java.util.concurrent.CompletableFuture
 
 /**
  * Mod initializer for arcade's dimensions api.
@@ -34,8 +37,10 @@ public object ArcadeDimensions: ModInitializer {
     override fun onInitialize() {
         DimensionRegistries.load()
         Registry.register(BuiltInRegistries.CHUNK_GENERATOR, ArcadeUtils.id("void"), VoidChunkGenerator.CODEC)
+        Registry.register(BuiltInRegistries.TICKET_TYPE, ArcadeUtils.id("pregeneration"), ChunkPregenerator.TICKET)
 
         LevelPersistenceTracker.registerEvents()
+        CustomLevelPool.registerEvents()
         LevelCustomMobSpawningExtension.registerEvents()
         DragonDataExtension.registerEvents()
     }
@@ -251,4 +256,36 @@ public object ArcadeDimensions: ModInitializer {
     public fun delete(server: MinecraftServer, level: CustomLevel): Boolean {
         return server.deleteCustomLevel(level)
     }
+
+    /**
+     * Removes a [CustomLevel] from the server asynchronously.
+     *
+     * The level is detached from the server immediately, the
+     * level is then closed once all its chunks have been written.
+     *
+     * If the [CustomLevel.persistence] is [LevelPersistence.Temporary]
+     * then the level will be deleted instead, equivalent of calling
+     * [deleteAsync].
+     *
+     * @param level The level to remove.
+     * @return A future which completes with whether the level was removed.
+     */
+    @JvmStatic
+    public fun removeAsync(server: MinecraftServer, level: CustomLevel): CompletableFuture<Boolean> {
+        return server.removeCustomLevelAsync(level)
+    }
+
+    /**
+     * Deletes a [CustomLevel] from the server asynchronously.
+     *
+     * The level is detached and closed immediately, its
+     * directory is then deleted on a background thread.
+     *
+     * @param level The level to delete.
+     * @return A future which completes with whether the level was deleted.
+     */
+    @JvmStatic
+    public fun deleteAsync(server: MinecraftServer, level: CustomLevel): CompletableFuture<Boolean> {
+        return server.deleteCustomLevelAsync(level)
+    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.dimensions.events
+
+import net.casual.arcade.dimensions.level.generation.ChunkPregenerator
+import net.casual.arcade.events.server.level.LevelEvent
+import net.minecraft.server.level.ServerLevel
+
+/**
+ * This event is broadcast when a [ChunkPregenerator]
+ * has finished, or has been cancelled.
+ */
+public data class ChunkPregenerationCompleteEvent(
+    override val level: ServerLevel,
+    val pregenerator: ChunkPregenerator,
+    /**
+     * Whether the pregeneration was cancelled.
+     */
+    val cancelled: Boolean
+): LevelEvent
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.dimensions.events
+
+import net.casual.arcade.dimensions.level.generation.ChunkPregenerator
+import net.casual.arcade.events.server.level.LevelEvent
+import net.minecraft.server.level.ServerLevel
+
+/**
+ * This event is broadcast periodically while a
+ * [ChunkPregenerator] is generating chunks.
+ */
+public data class ChunkPregenerationProgressEvent(
+    override val level: ServerLevel,
+    val pregenerator: ChunkPregenerator,
+    /**
+     * The number of chunks that have been generated.
+     */
+    val generated: Int,
+    /**
+     * The total number of chunks to generate.
+     */
+    val total: Int
+): LevelEvent
@@ -82,6 +82,13 @@ public open class CustomLevel(
     private val derivedLevelData: DerivedLevelData
         get() = this.levelData as DerivedLevelData
 
+    /**
+     * Whether this level is being deleted, if so, the
+     * level's chunks will no longer be saved.
+     */
+    public var isDiscarded: Boolean = false
+        internal set
+
     init {
         // In case of server crash, we should still delete temporary levels
         if (!this.persistence.shouldSave()) {
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.dimensions.level
+
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet
+import net.casual.arcade.dimensions.level.builder.CustomLevelBuilder
+import net.casual.arcade.dimensions.utils.deleteCustomLevelAsync
+import net.casual.arcade.dimensions.utils.hasCustomLevel
+import net.casual.arcade.events.GlobalEventHandler
+import net.casual.arcade.events.ListenerRegistry.Companion.register
+import net.casual.arcade.events.server.ServerStoppingEvent
+import net.casual.arcade.events.server.ServerTickEvent
+import net.casual.arcade.utils.ArcadeUtils
+import net.minecraft.server.MinecraftServer
+import java.util.concurrent.CompletableFuture
+
+/**
+ * A pre-warmed cache of constructed [CustomLevel]s which all
+ * share the same builder specification.
+ *
+ * Constructing a level is relatively expensive, and when many
+ * levels are created and removed in quick succession, for example,
+ * between rounds of a minigame, the pool allows you to [acquire]
+ * an already constructed level without paying for its construction
+ * during the transition.
+ *
+ * This is **not** a fast reset, levels are never reused. Levels are
+ * constructed synchronously on the server thread, at most one per
+ * tick, until the pool holds [size] warm levels. The construction
+ * cost is therefore moved to earlier ticks, not removed. If the pool
+ * is empty then [acquire] constructs a level immediately.
+ *
+ * Acquired levels are not added to the server, you must add them
+ * yourself. Once you're done with a level you should [release] it,
+ * which removes and deletes the level, a fresh replacement will then
+ * be constructed on a later tick.
+ *
+ * Every level in the pool is constructed from a new
+ * [CustomLevelBuilder], so each level has its own [LevelProperties].
+ * Each level is given a random dimension key, and the levels
+ * must be [LevelPersistence.Temporary].
+ *
+ * @param server The [MinecraftServer] instance.
+ * @param size The number of warm levels to keep.
+ * @param spec The method to configure the builder for each level.
+ */
+public class CustomLevelPool(
+    public val server: MinecraftServer,
+    public val size: Int,
+    private val spec: CustomLevelBuilder.() -> Unit
+) {
+    private val warm = ArrayDeque<CustomLevel>()
+
+    /**
+     * Whether this pool has been closed.
+     */
+    public var closed: Boolean = false
+        private set
+
+    init {
+        require(this.size >= 0) { "Pool size must not be negative" }
+        pools.add(this)
+    }
+
+    /**
+     * The number of warm levels currently in the pool.
+     *
+     * @return The number of warm levels.
+     */
+    public fun available(): Int {
+        return this.warm.size
+    }
+
+    /**
+     * Takes a level out of the pool, if no levels are warm
+     * then a new level will be constructed immediately, on
+     * the calling thread.
+     *
+     * The returned level **has not** been added to the server.
+     *
+     * @return The level.
+     */
+    public fun acquire(): CustomLevel {
+        check(!this.closed) { "Cannot acquire a level from a closed pool" }
+        return this.warm.removeFirstOrNull() ?: this.create()
+    }
+
+    /**
+     * Releases a level which was previously acquired from this pool.
+     *
+     * The level will be removed from the server and deleted
+     * asynchronously, see [deleteCustomLevelAsync].
+     *
+     * @param level The level to release.
+     * @return A future which completes once the level has been deleted.
+     */
+    public fun release(level: CustomLevel): CompletableFuture<Boolean> {
+        if (!level.isDiscarded && !this.server.hasCustomLevel(level)) {
+            discard(level)
+        }
+        return this.server.deleteCustomLevelAsync(level)
+    }
+
+    /**
+     * Closes the pool, discarding all the warm levels.
+     * Levels that have already been acquired are unaffected.
+     */
+    public fun close() {
+        if (this.closed) {
+            return
+        }
+        this.closed = true
+        pools.remove(this)
+        for (level in this.warm) {
+            discard(level)
+            this.server.deleteCustomLevelAsync(level)
+        }
+        this.warm.clear()
+    }
+
+    private fun tick() {
+        if (this.warm.size < this.size) {
+            try {
+                this.warm.addLast(this.create())
+            } catch (e: Exception) {
+                ArcadeUtils.logger.error("Failed to construct pooled level, closing pool", e)
+                this.close()
+            }
+        }
+    }
+
+    private fun create(): CustomLevel {
+        val builder = CustomLevelBuilder()
+        builder.spec()
+        require(builder.persistence == LevelPersistence.Temporary) { "Pooled levels must be temporary" }
+        return builder.randomDimensionKey().build(this.server)
+    }
+
+    internal companion object {
+        private val pools = ReferenceLinkedOpenHashSet<CustomLevelPool>()
+
+        private fun discard(level: CustomLevel) {
+            // The level was never added, so it needs to be closed here
+            level.isDiscarded = true
+            level.close()
+        }
+
+        internal fun registerEvents() {
+            GlobalEventHandler.Server.register<ServerTickEvent> {
+                for (pool in pools.toList()) {
+                    pool.tick()
+                }
+            }
+            GlobalEventHandler.Server.register<ServerStoppingEvent> {
+                for (pool in pools.toList()) {
+                    pool.close()
+                }
+            }
+        }
+    }
+}
@@ -13,6 +13,8 @@ import net.casual.arcade.dimensions.level.LevelProperties.DifficultyProperties
 import net.casual.arcade.dimensions.level.LevelProperties.WeatherProperties
 import net.casual.arcade.dimensions.level.factory.CustomLevelFactoryConstructor
 import net.casual.arcade.dimensions.level.spawner.CustomSpawnerFactory
+import net.casual.arcade.dimensions.level.storage.ChunkStoreFactory
+import net.casual.arcade.dimensions.level.storage.ChunkStores
 import net.casual.arcade.dimensions.level.vanilla.VanillaDimension
 import net.casual.arcade.dimensions.utils.setSpoofedDimension
 import net.casual.arcade.utils.ResourceUtils
@@ -70,6 +72,7 @@ public class CustomLevelBuilder {
     private var typeKey: ResourceKey<DimensionType>? = null
     private var generator: ChunkGenerator? = null
     private var spoofedKey: ResourceKey<Level>? = null
+    private var storage: ChunkStoreFactory? = null
 
     /**
      * The world seed.
@@ -163,6 +166,13 @@ public class CustomLevelBuilder {
         set(value) { this.spoofedDimensionKey(value) }
         get() = throw UnsupportedOperationException()
 
+    /**
+     * Sets the chunk storage.
+     */
+    public var chunkStorage: ChunkStoreFactory
+        set(value) { this.chunkStorage(value) }
+        get() = throw UnsupportedOperationException()
+
     /**
      * This sets the [CustomLevel] factory constructor.
      *
@@ -609,6 +619,40 @@ public class CustomLevelBuilder {
         return this
     }
 
+    /**
+     * Sets the storage for the level's chunks, entities, and poi.
+     *
+     * By default, levels are stored in vanilla region files.
+     * Custom storage is not serialized, so may only be used
+     * with [LevelPersistence.Temporary] levels.
+     *
+     * @param factory The chunk store factory.
+     * @return This builder.
+     * @see ChunkStoreFactory
+     */
+    public fun chunkStorage(factory: ChunkStoreFactory): CustomLevelBuilder {
+        this.storage = factory
+        return this
+    }
+
+    /**
+     * Creates this level as a copy-on-write instance of a template level.
+     *
+     * Chunks are read from the template level's files, and only
+     * the modified chunks are written to this level. This makes
+     * creating many copies of the same map almost instant.
+     *
+     * The template level should be saved and unloaded before being
+     * used, it must not be loaded while any copies exist.
+     *
+     * @param template The dimension key of the template level.
+     * @return This builder.
+     * @see ChunkStoreFactory.template
+     */
+    public fun template(template: ResourceKey<Level>): CustomLevelBuilder {
+        return this.chunkStorage(ChunkStoreFactory.template(template))
+    }
+
     /**
      * Builds the [CustomLevel] instance.
      *
@@ -636,7 +680,11 @@ public class CustomLevelBuilder {
         val options = LevelGenerationOptions(
             stem, this.seed, this.flat, this.tickTime, this.generateStructures, this.debug, this.spawners
         )
-        val level = this.constructor.construct(this.properties, options, this.persistence).create(server, key)
+        require(this.storage == null || this.persistence == LevelPersistence.Temporary) {
+            "Custom chunk storage can only be used for temporary levels"
+        }
+        val factory = this.constructor.construct(this.properties, options, this.persistence)
+        val level = ChunkStores.constructWith(server, key, this.storage) { factory.create(server, key) }
         level.setSpoofedDimension(this.spoofedKey)
         return level
     }
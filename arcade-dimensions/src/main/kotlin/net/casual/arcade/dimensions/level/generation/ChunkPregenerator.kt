@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.dimensions.level.generation
+
+import it.unimi.dsi.fastutil.longs.LongArrayList
+import it.unimi.dsi.fastutil.longs.LongArrays
+import net.casual.arcade.dimensions.events.ChunkPregenerationCompleteEvent
+import net.casual.arcade.dimensions.events.ChunkPregenerationProgressEvent
+import net.casual.arcade.events.GlobalEventHandler
+import net.casual.arcade.utils.ArcadeUtils
+import net.minecraft.core.SectionPos
+import net.minecraft.server.level.ServerLevel
+import net.minecraft.server.level.TicketType
+import net.minecraft.world.level.ChunkPos
+import net.minecraft.world.level.chunk.status.ChunkStatus
+import net.minecraft.world.level.levelgen.structure.BoundingBox
+import java.util.concurrent.CompletableFuture
+import kotlin.math.max
+import kotlin.math.min
+
+/**
+ * This class generates and loads chunks in a [level] ahead of time,
+ * for example, before a minigame starts.
+ *
+ * Chunks are generated in parallel, from the center outwards, with
+ * at most [concurrency] chunks being generated at any one time.
+ * A [ChunkPregenerationProgressEvent] is broadcast periodically and a
+ * [ChunkPregenerationCompleteEvent] is broadcast once complete.
+ *
+ * Each chunk is kept loaded by a [TICKET] while it is being generated.
+ * If [hold] is enabled, then the ticket is kept once the chunk is
+ * generated, and the chunk will remain loaded until [release] is called,
+ * for example, once players have arrived. These tickets are not
+ * persistent, so chunks are never left loaded after a restart.
+ *
+ * This must be used on the main thread.
+ *
+ * @param level The level to generate the chunks in.
+ * @param chunks The chunks to generate.
+ * @param concurrency The maximum number of chunks to generate at once.
+ * @param hold Whether the chunks should be kept loaded until [release] is called.
+ */
+public class ChunkPregenerator(
+    public val level: ServerLevel,
+    chunks: Collection<ChunkPos>,
+    private val concurrency: Int = DEFAULT_CONCURRENCY,
+    private val hold: Boolean = false
+) {
+    private val chunks: LongArray
+    private val held = LongArrayList()
+    private val future = CompletableFuture<Boolean>()
+    private val interval: Int
+
+    private var next = 0
+    private var pending = 0
+
+    /**
+     * The total number of chunks to generate.
+     */
+    public val total: Int
+
+    /**
+     * The number of chunks that have been generated.
+     */
+    public var generated: Int = 0
+        private set
+
+    /**
+     * The number of chunks that failed to generate.
+     */
+    public var failed: Int = 0
+        private set
+
+    /**
+     * Whether the pregeneration has been cancelled.
+     */
+    public var cancelled: Boolean = false
+        private set
+
+    init {
+        require(this.concurrency > 0) { "Concurrency must be positive" }
+        this.chunks = LongArray(chunks.size)
+        var sumX = 0L
+        var sumZ = 0L
+        for ((i, pos) in chunks.withIndex()) {
+            this.chunks[i] = pos.toLong()
+            sumX += pos.x
+            sumZ += pos.z
+        }
+        this.total = this.chunks.size
+        this.interval = max(1, this.total / 100)
+
+        if (this.total > 0) {
+            val centerX = (sumX / this.total).toInt()
+            val centerZ = (sumZ / this.total).toInt()
+            LongArrays.quickSort(this.chunks) { a, b ->
+                distance(a, centerX, centerZ).compareTo(distance(b, centerX, centerZ))
+            }
+        }
+    }
+
+    /**
+     * Starts generating the chunks.
+     *
+     * @return A future which completes with `true` once all the chunks
+     *   have been generated, or `false` if cancelled.
+     */
+    public fun start(): CompletableFuture<Boolean> {
+        check(this.level.server.isSameThread) { "Chunks must be pregenerated on the main thread" }
+        if (this.next == 0 && this.pending == 0) {
+            this.submit()
+        }
+        return this.future
+    }
+
+    /**
+     * Cancels the pregeneration, any chunks being held will be released.
+     */
+    public fun cancel() {
+        if (this.future.isDone || this.cancelled) {
+            return
+        }
+        this.cancelled = true
+        this.release()
+        if (this.pending == 0) {
+            this.complete()
+        }
+    }
+
+    /**
+     * Releases any chunks being held loaded, see [hold].
+     */
+    public fun release() {
+        val iterator = this.held.iterator()
+        while (iterator.hasNext()) {
+            val packed = iterator.nextLong()
+            this.level.chunkSource.removeTicketWithRadius(TICKET, ChunkPos(packed), 0)
+        }
+        this.held.clear()
+    }
+
+    /**
+     * Whether the pregeneration has finished.
+     *
+     * @return Whether the pregeneration has finished.
+     */
+    public fun isDone(): Boolean {
+        return this.future.isDone
+    }
+
+    private fun submit() {
+        while (this.pending < this.concurrency && this.next < this.total) {
+            val packed = this.chunks[this.next++]
+            val pos = ChunkPos(packed)
+            this.pending++
+            this.level.chunkSource.addTicketWithRadius(TICKET, pos, 0)
+            if (this.hold) {
+                this.held.add(packed)
+            }
+            this.level.chunkSource.getChunkFuture(pos.x, pos.z, ChunkStatus.FULL, true).whenCompleteAsync({ result, throwable ->
+                if (!this.hold) {
+                    this.level.chunkSource.removeTicketWithRadius(TICKET, pos, 0)
+                }
+                val dimension = this.level.dimension().location()
+                if (throwable != null) {
+                    ArcadeUtils.logger.warn("Failed to pregenerate chunk $pos in $dimension", throwable)
+                    this.onGenerated(false)
+                } else if (!result.isSuccess) {
+                    ArcadeUtils.logger.warn("Failed to pregenerate chunk $pos in $dimension: ${result.error}")
+                    this.onGenerated(false)
+                } else {
+                    this.onGenerated(true)
+                }
+            }, this.level.server)
+        }
+        if (this.pending == 0 && this.next >= this.total) {
+            this.complete()
+        }
+    }
+
+    private fun onGenerated(success: Boolean) {
+        this.pending--
+        if (success) {
+            this.generated++
+        } else {
+            this.failed++
+        }
+        if (this.cancelled) {
+            if (this.pending == 0) {
+                this.complete()
+            }
+            return
+        }
+        val processed = this.generated + this.failed
+        if (processed % this.interval == 0 || processed == this.total) {
+            val event = ChunkPregenerationProgressEvent(this.level, this, this.generated, this.total)
+            GlobalEventHandler.Server.broadcast(event)
+        }
+        this.submit()
+    }
+
+    private fun complete() {
+        if (this.future.isDone) {
+            return
+        }
+        GlobalEventHandler.Server.broadcast(ChunkPregenerationCompleteEvent(this.level, this, this.cancelled))
+        this.future.complete(!this.cancelled)
+    }
+
+    public companion object {
+        public const val DEFAULT_CONCURRENCY: Int = 16
+
+        /**
+         * The ticket which keeps chunks loaded while they are being
+         * pregenerated, and while they are being held.
+         */
+        @JvmField
+        public val TICKET: TicketType = TicketType(TicketType.NO_TIMEOUT, TicketType.FLAG_LOADING)
+
+        /**
+         * Creates a [ChunkPregenerator] for all the chunks between two corners.
+         *
+         * @param level The level to generate the chunks in.
+         * @param from The first chunk corner.
+         * @param to The second chunk corner.
+         * @param concurrency The maximum number of chunks to generate at once.
+         * @param hold Whether the chunks should be kept loaded until released.
+         * @return The chunk pregenerator.
+         */
+        @JvmStatic
+        @JvmOverloads
+        public fun area(
+            level: ServerLevel,
+            from: ChunkPos,
+            to: ChunkPos,
+            concurrency: Int = DEFAULT_CONCURRENCY,
+            hold: Boolean = false
+        ): ChunkPregenerator {
+            val chunks = ArrayList<ChunkPos>()
+            for (x in min(from.x, to.x)..max(from.x, to.x)) {
+                for (z in min(from.z, to.z)..max(from.z, to.z)) {
+                    chunks.add(ChunkPos(x, z))
+                }
+            }
+            return ChunkPregenerator(level, chunks, concurrency, hold)
+        }
+
+        /**
+         * Creates a [ChunkPregenerator] for all the chunks within
+         * a given chunk radius of a center chunk.
+         *
+         * @param level The level to generate the chunks in.
+         * @param center The center chunk.
+         * @param radius The radius in chunks.
+         * @param concurrency The maximum number of chunks to generate at once.
+         * @param hold Whether the chunks should be kept loaded until released.
+         * @return The chunk pregenerator.
+         */
+        @JvmStatic
+        @JvmOverloads
+        public fun radius(
+            level: ServerLevel,
+            center: ChunkPos,
+            radius: Int,
+            concurrency: Int = DEFAULT_CONCURRENCY,
+            hold: Boolean = false
+        ): ChunkPregenerator {
+            val from = ChunkPos(center.x - radius, center.z - radius)
+            val to = ChunkPos(center.x + radius, center.z + radius)
+            return this.area(level, from, to, concurrency, hold)
+        }
+
+        /**
+         * Creates a [ChunkPregenerator] for all the chunks
+         * which intersect a given bounding box.
+         *
+         * @param level The level to generate the chunks in.
+         * @param box The bounding box.
+         * @param concurrency The maximum number of chunks to generate at once.
+         * @param hold Whether the chunks should be kept loaded until released.
+         * @return The chunk pregenerator.
+         */
+        @JvmStatic
+        @JvmOverloads
+        public fun box(
+            level: ServerLevel,
+            box: BoundingBox,
+            concurrency: Int = DEFAULT_CONCURRENCY,
+            hold: Boolean = false
+        ): ChunkPregenerator {
+            val from = ChunkPos(SectionPos.blockToSectionCoord(box.minX()), SectionPos.blockToSectionCoord(box.minZ()))
+            val to = ChunkPos(SectionPos.blockToSectionCoord(box.maxX()), SectionPos.blockToSectionCoord(box.maxZ()))
+            return this.area(level, from, to, concurrency, hold)
+        }
+
+        private fun distance(packed: Long, x: Int, z: Int): Int {
+            val dx = ChunkPos.getX(packed) - x
+            val dz = ChunkPos.getZ(packed) - z
+            return dx * dx + dz * dz
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.dimensions.level.storage
+
+import net.casual.arcade.dimensions.level.builder.CustomLevelBuilder
+import net.minecraft.nbt.CompoundTag
+import net.minecraft.nbt.StreamTagVisitor
+import net.minecraft.world.level.ChunkPos
+import java.io.IOException
+
+/**
+ * A storage backend for a level's chunk data, this replaces
+ * the vanilla region files for a single type of storage,
+ * for example, the chunks, entities, or poi.
+ *
+ * All methods are called from the level's IO worker, which
+ * runs tasks sequentially, so implementations do not need
+ * to be thread safe.
+ *
+ * @see ChunkStoreFactory
+ * @see CustomLevelBuilder.chunkStorage
+ */
+public interface ChunkStore: AutoCloseable {
+    /**
+     * Reads the data for a given chunk.
+     *
+     * @param pos The position of the chunk.
+     * @return The chunk data, or `null` if the chunk has no data.
+     */
+    @Throws(IOException::class)
+    public fun read(pos: ChunkPos): CompoundTag?
+
+    /**
+     * Writes the data for a given chunk.
+     *
+     * @param pos The position of the chunk.
+     * @param tag The chunk data, `null` if the data should be removed.
+     */
+    @Throws(IOException::class)
+    public fun write(pos: ChunkPos, tag: CompoundTag?)
+
+    /**
+     * Visits the data for a given chunk, if present.
+     *
+     * @param pos The position of the chunk.
+     * @param visitor The visitor.
+     */
+    @Throws(IOException::class)
+    public fun scan(pos: ChunkPos, visitor: StreamTagVisitor) {
+        this.read(pos)?.acceptAsRoot(visitor)
+    }
+
+    /**
+     * Flushes any written data.
+     */
+    @Throws(IOException::class)
+    public fun flush()
+
+    /**
+     * Closes the store.
+     */
+    @Throws(IOException::class)
+    override fun close()
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.dimensions.level.storage
+
+import net.minecraft.server.MinecraftServer
+import net.minecraft.world.level.chunk.storage.RegionFileStorage
+import net.minecraft.world.level.chunk.storage.RegionStorageInfo
+import java.nio.file.Path
+
+/**
+ * The context used to create a [ChunkStore].
+ *
+ * @param server The [MinecraftServer] instance.
+ * @param info The info of the storage, including the dimension and type.
+ * @param folder The folder that the vanilla region files would be stored in.
+ * @param region The vanilla region storage for the [folder].
+ *   This is owned and closed by the level, stores should not close it.
+ */
+public class ChunkStoreContext(
+    public val server: MinecraftServer,
+    public val info: RegionStorageInfo,
+    public val folder: Path,
+    public val region: RegionFileStorage
+)
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.dimensions.level.storage
+
+import net.casual.arcade.dimensions.level.builder.CustomLevelBuilder
+import net.casual.arcade.dimensions.utils.getDimensionPath
+import net.minecraft.resources.ResourceKey
+import net.minecraft.world.level.Level
+import java.nio.file.Path
+
+/**
+ * Factory for creating [ChunkStore]s for a level.
+ *
+ * A separate store is created for each type of storage
+ * in the level, the chunks, entities, and poi.
+ *
+ * @see CustomLevelBuilder.chunkStorage
+ */
+public fun interface ChunkStoreFactory {
+    /**
+     * Creates a [ChunkStore].
+     *
+     * @param context The context of the store.
+     * @return The created store.
+     */
+    public fun create(context: ChunkStoreContext): ChunkStore
+
+    public companion object {
+        /**
+         * Stores chunks in the level's vanilla region files.
+         */
+        @JvmField
+        public val REGION: ChunkStoreFactory = ChunkStoreFactory { context -> RegionChunkStore(context.region) }
+
+        /**
+         * Stores all chunks in memory, nothing is written to disk.
+         *
+         * This avoids the cost of serializing, compressing, and
+         * writing chunks for levels which are never kept.
+         * All the data is lost when the level is unloaded.
+         */
+        @JvmField
+        public val MEMORY: ChunkStoreFactory = ChunkStoreFactory { InMemoryChunkStore() }
+
+        /**
+         * Stores chunks in memory, once more than [maxChunks] are
+         * stored the least recently used chunks are spilled to the
+         * level's vanilla region files.
+         *
+         * @param maxChunks The maximum number of chunks to keep in memory.
+         * @return The chunk store factory.
+         */
+        @JvmStatic
+        public fun memory(maxChunks: Int): ChunkStoreFactory {
+            require(maxChunks > 0) { "Maximum chunks must be positive" }
+            return ChunkStoreFactory { context -> InMemoryChunkStore(RegionChunkStore(context.region), maxChunks) }
+        }
+
+        /**
+         * Creates copy-on-write levels from a template level.
+         *
+         * Chunks are read from the template's region files, any modified
+         * chunks are written to the [overlay], leaving the template untouched.
+         * This makes creating a copy of the template level almost instant.
+         *
+         * The template's region files are only opened for reading.
+         * The template level should be saved and unloaded before any
+         * levels use it, it must not be loaded at the same time as them.
+         *
+         * @param dimension The dimension of the template level.
+         * @param overlay The factory for storing modified chunks.
+         * @return The chunk store factory.
+         */
+        @JvmStatic
+        @JvmOverloads
+        public fun template(dimension: ResourceKey<Level>, overlay: ChunkStoreFactory = REGION): ChunkStoreFactory {
+            return ChunkStoreFactory { context ->
+                this.template(context.server.getDimensionPath(dimension), overlay).create(context)
+            }
+        }
+
+        /**
+         * Creates copy-on-write levels from a template level directory.
+         *
+         * Chunks are read from the template's region files, any modified
+         * chunks are written to the [overlay], leaving the template untouched.
+         * This makes creating a copy of the template level almost instant.
+         *
+         * The template's region files are only opened for reading, and
+         * must not be written to while any levels are using them.
+         *
+         * @param directory The dimension directory of the template level.
+         * @param overlay The factory for storing modified chunks.
+         * @return The chunk store factory.
+         */
+        @JvmStatic
+        @JvmOverloads
+        public fun template(directory: Path, overlay: ChunkStoreFactory = REGION): ChunkStoreFactory {
+            return ChunkStoreFactory { context ->
+                TemplateChunkStore(directory.resolve(context.folder.fileName), overlay.create(context))
+            }
+        }
+    }
+}
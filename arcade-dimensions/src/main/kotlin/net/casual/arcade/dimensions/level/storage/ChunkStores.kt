@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.dimensions.level.storage
+
+import net.minecraft.resources.ResourceKey
+import net.minecraft.server.MinecraftServer
+import net.minecraft.world.level.Level
+import net.minecraft.world.level.chunk.storage.RegionFileStorage
+import net.minecraft.world.level.chunk.storage.RegionStorageInfo
+import org.jetbrains.annotations.ApiStatus.Internal
+import java.nio.file.Path
+import java.util.concurrent.ConcurrentHashMap
+
+@Internal
+public object ChunkStores {
+    private val pending = ConcurrentHashMap<ResourceKey<Level>, Pair<MinecraftServer, ChunkStoreFactory>>()
+
+    internal fun <T> constructWith(
+        server: MinecraftServer,
+        key: ResourceKey<Level>,
+        factory: ChunkStoreFactory?,
+        constructor: () -> T
+    ): T {
+        if (factory == null) {
+            return constructor.invoke()
+        }
+        // The level's storage is created during the level's construction
+        this.pending[key] = server to factory
+        try {
+            return constructor.invoke()
+        } finally {
+            this.pending.remove(key)
+        }
+    }
+
+    @JvmStatic
+    public fun create(info: RegionStorageInfo, folder: Path, region: RegionFileStorage): ChunkStore? {
+        val (server, factory) = this.pending[info.dimension()] ?: return null
+        return factory.create(ChunkStoreContext(server, info, folder, region))
+    }
+}
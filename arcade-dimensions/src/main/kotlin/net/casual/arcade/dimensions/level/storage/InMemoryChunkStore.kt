@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.dimensions.level.storage
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet
+import net.minecraft.nbt.CompoundTag
+import net.minecraft.nbt.StreamTagVisitor
+import net.minecraft.world.level.ChunkPos
+
+/**
+ * A [ChunkStore] which keeps all chunks in memory, chunks
+ * are never serialized, compressed, or written to disk.
+ *
+ * Optionally, the number of chunks kept in memory may be capped,
+ * in which case the least recently used chunks are spilled to
+ * the given [spill] store.
+ *
+ * This should only be used for temporary levels, all the
+ * data is lost when the level is closed.
+ *
+ * @param spill The store to spill chunks to, `null` to keep all chunks in memory.
+ * @param maxChunks The maximum number of chunks to keep in memory before spilling.
+ */
+public class InMemoryChunkStore(
+    private val spill: ChunkStore? = null,
+    private val maxChunks: Int = Int.MAX_VALUE
+): ChunkStore {
+    private val chunks = Long2ObjectLinkedOpenHashMap<CompoundTag>()
+    private val spilled = LongOpenHashSet()
+
+    /**
+     * The number of chunks currently held in memory.
+     */
+    public val size: Int
+        get() = this.chunks.size
+
+    override fun read(pos: ChunkPos): CompoundTag? {
+        val packed = pos.toLong()
+        val tag = this.chunks.getAndMoveToLast(packed)
+        if (tag != null) {
+            // The chunk map may modify the tag when upgrading it
+            return tag.copy()
+        }
+        if (this.spill != null && this.spilled.contains(packed)) {
+            return this.spill.read(pos)
+        }
+        return null
+    }
+
+    override fun write(pos: ChunkPos, tag: CompoundTag?) {
+        val packed = pos.toLong()
+        if (this.spill != null && this.spilled.remove(packed)) {
+            this.spill.write(pos, null)
+        }
+        if (tag == null) {
+            this.chunks.remove(packed)
+            return
+        }
+        this.chunks.putAndMoveToLast(packed, tag)
+        this.spillExcess()
+    }
+
+    override fun scan(pos: ChunkPos, visitor: StreamTagVisitor) {
+        val packed = pos.toLong()
+        val tag = this.chunks.get(packed)
+        if (tag != null) {
+            tag.acceptAsRoot(visitor)
+        } else if (this.spill != null && this.spilled.contains(packed)) {
+            this.spill.scan(pos, visitor)
+        }
+    }
+
+    override fun flush() {
+        this.spill?.flush()
+    }
+
+    override fun close() {
+        this.chunks.clear()
+        this.spilled.clear()
+        this.spill?.close()
+    }
+
+    private fun spillExcess() {
+        val spill = this.spill ?: return
+        while (this.chunks.size > this.maxChunks) {
+            val packed = this.chunks.firstLongKey()
+            val tag = this.chunks.removeFirst()
+            spill.write(ChunkPos(packed), tag)
+            this.spilled.add(packed)
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.dimensions.level.storage
+
+import net.casual.arcade.dimensions.mixins.level.storage.RegionFileStorageInvoker
+import net.minecraft.nbt.CompoundTag
+import net.minecraft.nbt.StreamTagVisitor
+import net.minecraft.world.level.ChunkPos
+import net.minecraft.world.level.chunk.storage.RegionFileStorage
+
+/**
+ * A [ChunkStore] which stores chunks in vanilla region files.
+ *
+ * @param storage The region file storage.
+ * @param owned Whether this store should close the [storage].
+ */
+public class RegionChunkStore(
+    private val storage: RegionFileStorage,
+    private val owned: Boolean = false
+): ChunkStore {
+    override fun read(pos: ChunkPos): CompoundTag? {
+        return this.storage.read(pos)
+    }
+
+    override fun write(pos: ChunkPos, tag: CompoundTag?) {
+        (this.storage as RegionFileStorageInvoker).invokeWrite(pos, tag)
+    }
+
+    override fun scan(pos: ChunkPos, visitor: StreamTagVisitor) {
+        this.storage.scanChunk(pos, visitor)
+    }
+
+    override fun flush() {
+        this.storage.flush()
+    }
+
+    override fun close() {
+        if (this.owned) {
+            this.storage.close()
+        }
+    }
+}
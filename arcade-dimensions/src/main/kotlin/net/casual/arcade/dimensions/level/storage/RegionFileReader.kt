@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.dimensions.level.storage
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet
+import net.minecraft.nbt.CompoundTag
+import net.minecraft.nbt.NbtAccounter
+import net.minecraft.nbt.NbtIo
+import net.minecraft.nbt.StreamTagVisitor
+import net.minecraft.world.level.ChunkPos
+import net.minecraft.world.level.chunk.storage.RegionFileVersion
+import java.io.BufferedInputStream
+import java.io.ByteArrayInputStream
+import java.io.DataInputStream
+import java.io.IOException
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardOpenOption
+import kotlin.io.path.isRegularFile
+
+/**
+ * Reads chunks from vanilla region files, the files are only
+ * ever opened for reading.
+ *
+ * Unlike [net.minecraft.world.level.chunk.storage.RegionFileStorage],
+ * this never creates, pads, or otherwise writes to region files, so it
+ * is safe to read from a level's files while they aren't being written.
+ *
+ * @param folder The folder of the region files.
+ */
+internal class RegionFileReader(private val folder: Path): AutoCloseable {
+    private val regions = Long2ObjectLinkedOpenHashMap<FileChannel>()
+    private val missing = LongOpenHashSet()
+
+    fun read(pos: ChunkPos): CompoundTag? {
+        return this.open(pos)?.use { NbtIo.read(it) }
+    }
+
+    fun scan(pos: ChunkPos, visitor: StreamTagVisitor) {
+        this.open(pos)?.use { NbtIo.parse(it, visitor, NbtAccounter.unlimitedHeap()) }
+    }
+
+    override fun close() {
+        var exception: IOException? = null
+        for (channel in this.regions.values) {
+            try {
+                channel.close()
+            } catch (e: IOException) {
+                if (exception == null) exception = e else exception.addSuppressed(e)
+            }
+        }
+        this.regions.clear()
+        exception?.let { throw it }
+    }
+
+    private fun open(pos: ChunkPos): DataInputStream? {
+        val channel = this.getRegion(pos) ?: return null
+        val header = this.readFully(channel, ByteBuffer.allocate(4), HEADER_ENTRY_SIZE * (pos.regionLocalX + pos.regionLocalZ * REGION_SIZE).toLong())
+        if (header.limit() < 4) {
+            return null
+        }
+        val location = header.getInt(0)
+        val sectors = location and 0xFF
+        if (location == 0 || sectors == 0) {
+            return null
+        }
+        val sector = location ushr 8
+        val data = this.readFully(channel, ByteBuffer.allocate(sectors * SECTOR_SIZE), sector.toLong() * SECTOR_SIZE)
+        if (data.limit() < 5) {
+            return null
+        }
+        val length = data.getInt(0)
+        if (length <= 0 || length + 4 > data.limit()) {
+            return null
+        }
+        val type = data.get(4).toInt()
+        val version = RegionFileVersion.fromId(type and EXTERNAL_FLAG.inv())
+            ?: throw IOException("Chunk $pos has unknown compression type $type")
+        val stream = if (type and EXTERNAL_FLAG != 0) {
+            val external = this.folder.resolve("c.${pos.x}.${pos.z}.mcc")
+            if (!external.isRegularFile()) {
+                return null
+            }
+            Files.newInputStream(external)
+        } else {
+            ByteArrayInputStream(data.array(), 5, length - 1)
+        }
+        return DataInputStream(BufferedInputStream(version.wrap(stream)))
+    }
+
+    private fun getRegion(pos: ChunkPos): FileChannel? {
+        val region = ChunkPos.asLong(pos.regionX, pos.regionZ)
+        val existing = this.regions.getAndMoveToFirst(region)
+        if (existing != null) {
+            return existing
+        }
+        if (this.missing.contains(region)) {
+            return null
+        }
+        val path = this.folder.resolve("r.${pos.regionX}.${pos.regionZ}.mca")
+        if (!path.isRegularFile()) {
+            this.missing.add(region)
+            return null
+        }
+        if (this.regions.size >= MAX_CACHE_SIZE) {
+            this.regions.removeLast().close()
+        }
+        val channel = FileChannel.open(path, StandardOpenOption.READ)
+        this.regions.putAndMoveToFirst(region, channel)
+        return channel
+    }
+
+    private fun readFully(channel: FileChannel, buffer: ByteBuffer, position: Long): ByteBuffer {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break
+            }
+        }
+        buffer.flip()
+        return buffer
+    }
+
+    private companion object {
+        const val SECTOR_SIZE = 4096
+        const val REGION_SIZE = 32
+        const val HEADER_ENTRY_SIZE = 4
+        const val EXTERNAL_FLAG = 128
+        const val MAX_CACHE_SIZE = 256
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.dimensions.level.storage
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet
+import net.minecraft.nbt.CompoundTag
+import net.minecraft.nbt.StreamTagVisitor
+import net.minecraft.world.level.ChunkPos
+import java.nio.file.Path
+
+/**
+ * A copy-on-write [ChunkStore] which reads chunks from a template's
+ * region files and writes any modified chunks to an [overlay].
+ *
+ * The template's region files are only ever opened for reading, so any
+ * number of levels may share the same template. The template level must
+ * not be loaded while any levels are using it, as it may write to its
+ * region files, and it should not be modified while they use it.
+ *
+ * @param folder The folder of the template region files.
+ * @param overlay The store for any modified chunks.
+ */
+public class TemplateChunkStore(
+    folder: Path,
+    private val overlay: ChunkStore
+): ChunkStore {
+    private val template = RegionFileReader(folder)
+    private val written = LongOpenHashSet()
+    private val removed = LongOpenHashSet()
+
+    override fun read(pos: ChunkPos): CompoundTag? {
+        val packed = pos.toLong()
+        if (this.written.contains(packed)) {
+            return this.overlay.read(pos)
+        }
+        if (this.removed.contains(packed)) {
+            return null
+        }
+        return this.template.read(pos)
+    }
+
+    override fun write(pos: ChunkPos, tag: CompoundTag?) {
+        val packed = pos.toLong()
+        if (tag == null) {
+            if (this.written.remove(packed)) {
+                this.overlay.write(pos, null)
+            }
+            this.removed.add(packed)
+            return
+        }
+        this.removed.remove(packed)
+        this.written.add(packed)
+        this.overlay.write(pos, tag)
+    }
+
+    override fun scan(pos: ChunkPos, visitor: StreamTagVisitor) {
+        val packed = pos.toLong()
+        if (this.written.contains(packed)) {
+            this.overlay.scan(pos, visitor)
+        } else if (!this.removed.contains(packed)) {
+            this.template.scan(pos, visitor)
+        }
+    }
+
+    override fun flush() {
+        this.overlay.flush()
+    }
+
+    override fun close() {
+        try {
+            this.template.close()
+        } finally {
+            this.overlay.close()
+        }
+    }
+}
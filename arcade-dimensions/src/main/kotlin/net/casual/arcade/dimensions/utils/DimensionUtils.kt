@@ -20,12 +20,16 @@ import net.minecraft.core.registries.Registries
 import net.minecraft.network.chat.Component
 import net.minecraft.resources.ResourceKey
 import net.minecraft.resources.ResourceLocation
+import net.minecraft.Util
 import net.minecraft.server.MinecraftServer
 import net.minecraft.server.level.ServerLevel
 import net.minecraft.world.level.Level
 import org.apache.commons.io.file.PathUtils
 import java.io.IOException
+import java.nio.file.Files
 import java.nio.file.Path
+import java.util.*
+import java.util.concurrent.CompletableFuture
 import kotlin.io.path.isDirectory
 
 /**
@@ -262,17 +266,83 @@ public fun MinecraftServer.deleteCustomLevel(level: CustomLevel): Boolean {
     this.unloadCustomLevel(level, false)
     val directory = this.getDimensionPath(level.dimension())
     if (directory.isDirectory()) {
-        try {
-            PathUtils.deleteDirectory(directory)
-            return true
-        } catch (e: IOException) {
-            ArcadeUtils.logger.warn("Failed to delete level directory", e)
-            PathUtils.deleteOnExit(directory)
-        }
+        return deleteLevelDirectory(directory)
     }
     return false
 }
 
+/**
+ * Removes a [CustomLevel] from the server asynchronously.
+ *
+ * The level is detached from the server immediately, so it will
+ * no longer be ticked. Any remaining players will be removed in the
+ * same way as [removeCustomLevel].
+ *
+ * If the level should be saved, then the chunks are serialized
+ * immediately, as this must happen on the main thread, but
+ * the level is only closed on the main thread once all the chunks
+ * have been written to disk, avoiding blocking the server.
+ *
+ * If the [CustomLevel.persistence] is [LevelPersistence.Temporary]
+ * then the level will be deleted instead, equivalent of calling
+ * [deleteCustomLevelAsync].
+ *
+ * A level with the same dimension key should not be added
+ * until the returned future has completed.
+ *
+ * @param level The level to remove.
+ * @return A future which completes with `true` if the level was
+ *   removed, `false` otherwise.
+ */
+public fun MinecraftServer.removeCustomLevelAsync(level: CustomLevel): CompletableFuture<Boolean> {
+    return if (level.persistence.shouldSave()) {
+        this.unloadCustomLevelAsync(level)
+    } else {
+        this.deleteCustomLevelAsync(level)
+    }
+}
+
+/**
+ * Deletes a [CustomLevel] from the server asynchronously.
+ *
+ * The level is detached and closed immediately, nothing
+ * is saved as the level is being deleted. The level's directory
+ * is then moved aside and deleted on a background thread, so a level
+ * with the same dimension key may be added immediately.
+ * If the directory cannot be moved aside, then it is deleted
+ * synchronously instead.
+ * If the server stops before the directory is deleted, then
+ * it will be deleted the next time the server starts.
+ *
+ * @param level The level to delete.
+ * @return A future which completes with `true` if the level was
+ *   deleted, `false` otherwise.
+ * @see deleteCustomLevel
+ */
+public fun MinecraftServer.deleteCustomLevelAsync(level: CustomLevel): CompletableFuture<Boolean> {
+    this.unloadCustomLevel(level, false)
+    val directory = this.getDimensionPath(level.dimension())
+    if (!directory.isDirectory()) {
+        return CompletableFuture.completedFuture(false)
+    }
+    val deleting = try {
+        Files.move(directory, directory.resolveSibling("${directory.fileName}-${UUID.randomUUID()}${LevelPersistenceTracker.DELETING_SUFFIX}"))
+    } catch (e: IOException) {
+        // We must not delete the original directory asynchronously, a new
+        // level with the same dimension key may be using it by then
+        ArcadeUtils.logger.warn("Failed to move level directory for deletion, deleting synchronously", e)
+        return CompletableFuture.completedFuture(deleteLevelDirectory(directory))
+    }
+    LevelPersistenceTracker.markForDeletion(deleting)
+    return CompletableFuture.supplyAsync({
+        try {
+            deleteLevelDirectory(deleting)
+        } finally {
+            LevelPersistenceTracker.unmarkForDeletion(deleting)
+        }
+    }, Util.ioPool())
+}
+
 public fun ServerLevel.setCustomMobSpawningRules(rules: CustomMobSpawningRules?) {
     this.getExtension<LevelCustomMobSpawningExtension>().rules = rules
 }
@@ -298,14 +368,12 @@ public fun ServerLevel.getSpoofedOrRealDimension(): ResourceKey<Level> {
 }
 
 private fun MinecraftServer.unloadCustomLevel(level: CustomLevel, save: Boolean): Boolean {
-    if ((this as MinecraftServerAccessor).levels.remove(level.dimension(), level)) {
-        LevelPersistenceTracker.unmarkAsPersistent(level.dimension())
-
-        level.onUnload()
-        level.removePlayers()
-
+    if (this.detachCustomLevel(level)) {
         if (save) {
             level.save(null, flush = true, skip = false)
+        } else {
+            // We don't need to save any chunks if we're deleting the level
+            level.isDiscarded = true
         }
 
         level.close()
@@ -315,6 +383,45 @@ private fun MinecraftServer.unloadCustomLevel(level: CustomLevel, save: Boolean)
     return false
 }
 
+private fun MinecraftServer.unloadCustomLevelAsync(level: CustomLevel): CompletableFuture<Boolean> {
+    if (!this.detachCustomLevel(level)) {
+        return CompletableFuture.completedFuture(false)
+    }
+
+    level.save(null, flush = false, skip = false)
+    return level.chunkSource.chunkMap.synchronize(true).handleAsync({ _, throwable ->
+        if (throwable != null) {
+            ArcadeUtils.logger.error("Failed to flush level ${level.dimension().location()}", throwable)
+        }
+        // All the chunks have already been written, so closing is cheap
+        level.close()
+        ServerWorldEvents.UNLOAD.invoker().onWorldUnload(this, level)
+        true
+    }, this)
+}
+
+private fun MinecraftServer.detachCustomLevel(level: CustomLevel): Boolean {
+    if ((this as MinecraftServerAccessor).levels.remove(level.dimension(), level)) {
+        LevelPersistenceTracker.unmarkAsPersistent(level.dimension())
+
+        level.onUnload()
+        level.removePlayers()
+        return true
+    }
+    return false
+}
+
+private fun deleteLevelDirectory(directory: Path): Boolean {
+    try {
+        PathUtils.deleteDirectory(directory)
+        return true
+    } catch (e: IOException) {
+        ArcadeUtils.logger.warn("Failed to delete level directory", e)
+        PathUtils.deleteOnExit(directory)
+    }
+    return false
+}
+
 private fun ServerLevel.removePlayers() {
     val players = this.players()
     if (players.isEmpty()) {
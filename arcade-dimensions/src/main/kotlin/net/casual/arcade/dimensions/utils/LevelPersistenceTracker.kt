@@ -4,7 +4,6 @@
  */
 package net.casual.arcade.dimensions.utils
 
-import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet
 import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet
 import net.casual.arcade.events.GlobalEventHandler
 import net.casual.arcade.events.ListenerRegistry.Companion.register
@@ -23,18 +22,28 @@ import net.minecraft.world.level.Level
 import net.minecraft.world.level.storage.LevelResource
 import org.jetbrains.annotations.ApiStatus.Internal
 import java.io.IOException
+import java.nio.file.FileVisitResult
+import java.nio.file.Files
 import java.nio.file.Path
+import java.nio.file.SimpleFileVisitor
+import java.nio.file.attribute.BasicFileAttributes
 import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
 import kotlin.io.path.*
 
 @Internal
 public object LevelPersistenceTracker {
     private val CODEC = ArcadeExtraCodecs.DIMENSION.listOf()
+    // These directories are within a level, so they can't contain other levels
+    private val LEVEL_DIRECTORIES = setOf("region", "entities", "poi", "data")
+
+    internal const val DELETING_SUFFIX = ".deleting"
 
     private val persistent = ReferenceLinkedOpenHashSet<ResourceKey<Level>>()
     private val temporary = ReferenceLinkedOpenHashSet<ResourceKey<Level>>()
 
-    private val deletion = ObjectOpenHashSet<Path>()
+    // This is modified by deletions on the io pool, and read by the shutdown hook
+    private val deletion: MutableSet<Path> = ConcurrentHashMap.newKeySet()
 
     @Volatile private var dirty = false
 
@@ -46,6 +55,14 @@ public object LevelPersistenceTracker {
         this.persistent.remove(key)
     }
 
+    internal fun markForDeletion(path: Path) {
+        this.deletion.add(path)
+    }
+
+    internal fun unmarkForDeletion(path: Path) {
+        this.deletion.remove(path)
+    }
+
     internal fun markAsTemporary(server: MinecraftServer, key: ResourceKey<Level>) {
         this.deletion.add(server.getDimensionPath(key))
         this.temporary.add(key)
@@ -103,6 +120,51 @@ public object LevelPersistenceTracker {
         }, Util.ioPool())
     }
 
+    private fun cleanupDeletingLevels(server: MinecraftServer) {
+        // Levels deleted asynchronously are moved aside first, if the server
+        // stopped before they were deleted, then they will still be here
+        val root = server.getWorldPath(LevelResource.ROOT).resolve("dimensions")
+        if (!root.isDirectory()) {
+            return
+        }
+        CompletableFuture.runAsync({
+            for (path in this.findDeletingLevels(root)) {
+                try {
+                    @OptIn(ExperimentalPathApi::class)
+                    path.deleteRecursively()
+                } catch (e: IOException) {
+                    ArcadeUtils.logger.error("Failed to remove leftover level files at $path", e)
+                }
+            }
+        }, Util.ioPool())
+    }
+
+    private fun findDeletingLevels(root: Path): List<Path> {
+        val found = ArrayList<Path>()
+        try {
+            Files.walkFileTree(root, object: SimpleFileVisitor<Path>() {
+                override fun preVisitDirectory(dir: Path, attrs: BasicFileAttributes): FileVisitResult {
+                    val name = dir.fileName.toString()
+                    if (name.endsWith(DELETING_SUFFIX)) {
+                        found.add(dir)
+                        return FileVisitResult.SKIP_SUBTREE
+                    }
+                    if (name in LEVEL_DIRECTORIES) {
+                        return FileVisitResult.SKIP_SUBTREE
+                    }
+                    return FileVisitResult.CONTINUE
+                }
+
+                override fun visitFileFailed(file: Path, exc: IOException): FileVisitResult {
+                    return FileVisitResult.CONTINUE
+                }
+            })
+        } catch (e: IOException) {
+            ArcadeUtils.logger.error("Failed to search for leftover level files", e)
+        }
+        return found
+    }
+
     @OptIn(ExperimentalPathApi::class)
     private fun tryDeleteTemporaryDimension(server: MinecraftServer, dimension: ResourceKey<Level>): Boolean {
         val path = server.getDimensionPath(dimension)
@@ -124,6 +186,7 @@ public object LevelPersistenceTracker {
         }
         GlobalEventHandler.Server.register<ServerStartEvent> { (server) ->
             this.cleanupTemporaryLevels(server)
+            this.cleanupDeletingLevels(server)
         }
         GlobalEventHandler.Server.register<ServerTickEvent> { (server) ->
             if (this.dirty) {
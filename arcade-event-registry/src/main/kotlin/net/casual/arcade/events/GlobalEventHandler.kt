@@ -14,7 +14,9 @@ import net.casual.arcade.utils.addSorted
 import net.minecraft.client.Minecraft
 import net.minecraft.util.thread.ReentrantBlockableEventLoop
 import org.apache.logging.log4j.LogManager
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicInteger
 
 /**
  * Object class that is responsible for broadcasting
@@ -35,6 +37,8 @@ public enum class GlobalEventHandler(
 
     private val injected = ObjectSets.synchronize(ObjectOpenHashSet<InjectedListenerProvider>())
 
+    private val presence = ConcurrentHashMap<Class<out Event>, ListenerPresence>()
+
     private var recursion = ThreadLocal.withInitial { false }
 
     private var stopping = false
@@ -65,6 +69,9 @@ public enum class GlobalEventHandler(
     @JvmOverloads
     public fun <T: Event> broadcast(event: T, phases: Set<String> = BuiltInEventPhases.DEFAULT_PHASES) {
         val type = event::class.java
+        if (!this.hasListeners(type, phases)) {
+            return
+        }
 
         // If this returns null, then the server is stopping anyway
         val executor = this.getMainThreadExecutor(event, type) ?: return
@@ -107,6 +114,51 @@ public enum class GlobalEventHandler(
         }
     }
 
+    /**
+     * Checks whether there may be any listeners for a given
+     * event type in any of the given phases.
+     *
+     * This is much cheaper than broadcasting an event, the result
+     * is cached for each event type until a listener is registered
+     * or a provider is added or removed.
+     * Hot call sites should check this before constructing
+     * their event to avoid any allocations:
+     * ```kotlin
+     * if (GlobalEventHandler.Server.hasListeners(MyEvent::class.java)) {
+     *     GlobalEventHandler.Server.broadcast(MyEvent(...))
+     * }
+     * ```
+     *
+     * This may return `true` even if no listeners end up being
+     * invoked, for example, if an [InjectedListenerProvider] may inject
+     * listeners for the given type.
+     *
+     * @param type The type of event.
+     * @param phases The phases of the event that would be invoked.
+     * @return Whether there may be any listeners.
+     */
+    @JvmOverloads
+    public fun hasListeners(
+        type: Class<out Event>,
+        phases: Set<String> = BuiltInEventPhases.DEFAULT_PHASES
+    ): Boolean {
+        val version = modifications.get()
+        var presence = this.presence[type]
+        if (presence == null || presence.version != version) {
+            presence = this.computePresence(type, version)
+            this.presence[type] = presence
+        }
+        if (presence.injected) {
+            return true
+        }
+        for (phase in presence.phases) {
+            if (phases.contains(phase)) {
+                return true
+            }
+        }
+        return false
+    }
+
     /**
      * This adds a [ListenerProvider] to the [GlobalEventHandler].
      *
@@ -117,6 +169,7 @@ public enum class GlobalEventHandler(
      */
     public fun addProvider(handler: ListenerProvider) {
         this.registries.add(handler)
+        invalidateListenerCaches()
     }
 
     /**
@@ -126,6 +179,7 @@ public enum class GlobalEventHandler(
      */
     public fun removeProvider(handler: ListenerProvider) {
         this.registries.remove(handler)
+        invalidateListenerCaches()
     }
 
     /**
@@ -142,6 +196,7 @@ public enum class GlobalEventHandler(
      */
     public fun addInjectedProvider(injected: InjectedListenerProvider) {
         this.injected.add(injected)
+        invalidateListenerCaches()
     }
 
     /**
@@ -151,6 +206,7 @@ public enum class GlobalEventHandler(
      */
     public fun removeInjectedProvider(injected: InjectedListenerProvider) {
         this.injected.remove(injected)
+        invalidateListenerCaches()
     }
 
     /**
@@ -170,6 +226,24 @@ public enum class GlobalEventHandler(
         }
     }
 
+    private fun computePresence(type: Class<out Event>, version: Int): ListenerPresence {
+        val phases = ObjectOpenHashSet<String>()
+        for (listener in this.getListenersFor(type)) {
+            phases.add(listener.phase)
+        }
+        synchronized(this.registries) {
+            for (handler in this.registries) {
+                for (listener in handler.getListenersFor(type)) {
+                    phases.add(listener.phase)
+                }
+            }
+        }
+        val injected = synchronized(this.injected) {
+            this.injected.any { it.mayInjectFor(type) }
+        }
+        return ListenerPresence(version, phases.toTypedArray(), injected)
+    }
+
     private fun checkRecursive(type: Class<out Event>): Boolean {
         val count = this.stack.get().getInt(type)
         if (count >= MAX_RECURSIONS) {
@@ -217,5 +291,26 @@ public enum class GlobalEventHandler(
         private const val MAX_RECURSIONS = 10
 
         private val logger = LogManager.getLogger("ArcadeEventHandler")
+
+        private val modifications = AtomicInteger()
+
+        /**
+         * Invalidates the cached results of [hasListeners].
+         *
+         * This is done automatically when registering listeners to a
+         * [SimpleListenerRegistry] or when adding or removing providers.
+         * Custom [ListenerProvider] implementations whose listeners
+         * can change must call this after they change.
+         */
+        @JvmStatic
+        public fun invalidateListenerCaches() {
+            modifications.incrementAndGet()
+        }
     }
+
+    private class ListenerPresence(
+        val version: Int,
+        val phases: Array<String>,
+        val injected: Boolean
+    )
 }
@@ -24,4 +24,20 @@ public fun interface InjectedListenerProvider {
      * @param consumer The consumer to add any additional [ListenerProvider]s.
      */
     public fun injectListenerProviders(event: Event, consumer: Consumer<ListenerProvider>)
+
+    /**
+     * Determines whether this may inject any [ListenerProvider]s
+     * for events of the given [type].
+     *
+     * This is used by [GlobalEventHandler.hasListeners] to skip
+     * events which have no listeners, if the result of this method
+     * changes then [GlobalEventHandler.invalidateListenerCaches]
+     * must be called.
+     *
+     * @param type The type of the event.
+     * @return Whether any providers may be injected.
+     */
+    public fun mayInjectFor(type: Class<out Event>): Boolean {
+        return true
+    }
 }
\ No newline at end of file
@@ -55,6 +55,7 @@ public class SimpleListenerRegistry: ListenerRegistry {
         @Suppress("UNCHECKED_CAST")
         val listeners = this.events.getOrPut(type) { ArrayList() } as MutableList<EventListener<T>>
         listeners.add(this.findIndexForPriority(listeners, listener), listener)
+        GlobalEventHandler.invalidateListenerCaches()
     }
 
     /**
@@ -62,6 +63,7 @@ public class SimpleListenerRegistry: ListenerRegistry {
      */
     public fun clear() {
         this.events.clear()
+        GlobalEventHandler.invalidateListenerCaches()
     }
 
     private fun <T: Event> findIndexForPriority(listeners: List<EventListener<T>>, listener: EventListener<T>): Int {
@@ -12,6 +12,7 @@ import io.netty.channel.ChannelFutureListener;
 import net.casual.arcade.events.BuiltInEventPhases;
 import net.casual.arcade.events.GlobalEventHandler;
 import net.casual.arcade.events.server.network.ClientboundPacketEvent;
+import net.casual.arcade.events.server.network.ClientboundPacketListeners;
 import net.casual.arcade.events.server.player.PlayerCustomClickActionEvent;
 import net.casual.arcade.events.server.player.PlayerDisconnectEvent;
 import net.casual.arcade.events.server.player.PlayerClientboundPacketEvent;
@@ -44,22 +45,43 @@ public abstract class ServerCommonPacketListenerImplMixin {
 	)
 	private Packet<?> onSendPacket(Packet<?> value, @Cancellable CallbackInfo ci) {
 		ServerCommonPacketListenerImpl self = (ServerCommonPacketListenerImpl) (Object) this;
-		ClientboundPacketEvent event = new ClientboundPacketEvent(this.server, this.playerProfile(), value);
-		GlobalEventHandler.Server.broadcast(event, BuiltInEventPhases.PRE_PHASES);
-		if (event.isCancelled()) {
-			ci.cancel();
-			return event.getPacket();
+		Packet<?> packet = value;
+		boolean keyedConnection = ClientboundPacketListeners.hasConnectionListeners(packet, BuiltInEventPhases.PRE_PHASES);
+		boolean globalConnection = GlobalEventHandler.Server.hasListeners(ClientboundPacketEvent.class, BuiltInEventPhases.PRE_PHASES);
+		if (keyedConnection || globalConnection) {
+			ClientboundPacketEvent event = new ClientboundPacketEvent(this.server, this.playerProfile(), packet);
+			if (keyedConnection) {
+				ClientboundPacketListeners.dispatch(event, BuiltInEventPhases.PRE_PHASES);
+			}
+			if (globalConnection) {
+				GlobalEventHandler.Server.broadcast(event, BuiltInEventPhases.PRE_PHASES);
+			}
+			if (event.isCancelled()) {
+				ci.cancel();
+				return event.getPacket();
+			}
+			packet = event.getPacket();
 		}
 
 		if (self instanceof ServerGamePacketListenerImpl connection) {
-			PlayerClientboundPacketEvent playerEvent = new PlayerClientboundPacketEvent(connection.player, event.getPacket());
-			GlobalEventHandler.Server.broadcast(playerEvent, BuiltInEventPhases.PRE_PHASES);
+			boolean keyed = ClientboundPacketListeners.hasListeners(packet, BuiltInEventPhases.PRE_PHASES);
+			boolean global = GlobalEventHandler.Server.hasListeners(PlayerClientboundPacketEvent.class, BuiltInEventPhases.PRE_PHASES);
+			if (!keyed && !global) {
+				return packet;
+			}
+			PlayerClientboundPacketEvent playerEvent = new PlayerClientboundPacketEvent(connection.player, packet);
+			if (keyed) {
+				ClientboundPacketListeners.dispatch(playerEvent, BuiltInEventPhases.PRE_PHASES);
+			}
+			if (global) {
+				GlobalEventHandler.Server.broadcast(playerEvent, BuiltInEventPhases.PRE_PHASES);
+			}
 			if (playerEvent.isCancelled()) {
 				ci.cancel();
 			}
 			return playerEvent.getPacket();
 		}
-		return event.getPacket();
+		return packet;
 	}
 
 	@WrapOperation(
@@ -77,12 +99,31 @@ public abstract class ServerCommonPacketListenerImplMixin {
 		Operation<Void> original
 	) {
 		original.call(instance, packet, listener, flush);
-		ClientboundPacketEvent event = new ClientboundPacketEvent(this.server, this.playerProfile(), packet);
-		GlobalEventHandler.Server.broadcast(event, BuiltInEventPhases.POST_PHASES);
+		boolean keyedConnection = ClientboundPacketListeners.hasConnectionListeners(packet, BuiltInEventPhases.POST_PHASES);
+		boolean globalConnection = GlobalEventHandler.Server.hasListeners(ClientboundPacketEvent.class, BuiltInEventPhases.POST_PHASES);
+		if (keyedConnection || globalConnection) {
+			ClientboundPacketEvent event = new ClientboundPacketEvent(this.server, this.playerProfile(), packet);
+			if (keyedConnection) {
+				ClientboundPacketListeners.dispatch(event, BuiltInEventPhases.POST_PHASES);
+			}
+			if (globalConnection) {
+				GlobalEventHandler.Server.broadcast(event, BuiltInEventPhases.POST_PHASES);
+			}
+			packet = event.getPacket();
+		}
 
 		if ((Object) this instanceof ServerGamePacketListenerImpl connection) {
-			PlayerClientboundPacketEvent playerEvent = new PlayerClientboundPacketEvent(connection.player, event.getPacket());
-			GlobalEventHandler.Server.broadcast(playerEvent, BuiltInEventPhases.POST_PHASES);
+			boolean keyed = ClientboundPacketListeners.hasListeners(packet, BuiltInEventPhases.POST_PHASES);
+			boolean global = GlobalEventHandler.Server.hasListeners(PlayerClientboundPacketEvent.class, BuiltInEventPhases.POST_PHASES);
+			if (keyed || global) {
+				PlayerClientboundPacketEvent playerEvent = new PlayerClientboundPacketEvent(connection.player, packet);
+				if (keyed) {
+					ClientboundPacketListeners.dispatch(playerEvent, BuiltInEventPhases.POST_PHASES);
+				}
+				if (global) {
+					GlobalEventHandler.Server.broadcast(playerEvent, BuiltInEventPhases.POST_PHASES);
+				}
+			}
 		}
 	}
 
@@ -44,6 +44,9 @@ public abstract class ServerPlayerMixin extends Player {
 		at = @At("HEAD")
 	)
 	private void onTickPre(CallbackInfo ci) {
+		if (!GlobalEventHandler.Server.hasListeners(PlayerTickEvent.class, BuiltInEventPhases.PRE_PHASES)) {
+			return;
+		}
 		PlayerTickEvent event = new PlayerTickEvent((ServerPlayer) (Object) this);
 		GlobalEventHandler.Server.broadcast(event, BuiltInEventPhases.PRE_PHASES);
 	}
@@ -53,6 +56,9 @@ public abstract class ServerPlayerMixin extends Player {
 		at = @At("TAIL")
 	)
 	private void onTickPost(CallbackInfo ci) {
+		if (!GlobalEventHandler.Server.hasListeners(PlayerTickEvent.class, BuiltInEventPhases.POST_PHASES)) {
+			return;
+		}
 		PlayerTickEvent event = new PlayerTickEvent((ServerPlayer) (Object) this);
 		GlobalEventHandler.Server.broadcast(event, BuiltInEventPhases.POST_PHASES);
 	}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.events.server.network
+
+import net.casual.arcade.events.BuiltInEventPhases
+import net.casual.arcade.events.EventListener
+import net.casual.arcade.events.common.CancellableEvent
+import net.casual.arcade.events.server.player.PlayerClientboundPacketEvent
+import net.minecraft.network.protocol.Packet
+import net.minecraft.network.protocol.game.ClientGamePacketListener
+import net.minecraft.network.protocol.game.ClientboundBundlePacket
+import org.apache.logging.log4j.LogManager
+import org.jetbrains.annotations.ApiStatus.Internal
+import java.util.concurrent.ConcurrentHashMap
+import java.util.function.Consumer
+import kotlin.reflect.KMutableProperty1
+
+/**
+ * A registry of [PlayerClientboundPacketEvent] listeners which
+ * are keyed by the type of packet being sent.
+ *
+ * Listening to [PlayerClientboundPacketEvent] directly means that
+ * your listener is invoked for *every* packet sent to every player.
+ * Listeners registered here are only invoked for packets of the
+ * exact type they were registered for, if no listeners match a packet
+ * then no event is constructed at all.
+ *
+ * This is also bundle-aware, listeners will be invoked for each
+ * sub-packet of a [ClientboundBundlePacket] which matches its type.
+ * Any replaced sub-packets will then be re-bundled, and cancelling
+ * a sub-packet event will remove the sub-packet from the bundle.
+ *
+ * Unlike regular event listeners, these listeners are **always**
+ * invoked on the thread that is sending the packet, which may not
+ * be the main thread.
+ * The listeners are invoked before any [PlayerClientboundPacketEvent]
+ * listeners registered to the [net.casual.arcade.events.GlobalEventHandler].
+ *
+ * Listeners for [ClientboundPacketEvent], which is fired for every
+ * connection (not only players), can be similarly keyed with
+ * [registerConnection], these are invoked before any [ClientboundPacketEvent]
+ * listeners registered to the [net.casual.arcade.events.GlobalEventHandler].
+ *
+ * Listeners which send packets may recurse, similarly to the
+ * [net.casual.arcade.events.GlobalEventHandler], nested dispatches
+ * are suppressed after a maximum depth.
+ */
+public object ClientboundPacketListeners {
+    private const val MAX_RECURSIONS = 10
+
+    private val logger = LogManager.getLogger("ArcadePacketListeners")
+
+    private val players = KeyedPacketListeners(PlayerClientboundPacketEvent::packet) { event, sub ->
+        PlayerClientboundPacketEvent(event.player, sub)
+    }
+    private val connections = KeyedPacketListeners(ClientboundPacketEvent::packet) { event, sub ->
+        ClientboundPacketEvent(event.server, event.owner, sub)
+    }
+
+    private val depth = ThreadLocal.withInitial { 0 }
+
+    /**
+     * Registers a listener for a given packet type.
+     *
+     * @param type The type of the packet.
+     * @param listener The listener to invoke when the packet is sent.
+     */
+    @JvmStatic
+    public fun register(type: Class<out Packet<*>>, listener: EventListener<PlayerClientboundPacketEvent>) {
+        this.players.register(type, listener)
+    }
+
+    /**
+     * Registers a listener for a given packet type.
+     *
+     * @param P The type of the packet.
+     * @param priority The priority of your listener.
+     * @param phase The phase of the event, [BuiltInEventPhases.DEFAULT] by default.
+     * @param listener The callback which will be invoked when the packet is sent.
+     * @return The registered listener, this can be used to [unregister] it.
+     */
+    public inline fun <reified P: Packet<*>> register(
+        priority: Int = 1_000,
+        phase: String = BuiltInEventPhases.DEFAULT,
+        listener: Consumer<PlayerClientboundPacketEvent>
+    ): EventListener<PlayerClientboundPacketEvent> {
+        val created = EventListener.of(priority, phase, false, listener)
+        this.register(P::class.java, created)
+        return created
+    }
+
+    /**
+     * Unregisters a listener for a given packet type.
+     *
+     * @param type The type of the packet.
+     * @param listener The listener to unregister.
+     */
+    @JvmStatic
+    public fun unregister(type: Class<out Packet<*>>, listener: EventListener<PlayerClientboundPacketEvent>) {
+        this.players.unregister(type, listener)
+    }
+
+    /**
+     * Registers a [ClientboundPacketEvent] listener for a given packet type.
+     *
+     * @param type The type of the packet.
+     * @param listener The listener to invoke when the packet is sent.
+     */
+    @JvmStatic
+    public fun registerConnection(type: Class<out Packet<*>>, listener: EventListener<ClientboundPacketEvent>) {
+        this.connections.register(type, listener)
+    }
+
+    /**
+     * Registers a [ClientboundPacketEvent] listener for a given packet type.
+     *
+     * @param P The type of the packet.
+     * @param priority The priority of your listener.
+     * @param phase The phase of the event, [BuiltInEventPhases.DEFAULT] by default.
+     * @param listener The callback which will be invoked when the packet is sent.
+     * @return The registered listener, this can be used to [unregisterConnection] it.
+     */
+    public inline fun <reified P: Packet<*>> registerConnection(
+        priority: Int = 1_000,
+        phase: String = BuiltInEventPhases.DEFAULT,
+        listener: Consumer<ClientboundPacketEvent>
+    ): EventListener<ClientboundPacketEvent> {
+        val created = EventListener.of(priority, phase, false, listener)
+        this.registerConnection(P::class.java, created)
+        return created
+    }
+
+    /**
+     * Unregisters a [ClientboundPacketEvent] listener for a given packet type.
+     *
+     * @param type The type of the packet.
+     * @param listener The listener to unregister.
+     */
+    @JvmStatic
+    public fun unregisterConnection(type: Class<out Packet<*>>, listener: EventListener<ClientboundPacketEvent>) {
+        this.connections.unregister(type, listener)
+    }
+
+    /**
+     * Checks whether there are any listeners for the given packet.
+     *
+     * @param packet The packet being sent.
+     * @param phases The phases of the event that would be invoked.
+     * @return Whether any listeners would be invoked.
+     */
+    @JvmStatic
+    public fun hasListeners(packet: Packet<*>, phases: Set<String>): Boolean {
+        return this.players.hasListeners(packet, phases)
+    }
+
+    /**
+     * Checks whether there are any [ClientboundPacketEvent] listeners for the given packet.
+     *
+     * @param packet The packet being sent.
+     * @param phases The phases of the event that would be invoked.
+     * @return Whether any listeners would be invoked.
+     */
+    @JvmStatic
+    public fun hasConnectionListeners(packet: Packet<*>, phases: Set<String>): Boolean {
+        return this.connections.hasListeners(packet, phases)
+    }
+
+    @Internal
+    @JvmStatic
+    public fun dispatch(event: PlayerClientboundPacketEvent, phases: Set<String>) {
+        this.dispatch(this.players, event, phases)
+    }
+
+    @Internal
+    @JvmStatic
+    public fun dispatch(event: ClientboundPacketEvent, phases: Set<String>) {
+        this.dispatch(this.connections, event, phases)
+    }
+
+    private fun <E: CancellableEvent> dispatch(listeners: KeyedPacketListeners<E>, event: E, phases: Set<String>) {
+        val depth = this.depth.get()
+        if (depth >= MAX_RECURSIONS) {
+            logger.warn(
+                "Detected recursive packet listeners (type: {}), suppressing...\nStacktrace: \n{}",
+                listeners.packet.get(event).javaClass.simpleName,
+                Thread.currentThread().stackTrace.joinToString("\n")
+            )
+            return
+        }
+        try {
+            this.depth.set(depth + 1)
+            listeners.dispatch(event, phases)
+        } finally {
+            this.depth.set(depth)
+        }
+    }
+
+    private class KeyedPacketListeners<E: CancellableEvent>(
+        val packet: KMutableProperty1<E, Packet<*>>,
+        private val factory: (E, Packet<*>) -> E
+    ) {
+        private val listeners = ConcurrentHashMap<Class<*>, List<EventListener<E>>>()
+
+        fun register(type: Class<*>, listener: EventListener<E>) {
+            this.listeners.compute(type) { _, existing ->
+                val updated = ArrayList(existing ?: listOf())
+                val index = updated.indexOfFirst { it > listener }
+                updated.add(if (index < 0) updated.size else index, listener)
+                updated
+            }
+        }
+
+        fun unregister(type: Class<*>, listener: EventListener<E>) {
+            this.listeners.computeIfPresent(type) { _, existing ->
+                val updated = existing.filter { it !== listener }
+                updated.ifEmpty { null }
+            }
+        }
+
+        fun hasListeners(packet: Packet<*>, phases: Set<String>): Boolean {
+            if (this.listeners.isEmpty()) {
+                return false
+            }
+            if (this.hasListenersFor(packet.javaClass, phases)) {
+                return true
+            }
+            if (packet is ClientboundBundlePacket) {
+                for (sub in packet.subPackets()) {
+                    if (this.hasListenersFor(sub.javaClass, phases)) {
+                        return true
+                    }
+                }
+            }
+            return false
+        }
+
+        fun dispatch(event: E, phases: Set<String>) {
+            val packet = this.packet.get(event)
+            this.invoke(event, packet.javaClass, phases)
+            if (event.isCancelled() || packet !is ClientboundBundlePacket || this.packet.get(event) !== packet) {
+                return
+            }
+
+            var modified = false
+            val updated = ArrayList<Packet<in ClientGamePacketListener>>()
+            for (sub in packet.subPackets()) {
+                if (!this.hasListenersFor(sub.javaClass, phases)) {
+                    updated.add(sub)
+                    continue
+                }
+                val subEvent = this.factory.invoke(event, sub)
+                this.invoke(subEvent, sub.javaClass, phases)
+                if (subEvent.isCancelled()) {
+                    modified = true
+                    continue
+                }
+                val replacement = this.packet.get(subEvent)
+                if (replacement !== sub) {
+                    modified = true
+                }
+                @Suppress("UNCHECKED_CAST")
+                if (replacement is ClientboundBundlePacket) {
+                    updated.addAll(replacement.subPackets())
+                } else {
+                    updated.add(replacement as Packet<in ClientGamePacketListener>)
+                }
+            }
+            if (modified) {
+                this.packet.set(event, ClientboundBundlePacket(updated))
+            }
+        }
+
+        private fun invoke(event: E, type: Class<*>, phases: Set<String>) {
+            val listeners = this.listeners[type] ?: return
+            for (listener in listeners) {
+                if (phases.contains(listener.phase)) {
+                    listener.invoke(event)
+                }
+            }
+        }
+
+        private fun hasListenersFor(type: Class<*>, phases: Set<String>): Boolean {
+            val listeners = this.listeners[type] ?: return false
+            return listeners.any { phases.contains(it.phase) }
+        }
+    }
+}
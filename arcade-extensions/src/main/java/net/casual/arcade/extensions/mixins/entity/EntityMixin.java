@@ -45,7 +45,7 @@ public class EntityMixin implements ExtensionHolder {
         if (entity instanceof Player || !EntityExtension.SHOULD_ATTACH_EXTENSION.get()) {
             return;
         }
-        this.arcade$extensions = new ExtensionMap();
+        this.arcade$extensions = new ExtensionMap(ExtensionMap.Kind.ENTITY);
         EntityExtensionEvent event = new EntityExtensionEvent(entity);
         GlobalEventHandler.Server.broadcast(event);
     }
@@ -34,7 +34,7 @@ import java.util.Optional;
 
 @Mixin(ServerLevel.class)
 public abstract class ServerLevelMixin extends Level implements ExtensionHolder {
-	@Unique private final ExtensionMap arcade$extensionMap = new ExtensionMap();
+	@Unique private final ExtensionMap arcade$extensionMap = new ExtensionMap(ExtensionMap.Kind.LEVEL);
 	@Unique private Path arcade$savePath;
 
 	protected ServerLevelMixin(
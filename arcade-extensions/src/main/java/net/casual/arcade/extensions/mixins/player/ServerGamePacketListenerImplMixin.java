@@ -25,7 +25,7 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 @Mixin(ServerGamePacketListenerImpl.class)
 public class ServerGamePacketListenerImplMixin implements ExtensionHolder {
-	@Unique private final ExtensionMap arcade$extensionMap = new ExtensionMap();
+	@Unique private final ExtensionMap arcade$extensionMap = new ExtensionMap(ExtensionMap.Kind.PLAYER);
 
 	@Inject(
 		method = "<init>",
@@ -68,7 +68,7 @@ public abstract class ServerPlayerMixin implements ExtensionHolder, ExtensionDat
 		// we add them to this temporary map which will transfer
 		// them whenever the connection is initialized
 		if (this.arcade$extensions == null) {
-			this.arcade$extensions = new ExtensionMap();
+			this.arcade$extensions = new ExtensionMap(ExtensionMap.Kind.PLAYER);
 		}
 		return this.arcade$extensions;
 	}
@@ -25,7 +25,7 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 @Mixin(PlayerTeam.class)
 public class PlayerTeamMixin implements ExtensionHolder {
 	@Unique
-	private final ExtensionMap arcade$extensionMap = new ExtensionMap();
+	private final ExtensionMap arcade$extensionMap = new ExtensionMap(ExtensionMap.Kind.TEAM);
 
 	@Inject(
 		method = "<init>",
@@ -34,6 +34,12 @@ public interface ExtensionHolder {
                 ?: throw IllegalStateException("No extension $type was registered to $this")
         }
 
+        @JvmStatic
+        public fun <T: Extension> ExtensionHolder.get(slot: ExtensionMap.Slot<T>): T {
+            return this.getExtensionMap().get(slot)
+                ?: throw IllegalStateException("No extension ${slot.type} was registered to $this")
+        }
+
         @JvmStatic
         public fun ExtensionHolder.all(): Collection<Extension> {
             return this.getExtensionMap().all()
@@ -4,24 +4,173 @@
  */
 package net.casual.arcade.extensions
 
-import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap
+import java.util.concurrent.atomic.AtomicInteger
 
 /**
  * This class keeps a map of all [Extension]s
+ *
+ * Each extension type is assigned a slot, per [Kind] of holder, when it
+ * is first added to a holder of that kind. The extensions are then stored
+ * in an array indexed by their slot, and since slots are only assigned
+ * to extensions of that kind, the arrays stay dense.
+ * Holders with no extensions allocate no array.
+ *
+ * The slots of an extension type can be stored in a static field,
+ * see [Slot], to avoid looking them up by class.
+ *
+ * @param kind The kind of holder this map belongs to.
  */
-public class ExtensionMap {
-    private val extensions = Reference2ObjectOpenHashMap<Class<out Extension>, Extension>()
+public class ExtensionMap @JvmOverloads constructor(
+    private val kind: Kind = Kind.OTHER
+) {
+    private var extensions = EMPTY
+    private var size = 0
 
     public fun add(extension: Extension) {
-        this.extensions[extension::class.java] = extension
+        val slot = Slot.of(extension::class.java).getOrAssign(this.kind)
+        var extensions = this.extensions
+        if (slot >= extensions.size) {
+            extensions = extensions.copyOf(this.kind.size())
+            this.extensions = extensions
+        }
+        if (extensions[slot] == null) {
+            this.size++
+        }
+        extensions[slot] = extension
     }
 
     public fun <T: Extension> get(type: Class<T>): T? {
+        return this.get(Slot.of(type))
+    }
+
+    public fun <T: Extension> get(slot: Slot<T>): T? {
+        val index = slot.get(this.kind)
+        val extensions = this.extensions
+        if (index < 0 || index >= extensions.size) {
+            return null
+        }
         @Suppress("UNCHECKED_CAST")
-        return this.extensions[type] as? T
+        return extensions[index] as T?
     }
 
     public fun all(): Collection<Extension> {
-        return this.extensions.values
+        val all = ArrayList<Extension>(this.size)
+        for (extension in this.extensions) {
+            if (extension != null) {
+                all.add(extension)
+            }
+        }
+        return all
+    }
+
+    /**
+     * A kind of [ExtensionHolder], each kind assigns
+     * its own slots to the extensions added to it.
+     */
+    public class Kind private constructor() {
+        internal val id = ids.getAndIncrement()
+        private val slots = AtomicInteger()
+
+        internal fun assign(): Int {
+            return this.slots.getAndIncrement()
+        }
+
+        internal fun size(): Int {
+            return this.slots.get()
+        }
+
+        public companion object {
+            private val ids = AtomicInteger()
+
+            @JvmField
+            public val ENTITY: Kind = Kind()
+            @JvmField
+            public val PLAYER: Kind = Kind()
+            @JvmField
+            public val LEVEL: Kind = Kind()
+            @JvmField
+            public val TEAM: Kind = Kind()
+            @JvmField
+            public val OTHER: Kind = Kind()
+        }
+    }
+
+    /**
+     * The slots of an extension type, for each [Kind] of holder.
+     *
+     * The slot for an extension type can be stored in a static field,
+     * for example in the extension's companion object, and then used
+     * to get the extension, avoiding any lookup by class:
+     * ```kotlin
+     * class MyExtension: Extension {
+     *     companion object {
+     *         val SLOT = ExtensionMap.Slot.of(MyExtension::class.java)
+     *     }
+     * }
+     *
+     * val extension = holder.getExtensionMap().get(MyExtension.SLOT)
+     * ```
+     *
+     * @param T The type of the extension.
+     * @param type The type of the extension.
+     */
+    public class Slot<T: Extension> private constructor(
+        public val type: Class<T>
+    ) {
+        @Volatile
+        private var indices = IntArray(0)
+
+        internal fun get(kind: Kind): Int {
+            val indices = this.indices
+            return if (kind.id < indices.size) indices[kind.id] else -1
+        }
+
+        internal fun getOrAssign(kind: Kind): Int {
+            val index = this.get(kind)
+            if (index >= 0) {
+                return index
+            }
+            synchronized(this) {
+                var indices = this.indices
+                if (kind.id >= indices.size) {
+                    val size = indices.size
+                    indices = indices.copyOf(kind.id + 1)
+                    indices.fill(-1, size)
+                } else if (indices[kind.id] >= 0) {
+                    return indices[kind.id]
+                } else {
+                    indices = indices.copyOf()
+                }
+                val assigned = kind.assign()
+                indices[kind.id] = assigned
+                this.indices = indices
+                return assigned
+            }
+        }
+
+        public companion object {
+            private val slots = object: ClassValue<Slot<*>>() {
+                override fun computeValue(type: Class<*>): Slot<*> {
+                    @Suppress("UNCHECKED_CAST")
+                    return Slot(type as Class<Extension>)
+                }
+            }
+
+            /**
+             * Gets the slot for the given extension type.
+             *
+             * @param type The type of the extension.
+             * @return The slot of the extension.
+             */
+            @JvmStatic
+            public fun <T: Extension> of(type: Class<T>): Slot<T> {
+                @Suppress("UNCHECKED_CAST")
+                return slots.get(type) as Slot<T>
+            }
+        }
+    }
+
+    private companion object {
+        private val EMPTY = arrayOfNulls<Extension>(0)
     }
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ import net.casual.arcade.extensions.Extension
 import net.casual.arcade.extensions.ExtensionHolder
 import net.casual.arcade.extensions.ExtensionHolder.Companion.add
 import net.casual.arcade.extensions.ExtensionHolder.Companion.get
+import net.casual.arcade.extensions.ExtensionMap
 import net.minecraft.world.entity.Entity
 
 // This may be broadcasted off-thread, as a result of world-gen
@@ -33,6 +34,10 @@ public class EntityExtensionEvent(
             return (this as ExtensionHolder).get(type)
         }
 
+        public fun <T: Extension> Entity.getExtension(slot: ExtensionMap.Slot<T>): T {
+            return (this as ExtensionHolder).get(slot)
+        }
+
         public inline fun <reified T: Extension> Entity.getExtension(): T {
             return this.getExtension(T::class.java)
         }
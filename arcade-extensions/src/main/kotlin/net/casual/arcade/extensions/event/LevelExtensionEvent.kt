@@ -9,6 +9,7 @@ import net.casual.arcade.extensions.Extension
 import net.casual.arcade.extensions.ExtensionHolder
 import net.casual.arcade.extensions.ExtensionHolder.Companion.add
 import net.casual.arcade.extensions.ExtensionHolder.Companion.get
+import net.casual.arcade.extensions.ExtensionMap
 import net.minecraft.server.level.ServerLevel
 
 public data class LevelExtensionEvent(
@@ -33,6 +34,11 @@ public data class LevelExtensionEvent(
             return (this as ExtensionHolder).get(type)
         }
 
+        @JvmStatic
+        public fun <T: Extension> ServerLevel.getExtension(slot: ExtensionMap.Slot<T>): T {
+            return (this as ExtensionHolder).get(slot)
+        }
+
         public inline fun <reified T: Extension> ServerLevel.getExtension(): T {
             return this.getExtension(T::class.java)
         }
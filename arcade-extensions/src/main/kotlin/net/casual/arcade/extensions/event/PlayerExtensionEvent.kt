@@ -6,6 +6,7 @@ package net.casual.arcade.extensions.event
 
 import net.casual.arcade.events.server.player.PlayerEvent
 import net.casual.arcade.extensions.Extension
+import net.casual.arcade.extensions.ExtensionMap
 import net.casual.arcade.extensions.PlayerExtension
 import net.casual.arcade.extensions.event.EntityExtensionEvent.Companion.addExtension
 import net.casual.arcade.extensions.event.EntityExtensionEvent.Companion.getExtension
@@ -46,6 +47,10 @@ public data class PlayerExtensionEvent(
             return (this as Entity).getExtension(type)
         }
 
+        public fun <T: Extension> ServerPlayer.getExtension(slot: ExtensionMap.Slot<T>): T {
+            return (this as Entity).getExtension(slot)
+        }
+
         public inline fun <reified T: Extension> ServerPlayer.getExtension(): T {
             return (this as Entity).getExtension<T>()
         }
@@ -8,6 +8,7 @@ import net.casual.arcade.extensions.Extension
 import net.casual.arcade.extensions.ExtensionHolder
 import net.casual.arcade.extensions.ExtensionHolder.Companion.add
 import net.casual.arcade.extensions.ExtensionHolder.Companion.get
+import net.casual.arcade.extensions.ExtensionMap
 import net.minecraft.world.scores.PlayerTeam
 
 public data class TeamExtensionEvent(
@@ -26,6 +27,10 @@ public data class TeamExtensionEvent(
             return (this as ExtensionHolder).get(type)
         }
 
+        public fun <T: Extension> PlayerTeam.getExtension(slot: ExtensionMap.Slot<T>): T {
+            return (this as ExtensionHolder).get(slot)
+        }
+
         public inline fun <reified T: Extension> PlayerTeam.getExtension(): T {
             return this.getExtension(T::class.java)
         }
@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.minigame.ducks;
+
+public interface TickFreezeCache {
+	long arcade$getTickFreezeStamp();
+
+	boolean arcade$isTickFrozen();
+
+	void arcade$setTickFrozen(long stamp, boolean frozen);
+}
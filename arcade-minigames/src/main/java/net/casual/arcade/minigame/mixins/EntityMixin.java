@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.minigame.mixins;
+
+import net.casual.arcade.minigame.ducks.TickFreezeCache;
+import net.minecraft.world.entity.Entity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+@Mixin(Entity.class)
+public class EntityMixin implements TickFreezeCache {
+	@Unique private long arcade$tickFreezeStamp = -1;
+	@Unique private boolean arcade$tickFrozen = false;
+
+	@Override
+	public long arcade$getTickFreezeStamp() {
+		return this.arcade$tickFreezeStamp;
+	}
+
+	@Override
+	public boolean arcade$isTickFrozen() {
+		return this.arcade$tickFrozen;
+	}
+
+	@Override
+	public void arcade$setTickFrozen(long stamp, boolean frozen) {
+		this.arcade$tickFreezeStamp = stamp;
+		this.arcade$tickFrozen = frozen;
+	}
+}
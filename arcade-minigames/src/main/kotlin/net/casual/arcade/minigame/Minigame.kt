@@ -85,6 +85,14 @@ public abstract class Minigame(
      */
     public val events: MinigameEventHandler = MinigameEventHandler(this)
 
+    /**
+     * This profiles the ticking of the minigame and
+     * allows you to set a soft tick budget.
+     *
+     * @see MinigameProfiler
+     */
+    public val profiler: MinigameProfiler = MinigameProfiler(this)
+
     /**
      * This handles all the players for this minigame.
      */
@@ -598,11 +606,11 @@ public abstract class Minigame(
     }
 
     private fun onServerTick(event: ServerTickEvent) {
-        this.tickrate.tick()
-        this.ui.tick(event.server)
+        this.profiler.profile(MinigameProfiler.TICK_RATE, this.tickrate::tick)
+        this.profiler.profile(MinigameProfiler.UI) { this.ui.tick(event.server, this.profiler.deferring) }
         if (this.ticking) {
             this.uptime++
-            this.scheduler.tick()
+            this.profiler.profile(MinigameProfiler.SCHEDULER, this.scheduler::tick)
         }
     }
 
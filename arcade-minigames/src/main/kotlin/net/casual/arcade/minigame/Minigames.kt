@@ -24,6 +24,7 @@ import net.casual.arcade.minigame.extensions.PlayerMinigameExtension
 import net.casual.arcade.minigame.gamemode.ExtendedGameMode
 import net.casual.arcade.minigame.serialization.MinigameCreationContext
 import net.casual.arcade.minigame.serialization.MinigameFactory
+import net.casual.arcade.minigame.serialization.MinigameSerializer
 import net.casual.arcade.minigame.task.impl.PhaseChangeTask
 import net.casual.arcade.minigame.utils.MinigameRegistries
 import net.casual.arcade.minigame.utils.MinigameUtils
@@ -41,6 +42,8 @@ import net.minecraft.world.level.storage.LevelResource
 import java.io.IOException
 import java.nio.file.Path
 import java.util.*
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
 import kotlin.io.path.*
 import kotlin.jvm.optionals.getOrNull
 
@@ -98,34 +101,8 @@ public object Minigames: ModInitializer {
         }
     }
 
-    @OptIn(ExperimentalPathApi::class)
     public fun read(path: Path, server: MinecraftServer): Minigame {
-        val factoryPath = path.resolve("factory.json")
-        if (!factoryPath.isRegularFile()) {
-            try {
-                path.deleteRecursively()
-            } catch (_: IOException) {
-
-            }
-            throw MinigameCreationException("Cannot create Minigame, no such file $factoryPath")
-        }
-
-        val data = try {
-            factoryPath.reader().use(JsonUtils::decodeToJsonObject)
-        } catch (e: IOException) {
-            throw MinigameCreationException("Cannot create Minigame, failed to read $path")
-        }
-
-        try {
-            val factory = MinigameFactory.CODEC.parse(JsonOps.INSTANCE, data.obj("factory")).getOrThrow { message ->
-                MinigameCreationException("Failed to decode minigame factory: $message")
-            }
-            val minigame = factory.create(MinigameCreationContext(server, data.uuid("uuid")))
-            minigame.serialization.loadFrom(path)
-            return minigame
-        } catch (e: Exception) {
-            throw MinigameCreationException("Failed to create Minigame for $path", e)
-        }
+        return this.create(this.readSave(path), server)
     }
 
     public fun write(path: Path, minigame: Minigame) {
@@ -206,6 +183,7 @@ public object Minigames: ModInitializer {
     private fun loadMinigames(server: MinecraftServer) {
         val path = this.getInstancesSavePath(server)
         path.createDirectories()
+        val saves = ArrayList<CompletableFuture<MinigameSave>>()
         for (types in path.listDirectoryEntries()) {
             if (!types.isDirectory()) {
                 continue
@@ -214,15 +192,62 @@ public object Minigames: ModInitializer {
                 if (!minigame.isDirectory()) {
                     continue
                 }
-                try {
-                    this.read(minigame, server)
-                } catch (e: MinigameCreationException) {
-                    ArcadeUtils.logger.error("Failed to create minigame", e)
-                }
+                saves.add(CompletableFuture.supplyAsync({ this.readSave(minigame) }, Util.ioPool()))
+            }
+        }
+
+        // The files are parsed in parallel, but the minigames
+        // must be created on the main thread, in the order they were found
+        for (save in saves) {
+            try {
+                this.create(save.join(), server)
+            } catch (e: CompletionException) {
+                ArcadeUtils.logger.error("Failed to create minigame", e.cause)
+            } catch (e: MinigameCreationException) {
+                ArcadeUtils.logger.error("Failed to create minigame", e)
             }
         }
     }
 
+    @OptIn(ExperimentalPathApi::class)
+    private fun readSave(path: Path): MinigameSave {
+        val factoryPath = path.resolve("factory.json")
+        if (!factoryPath.isRegularFile()) {
+            try {
+                path.deleteRecursively()
+            } catch (_: IOException) {
+
+            }
+            throw MinigameCreationException("Cannot create Minigame, no such file $factoryPath")
+        }
+
+        val data = try {
+            factoryPath.reader().use(JsonUtils::decodeToJsonObject)
+        } catch (e: IOException) {
+            throw MinigameCreationException("Cannot create Minigame, failed to read $path")
+        }
+
+        val files = try {
+            MinigameSerializer.readSaveFiles(path)
+        } catch (e: Exception) {
+            throw MinigameCreationException("Cannot create Minigame, failed to read $path", e)
+        }
+        return MinigameSave(path, data, files)
+    }
+
+    private fun create(save: MinigameSave, server: MinecraftServer): Minigame {
+        try {
+            val factory = MinigameFactory.CODEC.parse(JsonOps.INSTANCE, save.data.obj("factory")).getOrThrow { message ->
+                MinigameCreationException("Failed to decode minigame factory: $message")
+            }
+            val minigame = factory.create(MinigameCreationContext(server, save.data.uuid("uuid")))
+            minigame.serialization.loadFrom(save.files)
+            return minigame
+        } catch (e: Exception) {
+            throw MinigameCreationException("Failed to create Minigame for ${save.path}", e)
+        }
+    }
+
     private fun saveMinigames() {
         for (minigame in ALL.values) {
             if (minigame.serializable) {
@@ -242,4 +267,10 @@ public object Minigames: ModInitializer {
             }
         }
     }
+
+    private class MinigameSave(
+        val path: Path,
+        val data: JsonObject,
+        val files: MinigameSerializer.SaveFiles
+    )
 }
\ No newline at end of file
@@ -5,6 +5,7 @@
 package net.casual.arcade.minigame.commands
 
 import com.google.gson.JsonObject
+import com.mojang.brigadier.arguments.DoubleArgumentType
 import com.mojang.brigadier.arguments.IntegerArgumentType
 import com.mojang.brigadier.builder.LiteralArgumentBuilder
 import com.mojang.brigadier.context.CommandContext
@@ -15,6 +16,8 @@ import net.casual.arcade.minigame.Minigame
 import net.casual.arcade.minigame.Minigames
 import net.casual.arcade.minigame.commands.arguments.*
 import net.casual.arcade.minigame.commands.arguments.MinigameSettingsOptionArgument.Companion.INVALID_SETTING_OPTION
+import net.casual.arcade.minigame.managers.MinigameProfiler
+import net.casual.arcade.minigame.managers.profiler.TickTimings
 import net.casual.arcade.minigame.serialization.MinigameCreationContext
 import net.casual.arcade.minigame.utils.AdvancementModifier
 import net.casual.arcade.minigame.utils.MinigameUtils.countdown
@@ -43,6 +46,7 @@ import net.minecraft.resources.ResourceKey
 import net.minecraft.resources.ResourceLocation
 import net.minecraft.server.level.ServerPlayer
 import java.util.*
+import kotlin.time.Duration.Companion.milliseconds
 
 internal object MinigameCommand: CommandTree {
     override fun create(buildContext: CommandBuildContext): LiteralArgumentBuilder<CommandSourceStack> {
@@ -332,6 +336,23 @@ internal object MinigameCommand: CommandTree {
                     }
                 }
             }
+            literal("profile") {
+                executes(::profileMinigames)
+                argument("minigame", MinigameArgument.minigame()) {
+                    executes(::profileMinigame)
+                    literal("budget") {
+                        argument("milliseconds", DoubleArgumentType.doubleArg(0.0)) {
+                            executes(::setMinigameTickBudget)
+                        }
+                        literal("clear") {
+                            executes(::clearMinigameTickBudget)
+                        }
+                    }
+                    literal("reset") {
+                        executes(::resetMinigameProfiler)
+                    }
+                }
+            }
         }
     }
 
@@ -883,4 +904,101 @@ internal object MinigameCommand: CommandTree {
             Component.translatable("minigame.command.step.failure", minigame.uuid.toString())
         )
     }
-}
\ No newline at end of file
+
+    private fun profileMinigames(context: CommandContext<CommandSourceStack>): Int {
+        val minigames = Minigames.all()
+        if (minigames.isEmpty()) {
+            return context.source.fail(Component.translatable("minigame.command.list.none"))
+        }
+        val sorted = minigames.sortedByDescending { it.profiler.getTotalTimings().average() }
+        val message = Component.empty()
+        for ((i, minigame) in sorted.withIndex()) {
+            if (i != 0) {
+                message.append("\n")
+            }
+            message.append(Component.translatable(
+                "minigame.command.profile.entry",
+                minigame.id.toString(),
+                minigame.uuid.toString(),
+                this.formatTimings(minigame.profiler.getTotalTimings())
+            ))
+        }
+        return context.source.success(message)
+    }
+
+    private fun profileMinigame(context: CommandContext<CommandSourceStack>): Int {
+        val minigame = MinigameArgument.getMinigame(context, "minigame")
+        val total = minigame.profiler.getTotalTimings()
+        if (total.size == 0) {
+            return context.source.fail(
+                Component.translatable("minigame.command.profile.none", minigame.uuid.toString())
+            )
+        }
+        val message = Component.translatable(
+            "minigame.command.profile.header", minigame.id.toString(), minigame.uuid.toString(), total.size.toString()
+        )
+        for ((section, timings) in minigame.profiler.getAllTimings()) {
+            message.append("\n").append(
+                Component.translatable("minigame.command.profile.section", section, this.formatTimings(timings))
+            )
+        }
+        val bounds = TickTimings.HISTOGRAM_BOUNDS
+        val histogram = total.histogram()
+        message.append("\n").append(Component.translatable("minigame.command.profile.histogram", MinigameProfiler.TOTAL))
+        for ((i, count) in histogram.withIndex()) {
+            val bound = if (i < bounds.size) {
+                Component.translatable(
+                    "minigame.command.profile.histogram.below", this.formatMillis(bounds[i].toDouble()), count.toString()
+                )
+            } else {
+                Component.translatable(
+                    "minigame.command.profile.histogram.above", this.formatMillis(bounds.last().toDouble()), count.toString()
+                )
+            }
+            message.append("\n").append(bound)
+        }
+        val budget = minigame.profiler.budget
+        if (budget > 0) {
+            message.append("\n").append(Component.translatable(
+                "minigame.command.profile.budget", this.formatMillis(budget.toDouble()), minigame.profiler.deferring.toString()
+            ))
+        }
+        return context.source.success(message)
+    }
+
+    private fun setMinigameTickBudget(context: CommandContext<CommandSourceStack>): Int {
+        val minigame = MinigameArgument.getMinigame(context, "minigame")
+        val milliseconds = DoubleArgumentType.getDouble(context, "milliseconds")
+        minigame.profiler.setBudget(milliseconds.milliseconds)
+        return context.source.success(
+            Component.translatable("minigame.command.profile.budget.set", minigame.uuid.toString(), milliseconds.toString())
+        )
+    }
+
+    private fun clearMinigameTickBudget(context: CommandContext<CommandSourceStack>): Int {
+        val minigame = MinigameArgument.getMinigame(context, "minigame")
+        minigame.profiler.setBudget(null)
+        return context.source.success(
+            Component.translatable("minigame.command.profile.budget.clear", minigame.uuid.toString())
+        )
+    }
+
+    private fun resetMinigameProfiler(context: CommandContext<CommandSourceStack>): Int {
+        val minigame = MinigameArgument.getMinigame(context, "minigame")
+        minigame.profiler.clear()
+        return context.source.success(
+            Component.translatable("minigame.command.profile.reset", minigame.uuid.toString())
+        )
+    }
+
+    private fun formatTimings(timings: TickTimings): Component {
+        val average = this.formatMillis(timings.average())
+        val p95 = this.formatMillis(timings.percentile(0.95).toDouble())
+        val max = this.formatMillis(timings.max().toDouble())
+        return Component.translatable("minigame.command.profile.timings", average, p95, max)
+    }
+
+    private fun formatMillis(nanos: Double): String {
+        return "%.3fms".format(nanos / 1_000_000)
+    }
+}
@@ -11,6 +11,7 @@ import eu.pb4.polymer.virtualentity.api.elements.SimpleEntityElement
 import net.casual.arcade.events.GlobalEventHandler
 import net.casual.arcade.events.ListenerRegistry.Companion.register
 import net.casual.arcade.events.server.player.PlayerAttributeUpdatedEvent
+import net.casual.arcade.events.server.network.ClientboundPacketListeners
 import net.casual.arcade.events.server.player.PlayerClientboundPacketEvent
 import net.casual.arcade.events.server.player.PlayerTickEvent
 import net.casual.arcade.extensions.DataExtension
@@ -152,7 +153,7 @@ public class PlayerMovementRestrictionExtension(player: ServerPlayer): PlayerExt
                 it.player.getExtension<PlayerMovementRestrictionExtension>().tick()
             }
             GlobalEventHandler.Server.register<PlayerAttributeUpdatedEvent>(::onPlayerAttributeUpdated)
-            GlobalEventHandler.Server.register<PlayerClientboundPacketEvent>(::onPlayerClientboundPacket)
+            ClientboundPacketListeners.register<ClientboundUpdateAttributesPacket>(listener = ::onPlayerClientboundPacket)
         }
 
         private fun onPlayerAttributeUpdated(event: PlayerAttributeUpdatedEvent) {
@@ -170,6 +171,13 @@ public class PlayerMovementRestrictionExtension(player: ServerPlayer): PlayerExt
         private fun onPlayerClientboundPacket(event: PlayerClientboundPacketEvent) {
             val (player, packet) = event
             if (packet is ClientboundUpdateAttributesPacket && player.id == packet.entityId) {
+                val server = player.level().server
+                if (!server.isSameThread) {
+                    // Extensions aren't thread safe, so we send the packet again from the server thread
+                    event.cancel()
+                    server.execute { player.connection.send(packet) }
+                    return
+                }
                 val extension = player.getExtension<PlayerMovementRestrictionExtension>()
                 if (extension.hasRestrictedMovement) {
                     val index = packet.values.indexOfFirst { snapshot ->
@@ -48,7 +48,7 @@ public class MinigameAdvancementManager(
         this.minigame.events.register<PlayerLeaveEvent> { (player) ->
             this.reloaded.remove(player.uuid)
         }
-        this.minigame.events.register<PlayerClientboundPacketEvent>(this::onPlayerClientboundPacket)
+        this.minigame.events.registerPacket<ClientboundUpdateAdvancementsPacket>(this::onPlayerClientboundPacket)
     }
 
     /**
@@ -43,11 +43,14 @@ import net.casual.arcade.utils.ResourceUtils
 import net.casual.arcade.utils.chat.ChatFormatter
 import net.casual.arcade.utils.chat.PlayerChatFormatter
 import net.casual.arcade.utils.chat.PlayerFormattedChat
+import net.casual.arcade.utils.network.SharedPacketEncoder
 import net.minecraft.commands.CommandSourceStack
 import net.minecraft.commands.arguments.TeamArgument
 import net.minecraft.network.chat.Component
+import net.minecraft.network.protocol.game.ClientboundSystemChatPacket
 import net.minecraft.resources.ResourceLocation
 import net.minecraft.server.level.ServerPlayer
+import net.minecraft.world.entity.player.ChatVisiblity
 import java.util.*
 
 /**
@@ -158,9 +161,7 @@ public class MinigameChatManager(
         log: Boolean = false
     ) {
         val formatted = formatter?.format(message) ?: message
-        for (player in players) {
-            player.sendSystemMessage(formatted)
-        }
+        this.sendSharedSystemMessage(formatted, players)
         if (log) {
             this.minigame.server.sendSystemMessage(formatted)
         }
@@ -217,9 +218,7 @@ public class MinigameChatManager(
     ) {
         val formatted = formatter.format(player, PlayerFormattedChat(message = message))
         val chat = formatted.asComponent { player.getChatUsername(true) }
-        for (receiver in receivers) {
-            receiver.sendSystemMessage(chat)
-        }
+        this.sendSharedSystemMessage(chat, receivers)
         if (log) {
             this.minigame.server.sendSystemMessage(chat)
         }
@@ -415,6 +414,17 @@ public class MinigameChatManager(
         }
     }
 
+    private fun sendSharedSystemMessage(message: Component, players: Iterable<ServerPlayer>) {
+        // Equivalent to ServerPlayer#sendSystemMessage, but the packet is only
+        // encoded once, if it isn't going to be translated for each player
+        val packet = SharedPacketEncoder.share(ClientboundSystemChatPacket(message, false))
+        for (player in players) {
+            if (player.chatVisibility != ChatVisiblity.HIDDEN) {
+                player.connection.send(packet)
+            }
+        }
+    }
+
     private fun formatGlobalChatFor(player: ServerPlayer, message: PlayerFormattedChat): PlayerFormattedChat {
         if (this.minigame.players.isAdmin(player)) {
             return this.globalChatFormatter.format(player, this.adminChatFormatter.format(player, message))
@@ -18,7 +18,6 @@ import net.casual.arcade.minigame.events.MinigameRemovePlayerEvent
 import net.casual.arcade.visuals.utils.modifySharedFlags
 import net.casual.arcade.utils.ResourceUtils
 import net.casual.arcade.utils.asClientGamePacket
-import net.casual.arcade.utils.modify
 import net.casual.arcade.visuals.predicate.EntityObserverPredicate
 import net.casual.arcade.visuals.predicate.PlayerObserverPredicate
 import net.casual.arcade.visuals.predicate.PlayerObserverPredicate.Companion.toPlayer
@@ -52,12 +51,16 @@ public class MinigameEffectsManager(
     private val frozen = HashSet<UUID>()
 
     init {
-        this.minigame.events.register<PlayerClientboundPacketEvent> { this.onPlayerPacket(it) }
+        this.minigame.events.registerPacket<ClientboundUpdateMobEffectPacket> { this.onPlayerPacket(it) }
+        this.minigame.events.registerPacket<ClientboundAddEntityPacket> { this.onPlayerPacket(it) }
+        this.minigame.events.registerPacket<ClientboundSetEntityDataPacket> { this.onPlayerPacket(it) }
         this.minigame.events.register<PlayerDimensionChangeEvent> { this.updatePlayerFullbright(it.player) }
         this.minigame.events.register<MinigameAddPlayerEvent> { this.updatePlayerFullbright(it.player) }
         this.minigame.events.register<PlayerRespawnEvent> { this.updatePlayerFullbright(it.player) }
         this.minigame.events.register<MinigameRemovePlayerEvent> { this.removeFullbright(it.player) }
-        this.minigame.events.register<ServerTickEvent> { this.tickTrackers() }
+        this.minigame.events.register<ServerTickEvent> {
+            this.minigame.profiler.deferrable(MinigameProfiler.EFFECTS, this::tickTrackers)
+        }
     }
 
     /**
@@ -135,11 +138,15 @@ public class MinigameEffectsManager(
     }
 
     public fun tickFreeze(entity: Entity) {
-        this.frozen.add(entity.uuid)
+        if (this.frozen.add(entity.uuid)) {
+            this.minigame.tickrate.invalidateFrozenEntities()
+        }
     }
 
     public fun tickUnfreeze(entity: Entity) {
-        this.frozen.remove(entity.uuid)
+        if (this.frozen.remove(entity.uuid)) {
+            this.minigame.tickrate.invalidateFrozenEntities()
+        }
     }
 
     public fun isTickFrozen(entity: Entity): Boolean {
@@ -214,10 +221,6 @@ public class MinigameEffectsManager(
     }
 
     private fun updatePacket(player: ServerPlayer, packet: Packet<*>): Packet<ClientGamePacketListener> {
-        if (packet is ClientboundBundlePacket) {
-            return packet.modify(player, this::updatePacket)
-        }
-
         if (packet is ClientboundUpdateMobEffectPacket) {
             if (packet.entityId == player.id && packet.effect.value() == NIGHT_VISION.value() && this.hasFullbright(player)) {
                 return ClientboundUpdateMobEffectPacket(player.id, INFINITE_NIGHT_VISION, false)
@@ -9,6 +9,8 @@ import net.casual.arcade.events.EventListener
 import net.casual.arcade.events.common.Event
 import net.casual.arcade.events.server.level.LevelEvent
 import net.casual.arcade.events.server.level.LocatedLevelEvent
+import net.casual.arcade.events.server.network.ClientboundPacketListeners
+import net.casual.arcade.events.server.player.PlayerClientboundPacketEvent
 import net.casual.arcade.events.server.player.PlayerEvent
 import net.casual.arcade.minigame.Minigame
 import net.casual.arcade.minigame.annotation.ListenerFlags.DEFAULT
@@ -21,7 +23,9 @@ import net.casual.arcade.minigame.annotation.ListenerFlags.IS_PLAYING
 import net.casual.arcade.minigame.annotation.ListenerFlags.IS_SPECTATOR
 import net.casual.arcade.minigame.events.MinigameEvent
 import net.casual.arcade.minigame.phase.Phase
+import net.minecraft.network.protocol.Packet
 import java.util.*
+import java.util.concurrent.ConcurrentHashMap
 import java.util.function.Consumer
 
 /**
@@ -60,6 +64,7 @@ public class MinigameEventHandler(
 ): ListenerRegistry {
     private val global = SimpleListenerRegistry()
     private val injected = SimpleListenerRegistry()
+    private val packets = ArrayList<Pair<Class<out Packet<*>>, EventListener<PlayerClientboundPacketEvent>>>()
 
     /**
      * This method gets all the [EventListener]s for a given
@@ -308,6 +313,70 @@ public class MinigameEventHandler(
         return this.registerFiltered(type, listener, predicates, flags)
     }
 
+    /**
+     * Registers a listener for a specific type of packet being
+     * sent to a player in this minigame.
+     *
+     * This is much cheaper than registering a [PlayerClientboundPacketEvent]
+     * listener and checking the packet type, see [ClientboundPacketListeners].
+     *
+     * The listener is always invoked on the main thread, packets sent from
+     * other threads are deferred to the main thread and can therefore
+     * no longer be modified or cancelled by the listener.
+     *
+     * @param P The type of packet.
+     * @param priority The priority of your listener.
+     * @param listener The callback which will be invoked when the packet is sent.
+     */
+    public inline fun <reified P: Packet<*>> registerPacket(
+        priority: Int = 1_000,
+        phase: String = BuiltInEventPhases.DEFAULT,
+        listener: Consumer<PlayerClientboundPacketEvent>
+    ) {
+        this.registerPacket(P::class.java, priority, phase, listener)
+    }
+
+    /**
+     * Registers a listener for a specific type of packet being
+     * sent to a player in this minigame.
+     *
+     * This is much cheaper than registering a [PlayerClientboundPacketEvent]
+     * listener and checking the packet type, see [ClientboundPacketListeners].
+     *
+     * The listener is always invoked on the main thread, packets sent from
+     * other threads are deferred to the main thread and can therefore
+     * no longer be modified or cancelled by the listener.
+     *
+     * @param type The type of packet.
+     * @param priority The priority of your listener.
+     * @param listener The callback which will be invoked when the packet is sent.
+     */
+    public fun registerPacket(
+        type: Class<out Packet<*>>,
+        priority: Int = 1_000,
+        phase: String = BuiltInEventPhases.DEFAULT,
+        listener: Consumer<PlayerClientboundPacketEvent>
+    ) {
+        val filtered = EventListener.of<PlayerClientboundPacketEvent>(priority, phase, false) { event ->
+            val server = this.minigame.server
+            if (server.isSameThread) {
+                if (this.minigame.players.has(event.player)) {
+                    listener.accept(event)
+                }
+            } else {
+                server.execute {
+                    if (this.minigame.players.has(event.player)) {
+                        listener.accept(event)
+                    }
+                }
+            }
+        }
+        ClientboundPacketListeners.register(type, filtered)
+        synchronized(this.packets) {
+            this.packets.add(type to filtered)
+        }
+    }
+
     internal fun getInjectedProvider(): ListenerProvider {
         return this.injected
     }
@@ -315,6 +384,12 @@ public class MinigameEventHandler(
     internal fun clear() {
         this.global.clear()
         this.injected.clear()
+        synchronized(this.packets) {
+            for ((type, listener) in this.packets) {
+                ClientboundPacketListeners.unregister(type, listener)
+            }
+            this.packets.clear()
+        }
     }
 
     private fun <T: Event> registerFiltered(
@@ -363,6 +438,9 @@ public class MinigameEventHandler(
                 predicates.add { this.minigame === (it as MinigameEvent).minigame }
             }
         }
+        if (registry === this.injected) {
+            injectable.add(type)
+        }
         if (predicates.isEmpty()) {
             registry.register(type, listener)
             return
@@ -377,4 +455,13 @@ public class MinigameEventHandler(
     private fun hasFlag(flags: Int, flag: Int): Boolean {
         return (flags and flag) == flag
     }
+
+    internal companion object {
+        // Types are never removed, this only needs to be conservative
+        private val injectable = ConcurrentHashMap.newKeySet<Class<out Event>>()
+
+        fun isInjectable(type: Class<out Event>): Boolean {
+            return injectable.contains(type)
+        }
+    }
 }
\ No newline at end of file
@@ -5,8 +5,10 @@
 package net.casual.arcade.minigame.managers
 
 import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap
 import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet
 import net.casual.arcade.dimensions.level.CustomLevel
+import net.casual.arcade.dimensions.level.CustomLevelPool
 import net.casual.arcade.dimensions.utils.addCustomLevel
 import net.casual.arcade.dimensions.utils.hasCustomLevel
 import net.casual.arcade.dimensions.utils.removeCustomLevel
@@ -32,6 +34,7 @@ public class MinigameLevelManager(
 ): Iterable<ServerLevel> {
     private val levels = Reference2ObjectLinkedOpenHashMap<ServerLevel, BoundingBox?>()
     private val handling = ReferenceOpenHashSet<CustomLevel>()
+    private val pooled = Reference2ObjectOpenHashMap<CustomLevel, CustomLevelPool>()
 
     /**
      * The default spawn location for the minigame.
@@ -67,6 +70,26 @@ public class MinigameLevelManager(
         }
     }
 
+    /**
+     * This acquires a level from a [CustomLevelPool] and
+     * adds it to the minigame.
+     *
+     * The minigame will handle adding the level, and once
+     * the minigame closes, the level will be released to the
+     * pool, which deletes it and warms up a replacement.
+     *
+     * @param pool The pool to acquire the level from.
+     * @param box The bounding box of the minigame within the level.
+     * @return The acquired level.
+     */
+    @JvmOverloads
+    public fun acquire(pool: CustomLevelPool, box: BoundingBox? = null): CustomLevel {
+        val level = pool.acquire()
+        this.pooled[level] = pool
+        this.add(level, box)
+        return level
+    }
+
     /**
      * Adds multiple levels to the minigame.
      *
@@ -139,6 +162,9 @@ public class MinigameLevelManager(
         minigame.levels.handling.addAll(this.handling)
         this.handling.clear()
 
+        minigame.levels.pooled.putAll(this.pooled)
+        this.pooled.clear()
+
         minigame.levels.spawn = this.spawn
     }
 
@@ -153,10 +179,16 @@ public class MinigameLevelManager(
             level.minigame.removeMinigame(this.minigame)
         }
         for (handling in this.handling) {
-            this.minigame.server.removeCustomLevel(handling)
+            if (!this.pooled.containsKey(handling)) {
+                this.minigame.server.removeCustomLevel(handling)
+            }
+        }
+        for ((level, pool) in this.pooled) {
+            pool.release(level)
         }
         this.levels.clear()
         this.handling.clear()
+        this.pooled.clear()
     }
 
     private fun ensureLevelLoaded(level: ServerLevel) {
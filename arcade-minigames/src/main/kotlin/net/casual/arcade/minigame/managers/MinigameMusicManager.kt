@@ -43,7 +43,9 @@ public class MinigameMusicManager(
     public var provider: MinigameMusicProvider = MinigameMusicProvider.EMPTY
 
     init {
-        this.minigame.events.register<ServerTickEvent> { this.tick() }
+        this.minigame.events.register<ServerTickEvent> {
+            this.minigame.profiler.profile(MinigameProfiler.MUSIC, this::tick)
+        }
         this.minigame.events.register<MinigameAddPlayerEvent> { (_, player) -> this.suppressGameMusic(player) }
         this.minigame.events.register<PlayerDimensionChangeEvent> { (player) -> this.interrupt(player) }
         this.minigame.events.register<PlayerRespawnEvent> { (player) -> this.interrupt(player) }
@@ -23,6 +23,7 @@ import net.casual.arcade.utils.impl.ConcatenatedList.Companion.concat
 import net.casual.arcade.utils.math.location.Location.Companion.location
 import net.casual.arcade.utils.math.location.LocationWithLevel.Companion.asTeleportTransition
 import net.casual.arcade.utils.math.location.LocationWithLevel.Companion.locationWithLevel
+import net.casual.arcade.utils.network.SharedPacketEncoder
 import net.casual.arcade.utils.teleportTo
 import net.minecraft.Util
 import net.minecraft.nbt.CompoundTag
@@ -378,9 +379,19 @@ public class MinigamePlayerManager(
         return next.players.add(player, spectating, admin)
     }
 
+    /**
+     * Sends a packet to all the players in the minigame.
+     *
+     * If the packet is encoded the same for every player, see
+     * [SharedPacketEncoder.isShareable], then it is only encoded
+     * once and shared between all the connections.
+     *
+     * @param packet The packet to broadcast.
+     */
     public fun broadcast(packet: Packet<*>) {
+        val shared = SharedPacketEncoder.share(packet)
         for (connection in this.connections) {
-            connection.send(packet)
+            connection.send(shared)
         }
     }
 
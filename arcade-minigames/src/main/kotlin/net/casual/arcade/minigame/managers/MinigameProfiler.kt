@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.minigame.managers
+
+import it.unimi.dsi.fastutil.objects.Object2LongLinkedOpenHashMap
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap
+import net.casual.arcade.events.ListenerRegistry.Companion.register
+import net.casual.arcade.events.server.ServerTickEvent
+import net.casual.arcade.minigame.Minigame
+import net.casual.arcade.minigame.managers.profiler.TickTimings
+import kotlin.time.Duration
+
+/**
+ * This class profiles how long a minigame takes to tick.
+ *
+ * Each of the minigame's managers are timed separately in their
+ * own section, see [TICK_RATE], [UI], [SCHEDULER], [EFFECTS], and [MUSIC].
+ * You may also profile your own sections with [profile].
+ * The sum of all sections in a tick is recorded in [TOTAL].
+ *
+ * You can also optionally set a soft [budget] for the minigame.
+ * If the previous tick exceeded the budget then any non-critical
+ * work, such as refreshing deferrable UI and updating trackers, will
+ * be deferred to a later tick, see [deferrable] and [deferring].
+ * UI which counts ticks, such as timers, is always ticked, see
+ * [net.casual.arcade.visuals.core.TickableUI.isDeferrable].
+ *
+ * @see Minigame.profiler
+ */
+public class MinigameProfiler(
+    private val minigame: Minigame
+) {
+    private val timings = Object2ObjectLinkedOpenHashMap<String, TickTimings>()
+    private val current = Object2LongLinkedOpenHashMap<String>()
+
+    private var deferredTicks = 0
+
+    /**
+     * Whether the profiler is enabled.
+     *
+     * Disabling the profiler will also disable the [budget].
+     */
+    public var enabled: Boolean = true
+        set(value) {
+            field = value
+            if (!value) {
+                this.clear()
+            }
+        }
+
+    /**
+     * The soft budget for each tick of the minigame, in nanoseconds.
+     * A value of `0` means the minigame has no budget.
+     *
+     * @see deferrable
+     */
+    public var budget: Long = 0
+
+    /**
+     * The maximum number of consecutive ticks that work can be deferred for.
+     * After this many ticks the work will run regardless of the [budget].
+     */
+    public var maxDeferredTicks: Int = 5
+
+    /**
+     * Whether non-critical work is being deferred this tick.
+     */
+    public var deferring: Boolean = false
+        private set
+
+    init {
+        this.minigame.events.register<ServerTickEvent>(Int.MIN_VALUE) { this.onTickStart() }
+    }
+
+    /**
+     * Sets the soft [budget] for each tick of the minigame.
+     *
+     * @param duration The budget, null to remove the budget.
+     */
+    public fun setBudget(duration: Duration?) {
+        this.budget = duration?.inWholeNanoseconds ?: 0
+    }
+
+    /**
+     * Profiles a given section of the minigame's tick.
+     *
+     * @param section The name of the section being profiled.
+     * @param block The work to profile.
+     * @return The result of [block].
+     */
+    public fun <T> profile(section: String, block: () -> T): T {
+        if (!this.enabled) {
+            return block.invoke()
+        }
+        val start = System.nanoTime()
+        try {
+            return block.invoke()
+        } finally {
+            this.current.addTo(section, System.nanoTime() - start)
+        }
+    }
+
+    /**
+     * Profiles a given section of the minigame's tick, this work will
+     * only be run if the minigame is within its [budget].
+     *
+     * The work should be safe to skip, it will be re-attempted
+     * on the next tick, skipped ticks are not replayed. Work which
+     * counts ticks must not be deferred.
+     *
+     * @param section The name of the section being profiled.
+     * @param block The work to profile.
+     * @return Whether the work was run.
+     */
+    public fun deferrable(section: String, block: () -> Unit): Boolean {
+        if (this.deferring) {
+            return false
+        }
+        this.profile(section, block)
+        return true
+    }
+
+    /**
+     * Gets the timings for a given section.
+     *
+     * @param section The name of the section.
+     * @return The timings, null if the section hasn't been profiled.
+     */
+    public fun getTimings(section: String): TickTimings? {
+        return this.timings[section]
+    }
+
+    /**
+     * Gets the timings for all the profiled sections.
+     *
+     * @return The section names mapped to their timings.
+     */
+    public fun getAllTimings(): Map<String, TickTimings> {
+        return this.timings
+    }
+
+    /**
+     * Gets the total timings for the minigame.
+     *
+     * @return The total timings.
+     */
+    public fun getTotalTimings(): TickTimings {
+        return this.timings.getOrPut(TOTAL) { TickTimings() }
+    }
+
+    /**
+     * Clears all the recorded timings.
+     */
+    public fun clear() {
+        this.timings.clear()
+        this.current.clear()
+        this.deferredTicks = 0
+        this.deferring = false
+    }
+
+    private fun onTickStart() {
+        if (!this.enabled) {
+            return
+        }
+
+        var total = 0L
+        for (section in this.timings.keys) {
+            if (section != TOTAL && !this.current.containsKey(section)) {
+                this.timings[section]!!.record(0)
+            }
+        }
+        for (entry in this.current.object2LongEntrySet()) {
+            total += entry.longValue
+            this.timings.getOrPut(entry.key) { TickTimings() }.record(entry.longValue)
+        }
+        this.current.clear()
+        this.getTotalTimings().record(total)
+
+        this.deferring = this.budget > 0 && total > this.budget && this.deferredTicks < this.maxDeferredTicks
+        if (this.deferring) {
+            this.deferredTicks++
+        } else {
+            this.deferredTicks = 0
+        }
+    }
+
+    public companion object {
+        public const val TOTAL: String = "total"
+        public const val TICK_RATE: String = "tickrate"
+        public const val UI: String = "ui"
+        public const val SCHEDULER: String = "scheduler"
+        public const val EFFECTS: String = "effects"
+        public const val MUSIC: String = "music"
+    }
+}
@@ -54,7 +54,7 @@ public class MinigameRecipeManager(
     private val players = HashMultimap.create<UUID, ResourceKey<Recipe<*>>>()
 
     init {
-        this.minigame.events.register<PlayerClientboundPacketEvent>(this::onClientboundPacket)
+        this.minigame.events.registerPacket<ClientboundRecipeBookAddPacket>(this::onClientboundPacket)
         this.minigame.events.register<MinigameAddPlayerEvent>(this::onPlayerAdded)
         this.minigame.events.register<MinigameRemovePlayerEvent>(this::onPlayerRemoved)
     }
@@ -6,18 +6,38 @@ package net.casual.arcade.minigame.managers
 
 import com.google.gson.JsonArray
 import com.google.gson.JsonObject
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonWriter
+import it.unimi.dsi.fastutil.ints.IntArrays
+import net.casual.arcade.minigame.stats.NumericStatColumn
 import net.casual.arcade.minigame.stats.Stat
+import net.casual.arcade.minigame.stats.StatColumn
 import net.casual.arcade.minigame.stats.StatTracker
 import net.casual.arcade.minigame.stats.StatType
 import net.casual.arcade.utils.JsonUtils.array
+import net.casual.arcade.utils.JsonUtils.forEachElement
+import net.casual.arcade.utils.JsonUtils.forEachProperty
 import net.casual.arcade.utils.JsonUtils.objects
 import net.casual.arcade.utils.JsonUtils.string
 import net.minecraft.server.level.ServerPlayer
 import java.util.*
 import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
 
+/**
+ * This class manages the stats for all the players in a minigame.
+ *
+ * Stats are stored by column, each [StatType] has its own column of
+ * values which is indexed by each player's [StatTracker]. Numeric
+ * stats are stored as primitives and can be incremented without locking.
+ *
+ * This also allows for cheap aggregates over all players,
+ * see [getLeaderboard] and [getTotal].
+ */
 public class MinigameStatManager {
     private val stats = ConcurrentHashMap<UUID, StatTracker>()
+    private val columns = ConcurrentHashMap<StatType<*>, StatColumn<*>>()
+    private val indices = AtomicInteger()
     private var frozen = false
 
     public fun freeze() {
@@ -43,9 +63,54 @@ public class MinigameStatManager {
     }
 
     public fun getOrCreateTracker(uuid: UUID): StatTracker {
-        return this.stats.getOrPut(uuid) {
-            StatTracker().also { if (this.frozen) it.freeze() }
+        return this.stats.computeIfAbsent(uuid) {
+            StatTracker(this, uuid, this.indices.getAndIncrement()).also { if (this.frozen) it.freeze() }
+        }
+    }
+
+    /**
+     * Gets the players with the given stat, sorted by the value of the stat.
+     * Players who do not have the stat will not be included.
+     *
+     * @param type The stat type, this must be numeric.
+     * @param limit The maximum number of players to return.
+     * @param ascending Whether the lowest values should come first.
+     * @return The players' uuids and their values.
+     */
+    public fun <T> getLeaderboard(
+        type: StatType<T>,
+        limit: Int = Int.MAX_VALUE,
+        ascending: Boolean = false
+    ): List<Pair<UUID, T>> {
+        val column = this.getNumericColumn(type)
+        val trackers = this.getTrackersWithStat(type)
+        val order = IntArray(trackers.size) { it }
+        val values = DoubleArray(trackers.size) { column.getAsDouble(trackers[it].index) }
+        IntArrays.quickSort(order) { a, b ->
+            if (ascending) values[a].compareTo(values[b]) else values[b].compareTo(values[a])
+        }
+        val count = minOf(limit, order.size)
+        val leaderboard = ArrayList<Pair<UUID, T>>(count)
+        for (i in 0 until count) {
+            val tracker = trackers[order[i]]
+            leaderboard.add(tracker.uuid to column.get(tracker.index))
         }
+        return leaderboard
+    }
+
+    /**
+     * Gets the sum of a given stat over all players.
+     *
+     * @param type The stat type, this must be numeric.
+     * @return The sum of the stat.
+     */
+    public fun <T> getTotal(type: StatType<T>): Double {
+        val column = this.getNumericColumn(type)
+        var total = 0.0
+        for (tracker in this.getTrackersWithStat(type)) {
+            total += column.getAsDouble(tracker.index)
+        }
+        return total
     }
 
     public fun serialize(): JsonArray {
@@ -67,10 +132,129 @@ public class MinigameStatManager {
         return this.stats[uuid]?.serialize() ?: JsonArray()
     }
 
+    /**
+     * Writes all the stats in the same format as [serialize], without
+     * creating the intermediate json tree.
+     *
+     * @param writer The writer to write to.
+     */
+    public fun write(writer: JsonWriter) {
+        this.snapshot().write(writer)
+    }
+
+    /**
+     * Writes a player's stats in the same format as [serialize], without
+     * creating the intermediate json tree.
+     *
+     * @param uuid The uuid of the player.
+     * @param writer The writer to write to.
+     */
+    public fun write(uuid: UUID, writer: JsonWriter) {
+        this.snapshot(uuid).write(writer)
+    }
+
+    /**
+     * Copies the current values of all the stats, the snapshot
+     * can then be written with [Snapshot.write] from any thread.
+     *
+     * @return The snapshot of the stats.
+     */
+    internal fun snapshot(): Snapshot {
+        val trackers = ArrayList<Pair<UUID, StatTracker.Snapshot>>(this.stats.size)
+        for ((uuid, tracker) in this.stats) {
+            trackers.add(uuid to tracker.snapshot())
+        }
+        return Snapshot(trackers)
+    }
+
+    /**
+     * Copies the current values of a player's stats.
+     *
+     * @param uuid The uuid of the player.
+     * @return The snapshot of the player's stats.
+     */
+    internal fun snapshot(uuid: UUID): StatTracker.Snapshot {
+        return this.stats[uuid]?.snapshot() ?: StatTracker.Snapshot(listOf())
+    }
+
     internal fun deserialize(array: JsonArray) {
         for (tracker in array.objects()) {
             val uuid = UUID.fromString(tracker.string("uuid"))
             this.getOrCreateTracker(uuid).deserialize(tracker.array("stats"))
         }
     }
-}
\ No newline at end of file
+
+    internal fun load(saved: SavedStats) {
+        for ((uuid, stats) in saved.trackers) {
+            this.getOrCreateTracker(uuid).load(stats)
+        }
+    }
+
+    internal fun <T> getOrCreateColumn(type: StatType<T>): StatColumn<T> {
+        @Suppress("UNCHECKED_CAST")
+        return this.columns.computeIfAbsent(type) { StatColumn.of(type) } as StatColumn<T>
+    }
+
+    private fun <T> getNumericColumn(type: StatType<T>): NumericStatColumn<T> {
+        val column = this.getOrCreateColumn(type)
+        if (column !is NumericStatColumn) {
+            throw IllegalArgumentException("Stat ${type.id} is not numeric")
+        }
+        return column
+    }
+
+    private fun <T> getTrackersWithStat(type: StatType<T>): List<StatTracker> {
+        val trackers = ArrayList<StatTracker>()
+        for (tracker in this.stats.values) {
+            if (tracker.hasStat(type)) {
+                // Resolves any unprocessed values into the column
+                tracker.getOrCreateStat(type)
+                trackers.add(tracker)
+            }
+        }
+        return trackers
+    }
+
+    internal class Snapshot(private val trackers: List<Pair<UUID, StatTracker.Snapshot>>) {
+        fun write(writer: JsonWriter) {
+            writer.beginArray()
+            for ((uuid, tracker) in this.trackers) {
+                writer.beginObject()
+                writer.name("uuid").value(uuid.toString())
+                writer.name("stats")
+                tracker.write(writer)
+                writer.endObject()
+            }
+            writer.endArray()
+        }
+    }
+
+    internal class SavedStats(val trackers: List<Pair<UUID, List<StatTracker.SavedStat>>>)
+
+    internal companion object {
+        /**
+         * Reads all the stats in the same format as [deserialize], without
+         * creating the intermediate json tree, this does not touch any
+         * minigame state so is safe to call from any thread.
+         *
+         * @param reader The reader to read from.
+         * @return The read stats, which can be loaded with [load].
+         */
+        fun read(reader: JsonReader): SavedStats {
+            val trackers = ArrayList<Pair<UUID, List<StatTracker.SavedStat>>>()
+            reader.forEachElement {
+                var uuid: UUID? = null
+                var stats: List<StatTracker.SavedStat> = listOf()
+                reader.forEachProperty { name, _ ->
+                    when (name) {
+                        "uuid" -> uuid = UUID.fromString(reader.nextString())
+                        "stats" -> stats = StatTracker.read(reader)
+                        else -> reader.skipValue()
+                    }
+                }
+                trackers.add(requireNotNull(uuid) to stats)
+            }
+            return SavedStats(trackers)
+        }
+    }
+}
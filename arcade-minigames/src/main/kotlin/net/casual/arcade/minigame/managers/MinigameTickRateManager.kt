@@ -8,14 +8,19 @@ import net.casual.arcade.events.ListenerRegistry.Companion.register
 import net.casual.arcade.events.server.player.PlayerClientboundPacketEvent
 import net.casual.arcade.events.server.player.PlayerClientboundPacketEvent.Companion.replacePacket
 import net.casual.arcade.minigame.Minigame
+import net.casual.arcade.minigame.ducks.TickFreezeCache
+import net.casual.arcade.minigame.events.MinigameAddAdminEvent
 import net.casual.arcade.minigame.events.MinigamePauseEvent
+import net.casual.arcade.minigame.events.MinigameRemoveAdminEvent
 import net.casual.arcade.minigame.events.MinigameUnpauseEvent
+import net.casual.arcade.minigame.settings.SettingListener
 import net.minecraft.network.protocol.game.ClientboundTickingStatePacket
 import net.minecraft.network.protocol.game.ClientboundTickingStepPacket
 import net.minecraft.server.ServerTickRateManager
 import net.minecraft.server.level.ServerPlayer
 import net.minecraft.util.TimeUtil
 import net.minecraft.world.entity.Entity
+import java.util.concurrent.atomic.AtomicInteger
 import kotlin.math.max
 
 public class MinigameTickRateManager(
@@ -27,18 +32,53 @@ public class MinigameTickRateManager(
      */
     public var useGlobalManager: Boolean = true
 
+    private val id = IDS.getAndIncrement()
+    private var version = 0
+
     internal fun initialize() {
         this.minigame.events.register<MinigamePauseEvent> {
             if (this.minigame.settings.tickFreezeOnPause.get()) {
                 this.setFrozen(true)
             }
+            this.invalidateFrozenEntities()
         }
         this.minigame.events.register<MinigameUnpauseEvent> {
             if (this.minigame.settings.tickFreezeOnPause.get()) {
                 this.setFrozen(false)
             }
+            this.invalidateFrozenEntities()
+        }
+        this.minigame.events.register<MinigameAddAdminEvent> { this.invalidateFrozenEntities() }
+        this.minigame.events.register<MinigameRemoveAdminEvent> { this.invalidateFrozenEntities() }
+        this.minigame.events.registerPacket<ClientboundTickingStatePacket>(::onPlayerClientboundPacketEvent)
+        this.minigame.events.registerPacket<ClientboundTickingStepPacket>(::onPlayerClientboundPacketEvent)
+
+        val listener = SettingListener<Boolean> { setting, _, value ->
+            setting.setQuietly(value)
+            this.invalidateFrozenEntities()
         }
-        this.minigame.events.register<PlayerClientboundPacketEvent>(::onPlayerClientboundPacketEvent)
+        this.minigame.settings.tickFreezeOnPause.addListener(listener)
+        this.minigame.settings.tickFreezeEntities.addListener(listener)
+        this.minigame.settings.tickFreezeOnPause.addOverrideListener(this::invalidateFrozenEntities)
+        this.minigame.settings.tickFreezeEntities.addOverrideListener(this::invalidateFrozenEntities)
+        this.invalidateFrozenEntities()
+    }
+
+    /**
+     * Whether a non-player entity is frozen is cached on the entity itself
+     * and is only re-evaluated after it has been invalidated.
+     *
+     * The cache is invalidated when the tick-freeze settings or their
+     * overrides change, when the minigame is paused or unpaused, when admins
+     * change, and when entities are frozen or unfrozen with
+     * [MinigameEffectsManager.tickFreeze]. If you change anything else that
+     * may affect whether an entity is frozen, you must call this method.
+     *
+     * Players are never cached, setting overrides may depend on any
+     * state of the player, so they are re-evaluated every time.
+     */
+    public fun invalidateFrozenEntities() {
+        this.version++
     }
 
     override fun setTickRate(tickRate: Float) {
@@ -167,17 +207,11 @@ public class MinigameTickRateManager(
     }
 
     override fun isEntityFrozen(entity: Entity): Boolean {
-        if (entity is ServerPlayer) {
-            return this.isPlayerFrozen(entity)
-        }
-        val isFrozen = super.isEntityFrozen(entity)
-        if (isFrozen) {
-            return true
-        }
-        if (this.minigame.settings.tickFreezeEntities.get()) {
+        // Players are never frozen by vanilla
+        if (entity !is ServerPlayer && super.isEntityFrozen(entity)) {
             return true
         }
-        if (this.minigame.effects.isTickFrozen(entity)) {
+        if (this.isFrozenByMinigame(entity)) {
             return true
         }
 
@@ -187,21 +221,29 @@ public class MinigameTickRateManager(
         return false
     }
 
-    private fun isPlayerFrozen(player: ServerPlayer): Boolean {
+    private fun isFrozenByMinigame(entity: Entity): Boolean {
+        if (entity is ServerPlayer) {
+            // Setting overrides may depend on any player state, so we can't cache
+            return this.isPlayerFrozenByMinigame(entity)
+        }
+        val cache = entity as TickFreezeCache
+        val stamp = (this.id.toLong() shl 32) or (this.version.toLong() and 0xFFFFFFFF)
+        if (cache.`arcade$getTickFreezeStamp`() == stamp) {
+            return cache.`arcade$isTickFrozen`()
+        }
+        val frozen = this.minigame.settings.tickFreezeEntities.get() || this.minigame.effects.isTickFrozen(entity)
+        cache.`arcade$setTickFrozen`(stamp, frozen)
+        return frozen
+    }
+
+    private fun isPlayerFrozenByMinigame(player: ServerPlayer): Boolean {
         if (this.minigame.settings.tickFreezeOnPause.get(player) && this.minigame.paused) {
             return true
         }
         if (this.minigame.settings.tickFreezeEntities.get(player)) {
             return true
         }
-        if (this.minigame.effects.isTickFrozen(player)) {
-            return true
-        }
-
-        if (this.useGlobalManager) {
-            return this.global().isEntityFrozen(player)
-        }
-        return false
+        return this.minigame.effects.isTickFrozen(player)
     }
 
     private fun updateStateToClients() {
@@ -226,4 +268,8 @@ public class MinigameTickRateManager(
         //     }
         // }
     }
-}
\ No newline at end of file
+
+    private companion object {
+        private val IDS = AtomicInteger()
+    }
+}
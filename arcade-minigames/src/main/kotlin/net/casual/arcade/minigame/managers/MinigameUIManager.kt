@@ -7,7 +7,6 @@ package net.casual.arcade.minigame.managers
 import it.unimi.dsi.fastutil.objects.ReferenceArrayList
 import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet
 import net.casual.arcade.events.ListenerRegistry.Companion.register
-import net.casual.arcade.events.server.player.PlayerClientboundPacketEvent
 import net.casual.arcade.minigame.Minigame
 import net.casual.arcade.minigame.events.MinigameAddPlayerEvent
 import net.casual.arcade.minigame.events.MinigameRemovePlayerEvent
@@ -69,11 +68,9 @@ public class MinigameUIManager(
             this.sidebar?.removePlayer(player)
             this.display?.removePlayer(player)
         }
-        this.minigame.events.register<PlayerClientboundPacketEvent> { event ->
-            val packet = event.packet
-            if (packet is ClientboundPlayerInfoUpdatePacket) {
-                event.packet = this.display?.replacePlayerInfoUpdatePacket(event.player, packet) ?: event.packet
-            }
+        this.minigame.events.registerPacket<ClientboundPlayerInfoUpdatePacket> { event ->
+            val packet = event.packet as ClientboundPlayerInfoUpdatePacket
+            event.packet = this.display?.replacePlayerInfoUpdatePacket(event.player, packet) ?: event.packet
         }
     }
 
@@ -197,8 +194,11 @@ public class MinigameUIManager(
         this.display = null
     }
 
-    internal fun tick(server: MinecraftServer) {
+    internal fun tick(server: MinecraftServer, deferring: Boolean) {
         for (tickable in this.tickables.toList()) {
+            if (deferring && tickable.isDeferrable()) {
+                continue
+            }
             if (!this.minigame.paused || tickable.shouldTickWhenPaused()) {
                 tickable.tick(server)
             }
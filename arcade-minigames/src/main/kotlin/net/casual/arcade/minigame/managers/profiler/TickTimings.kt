@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.minigame.managers.profiler
+
+import kotlin.math.ceil
+
+/**
+ * This class keeps track of the timings of a profiled
+ * section over a rolling window of ticks.
+ *
+ * All durations are in nanoseconds.
+ *
+ * @param window The number of ticks to keep the timings for.
+ * @see net.casual.arcade.minigame.managers.MinigameProfiler
+ */
+public class TickTimings(
+    public val window: Int = DEFAULT_WINDOW
+) {
+    private val samples = LongArray(this.window)
+    private var index = 0
+    private var count = 0
+
+    /**
+     * The duration of the most recently recorded tick.
+     */
+    public var last: Long = 0
+        private set
+
+    /**
+     * The number of samples currently in the window.
+     */
+    public val size: Int
+        get() = this.count
+
+    init {
+        require(this.window > 0) { "Window must be positive" }
+    }
+
+    /**
+     * Records the duration of a tick.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public fun record(nanos: Long) {
+        this.last = nanos
+        this.samples[this.index] = nanos
+        this.index = (this.index + 1) % this.window
+        if (this.count < this.window) {
+            this.count++
+        }
+    }
+
+    /**
+     * Calculates the average duration over the window.
+     *
+     * @return The average duration.
+     */
+    public fun average(): Double {
+        if (this.count == 0) {
+            return 0.0
+        }
+        var total = 0L
+        for (i in 0 until this.count) {
+            total += this.samples[i]
+        }
+        return total.toDouble() / this.count
+    }
+
+    /**
+     * Calculates the maximum duration over the window.
+     *
+     * @return The maximum duration.
+     */
+    public fun max(): Long {
+        var max = 0L
+        for (i in 0 until this.count) {
+            max = maxOf(max, this.samples[i])
+        }
+        return max
+    }
+
+    /**
+     * Calculates the duration at a given percentile over the window.
+     *
+     * @param percentile The percentile between 0 and 1.
+     * @return The duration at the percentile.
+     */
+    public fun percentile(percentile: Double): Long {
+        if (this.count == 0) {
+            return 0
+        }
+        val sorted = this.samples.copyOf(this.count)
+        sorted.sort()
+        val rank = ceil(percentile.coerceIn(0.0, 1.0) * this.count).toInt()
+        return sorted[(rank - 1).coerceIn(0, this.count - 1)]
+    }
+
+    /**
+     * Creates a histogram of the durations over the window.
+     *
+     * Each index of the returned array is the number of samples
+     * which are less than the corresponding upper bound in
+     * [HISTOGRAM_BOUNDS], the last index is the number of samples
+     * exceeding all the bounds.
+     *
+     * @return The histogram.
+     */
+    public fun histogram(): IntArray {
+        val histogram = IntArray(HISTOGRAM_BOUNDS.size + 1)
+        for (i in 0 until this.count) {
+            val sample = this.samples[i]
+            var bucket = HISTOGRAM_BOUNDS.indexOfFirst { sample < it }
+            if (bucket == -1) {
+                bucket = HISTOGRAM_BOUNDS.size
+            }
+            histogram[bucket]++
+        }
+        return histogram
+    }
+
+    /**
+     * Clears all the recorded timings.
+     */
+    public fun clear() {
+        this.index = 0
+        this.count = 0
+        this.last = 0
+    }
+
+    public companion object {
+        /**
+         * The default number of ticks to keep timings for.
+         */
+        public const val DEFAULT_WINDOW: Int = 200
+
+        /**
+         * The upper bounds of the buckets for [histogram].
+         */
+        @JvmField
+        public val HISTOGRAM_BOUNDS: LongArray = longArrayOf(
+            50_000, 100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000, 10_000_000
+        )
+    }
+}
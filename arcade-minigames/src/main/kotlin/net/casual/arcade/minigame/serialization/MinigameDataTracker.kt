@@ -6,10 +6,16 @@ package net.casual.arcade.minigame.serialization
 
 import com.google.gson.JsonArray
 import com.google.gson.JsonObject
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonWriter
 import kotlinx.datetime.Clock
 import kotlinx.datetime.Instant
 import net.casual.arcade.minigame.Minigame
+import net.casual.arcade.minigame.stats.StatTracker
 import net.casual.arcade.utils.JsonUtils.array
+import net.casual.arcade.utils.JsonUtils.element
+import net.casual.arcade.utils.JsonUtils.forEachElement
+import net.casual.arcade.utils.JsonUtils.forEachProperty
 import net.casual.arcade.utils.JsonUtils.long
 import net.casual.arcade.utils.JsonUtils.objects
 import net.casual.arcade.utils.JsonUtils.string
@@ -111,4 +117,108 @@ public class MinigameDataTracker(
             this.players[player.uuid("uuid")] = player
         }
     }
+
+    /**
+     * Copies the data so it can be written in the same format as
+     * [serialize] with [Snapshot.write], from any thread, without
+     * creating the intermediate json tree.
+     *
+     * The player data is not deep copied, it is replaced,
+     * rather than modified, whenever a player is updated.
+     *
+     * @param withStats Whether to include each player's stats.
+     * @return The snapshot of the data.
+     */
+    internal fun snapshot(withStats: Boolean = false): Snapshot {
+        for (player in this.minigame.players) {
+            this.updatePlayer(player)
+        }
+
+        val players = ArrayList<Snapshot.Player>(this.players.size)
+        for ((uuid, data) in this.players) {
+            val stats = if (withStats) this.minigame.stats.snapshot(uuid) else null
+            players.add(Snapshot.Player(data, stats))
+        }
+        return Snapshot(
+            this.startTime.toEpochMilliseconds(),
+            this.endTime.toEpochMilliseconds(),
+            this.minigame.id.toString(),
+            this.minigame.uuid.toString(),
+            players
+        )
+    }
+
+    internal fun load(saved: SavedData) {
+        this.startTime = saved.startTime
+        this.endTime = saved.endTime
+        for (player in saved.players) {
+            this.players[player.uuid("uuid")] = player
+        }
+    }
+
+    internal class Snapshot(
+        private val startTime: Long,
+        private val endTime: Long,
+        private val id: String,
+        private val uuid: String,
+        private val players: List<Player>
+    ) {
+        fun write(writer: JsonWriter) {
+            writer.beginObject()
+            writer.name("minigame_start_ms").value(this.startTime)
+            writer.name("minigame_end_ms").value(this.endTime)
+            writer.name("id").value(this.id)
+            writer.name("uuid").value(this.uuid)
+            writer.name("players").beginArray()
+            for (player in this.players) {
+                writer.beginObject()
+                for ((key, value) in player.data.entrySet()) {
+                    writer.name(key).element(value)
+                }
+                if (player.stats != null) {
+                    writer.name("stats")
+                    player.stats.write(writer)
+                }
+                writer.endObject()
+            }
+            writer.endArray()
+            writer.endObject()
+        }
+
+        class Player(val data: JsonObject, val stats: StatTracker.Snapshot?)
+    }
+
+    internal class SavedData(
+        val startTime: Instant,
+        val endTime: Instant,
+        val players: List<JsonObject>
+    )
+
+    internal companion object {
+        /**
+         * Reads the data in the same format as [deserialize], without
+         * creating the intermediate json tree for the whole document,
+         * this does not touch any minigame state so is safe to call
+         * from any thread.
+         *
+         * @param reader The reader to read from.
+         * @return The read data, which can be loaded with [load].
+         */
+        fun read(reader: JsonReader): SavedData {
+            var startTime = Instant.DISTANT_PAST
+            var endTime = Instant.DISTANT_FUTURE
+            val players = ArrayList<JsonObject>()
+            reader.forEachProperty { name, _ ->
+                when (name) {
+                    "minigame_start_ms" -> startTime = Instant.fromEpochMilliseconds(reader.nextLong())
+                    "minigame_end_ms" -> endTime = Instant.fromEpochMilliseconds(reader.nextLong())
+                    "players" -> reader.forEachElement {
+                        players.add(reader.element().asJsonObject)
+                    }
+                    else -> reader.skipValue()
+                }
+            }
+            return SavedData(startTime, endTime, players)
+        }
+    }
 }
\ No newline at end of file
@@ -7,10 +7,13 @@ package net.casual.arcade.minigame.serialization
 import com.google.gson.JsonArray
 import com.google.gson.JsonElement
 import com.google.gson.JsonObject
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonWriter
 import com.mojang.authlib.GameProfile
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap
 import net.casual.arcade.minigame.Minigame
+import net.casual.arcade.minigame.managers.MinigameStatManager
 import net.casual.arcade.minigame.task.MinigameTaskCreationContext
 import net.casual.arcade.scheduler.task.SavableTask
 import net.casual.arcade.scheduler.task.Task
@@ -36,6 +39,7 @@ import java.io.*
 import java.nio.file.Path
 import kotlin.io.encoding.Base64
 import kotlin.io.encoding.ExperimentalEncodingApi
+import kotlin.io.path.bufferedWriter
 import kotlin.io.path.isRegularFile
 import kotlin.io.path.reader
 import kotlin.io.path.writer
@@ -46,16 +50,20 @@ public class MinigameSerializer(
     private val minigame: Minigame
 ) {
     internal fun loadFrom(path: Path) {
-        this.readAsJsonObjectInto(path.resolve("tasks.json"), this::readTasksJson)
-        this.readAsJsonObjectInto(path.resolve("players.json"), this::readPlayersJson)
-        this.readAsJsonObjectInto(path.resolve("chat_manager.json"), this.minigame.chat::deserialize)
-        this.readAsJsonArrayInto(path.resolve("settings.json"), this.minigame.settings::deserialize)
-        this.readAsJsonArrayInto(path.resolve("stats.json"), this.minigame.stats::deserialize)
-        this.readAsJsonArrayInto(path.resolve("tags.json"), this.minigame.tags::deserialize)
-        this.readAsJsonArrayInto(path.resolve("recipes.json"), this.minigame.recipes::deserialize)
-        this.readAsJsonObjectInto(path.resolve("data_tracker.json"), this.minigame.data::deserialize)
-        this.readAsJsonObjectInto(path.resolve("custom.json"), this.minigame::internalLoad)
-        this.readAsJsonObjectInto(path.resolve("minigame.json"), this::readMinigameJson)
+        this.loadFrom(readSaveFiles(path))
+    }
+
+    internal fun loadFrom(files: SaveFiles) {
+        files.readAsJsonObjectInto("tasks.json", this::readTasksJson)
+        files.readAsJsonObjectInto("players.json", this::readPlayersJson)
+        files.readAsJsonObjectInto("chat_manager.json", this.minigame.chat::deserialize)
+        files.readAsJsonArrayInto("settings.json", this.minigame.settings::deserialize)
+        files.stats?.let(this.minigame.stats::load)
+        files.readAsJsonArrayInto("tags.json", this.minigame.tags::deserialize)
+        files.readAsJsonArrayInto("recipes.json", this.minigame.recipes::deserialize)
+        files.data?.let(this.minigame.data::load)
+        files.readAsJsonObjectInto("custom.json", this.minigame::internalLoad)
+        files.readAsJsonObjectInto("minigame.json", this::readMinigameJson)
     }
 
     internal fun saveTo(path: Path) {
@@ -63,27 +71,15 @@ public class MinigameSerializer(
         this.writeAsyncAsJsonElementInto(path.resolve("players.json"), this::writePlayerJson)
         this.writeAsyncAsJsonElementInto(path.resolve("chat_manager.json"), this.minigame.chat::serialize)
         this.writeAsyncAsJsonElementInto(path.resolve("settings.json"), this.minigame.settings::serialize)
-        this.writeAsyncAsJsonElementInto(path.resolve("stats.json"), this.minigame.stats::serialize)
+        this.writeAsyncAsJsonStreamInto(path.resolve("stats.json"), this.minigame.stats.snapshot()::write)
         this.writeAsyncAsJsonElementInto(path.resolve("tags.json"), this.minigame.tags::serialize)
         this.writeAsyncAsJsonElementInto(path.resolve("recipes.json"), this.minigame.recipes::serialize)
-        this.writeAsyncAsJsonElementInto(path.resolve("data_tracker.json"), this.minigame.data::serialize)
+        this.writeAsyncAsJsonStreamInto(path.resolve("data_tracker.json"), this.minigame.data.snapshot()::write)
         this.writeAsyncAsJsonElementInto(path.resolve("custom.json"), this.minigame::internalSave)
 
         this.writeAsyncAsJsonElementInto(path.resolve("minigame.json"), this::writeMinigameJson)
     }
 
-    private inline fun readAsJsonObjectInto(path: Path, block: (JsonObject) -> Unit) {
-        if (path.isRegularFile()) {
-            block.invoke(path.reader().use(JsonUtils::decodeToJsonObject))
-        }
-    }
-
-    private inline fun readAsJsonArrayInto(path: Path, block: (JsonArray) -> Unit) {
-        if (path.isRegularFile()) {
-            block.invoke(path.reader().use(JsonUtils::decodeToJsonArray))
-        }
-    }
-
     private fun readMinigameJson(json: JsonObject) {
         val initialized = json.booleanOrDefault("initialized")
         this.minigame.started = json.booleanOrDefault("started")
@@ -168,6 +164,19 @@ public class MinigameSerializer(
         }
     }
 
+    private fun writeAsyncAsJsonStreamInto(path: Path, write: (JsonWriter) -> Unit) {
+        // The data must already be snapshotted, we stream it straight to the file off-thread
+        Util.ioPool().execute {
+            try {
+                path.bufferedWriter().use {
+                    JsonUtils.encodeStreaming(it, write)
+                }
+            } catch (e: IOException) {
+                ArcadeUtils.logger.error("Failed to write minigame data to $path", e)
+            }
+        }
+    }
+
     private fun writeMinigameJson(): JsonObject {
         val json = JsonObject()
         json.addProperty("initialized", this.minigame.initialized)
@@ -287,4 +296,68 @@ public class MinigameSerializer(
             this.definitions.clear()
         }
     }
+
+    /**
+     * The parsed contents of a minigame's save files.
+     *
+     * These can be read off the main thread with [readSaveFiles],
+     * and then later applied to the minigame with [loadFrom].
+     *
+     * The stats and data tracker files may be large, so they
+     * are streamed directly into lightweight holders rather
+     * than being parsed into a json tree.
+     */
+    internal class SaveFiles(
+        private val files: Map<String, JsonElement>,
+        val stats: MinigameStatManager.SavedStats?,
+        val data: MinigameDataTracker.SavedData?
+    ) {
+        fun readAsJsonObjectInto(name: String, block: (JsonObject) -> Unit) {
+            this.files[name]?.let { block.invoke(it.asJsonObject) }
+        }
+
+        fun readAsJsonArrayInto(name: String, block: (JsonArray) -> Unit) {
+            this.files[name]?.let { block.invoke(it.asJsonArray) }
+        }
+    }
+
+    internal companion object {
+        private val FILES = listOf(
+            "tasks.json",
+            "players.json",
+            "chat_manager.json",
+            "settings.json",
+            "tags.json",
+            "recipes.json",
+            "custom.json",
+            "minigame.json"
+        )
+
+        /**
+         * Reads and parses all the save files for a minigame, this does
+         * not touch any minigame state so is safe to call from any thread.
+         *
+         * @param path The save path of the minigame.
+         * @return The parsed save files.
+         */
+        internal fun readSaveFiles(path: Path): SaveFiles {
+            val files = HashMap<String, JsonElement>()
+            for (name in FILES) {
+                val file = path.resolve(name)
+                if (file.isRegularFile()) {
+                    files[name] = file.reader().use(JsonUtils::decodeToJsonElement)
+                }
+            }
+            val stats = readStreamed(path.resolve("stats.json")) { MinigameStatManager.read(it) }
+            val data = readStreamed(path.resolve("data_tracker.json")) { MinigameDataTracker.read(it) }
+            return SaveFiles(files, stats, data)
+        }
+
+        private fun <T> readStreamed(file: Path, reader: (JsonReader) -> T): T? {
+            if (!file.isRegularFile()) {
+                return null
+            }
+            return file.reader().use { JsonUtils.decodeStreaming(it, reader) }
+        }
+    }
 }
\ No newline at end of file
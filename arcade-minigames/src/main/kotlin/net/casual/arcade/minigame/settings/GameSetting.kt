@@ -18,7 +18,15 @@ public class GameSetting<T: Any>(
     private val serializer: Codec<T>
 ) {
     private val listeners by lazy { ArrayList<SettingListener<T>>() }
+    private val overrideListeners by lazy { ArrayList<Runnable>() }
+
     public var override: (ServerPlayer) -> T? = { null }
+        set(value) {
+            field = value
+            for (listener in this.overrideListeners) {
+                listener.run()
+            }
+        }
 
     public fun get(): T {
         return this.value
@@ -61,6 +69,15 @@ public class GameSetting<T: Any>(
         this.listeners.add(listener)
     }
 
+    /**
+     * Adds a listener which is invoked whenever the [override] is replaced.
+     *
+     * @param listener The listener to add.
+     */
+    public fun addOverrideListener(listener: Runnable) {
+        this.overrideListeners.add(listener)
+    }
+
     public fun serializeValue(): JsonElement {
         return this.serializer.encodeStart(JsonOps.INSTANCE, this.get()).orThrow
     }
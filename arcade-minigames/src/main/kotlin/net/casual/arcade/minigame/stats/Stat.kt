@@ -6,16 +6,33 @@ package net.casual.arcade.minigame.stats
 
 import com.google.gson.JsonElement
 
-public class Stat<T>(
-    public val stat: StatType<T>
+/**
+ * A view of a player's stat, the value is stored in the
+ * minigame's [StatColumn] for the [StatType].
+ *
+ * Modifying the stat is thread safe, but note that [modify]
+ * may invoke the modifier more than once under contention.
+ */
+public class Stat<T> internal constructor(
+    public val stat: StatType<T>,
+    private val column: StatColumn<T>,
+    private val index: Int
 ) {
-    public var value: T = this.stat.default
-        private set
+    public val value: T
+        get() = this.column.get(this.index)
     public var frozen: Boolean = false
 
+    /**
+     * Constructs a standalone stat which is not part of any
+     * minigame, its value is stored in its own column.
+     *
+     * @param stat The type of the stat.
+     */
+    public constructor(stat: StatType<T>): this(stat, StatColumn.of(stat), 0)
+
     public fun modify(modifier: (current: T) -> T) {
         if (!this.frozen) {
-            this.value = modifier(this.value)
+            this.column.modify(this.index, modifier)
         }
     }
 
@@ -24,20 +41,52 @@ public class Stat<T>(
     }
 
     public fun deserialize(element: JsonElement) {
-        this.value = this.stat.serializer.deserialize(element)
+        this.column.set(this.index, this.stat.serializer.deserialize(element))
+    }
+
+    internal fun snapshot(): StatValue {
+        return this.column.snapshot(this.index)
+    }
+
+    private fun add(delta: Long, fallback: (T) -> T) {
+        if (this.frozen) {
+            return
+        }
+        val column = this.column
+        if (column is NumericStatColumn) {
+            column.add(this.index, delta)
+        } else {
+            column.modify(this.index, fallback)
+        }
+    }
+
+    private fun add(delta: Double, fallback: (T) -> T) {
+        if (this.frozen) {
+            return
+        }
+        val column = this.column
+        if (column is NumericStatColumn) {
+            column.add(this.index, delta)
+        } else {
+            column.modify(this.index, fallback)
+        }
     }
 
     public companion object {
         public fun Stat<Int>.increment(delta: Int = 1) {
-            this.modify { it + delta }
+            this.add(delta.toLong()) { it + delta }
+        }
+
+        public fun Stat<Long>.increment(delta: Long = 1) {
+            this.add(delta) { it + delta }
         }
 
         public fun Stat<Float>.increment(delta: Float = 1.0F) {
-            this.modify { it + delta }
+            this.add(delta.toDouble()) { it + delta }
         }
 
         public fun Stat<Double>.increment(delta: Double = 1.0) {
-            this.modify { it + delta }
+            this.add(delta) { it + delta }
         }
     }
-}
\ No newline at end of file
+}
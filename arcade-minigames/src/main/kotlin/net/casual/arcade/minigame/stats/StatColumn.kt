@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.minigame.stats
+
+import com.google.gson.JsonElement
+import com.google.gson.stream.JsonWriter
+import net.casual.arcade.utils.JsonUtils
+import net.casual.arcade.utils.json.*
+import java.util.concurrent.atomic.AtomicLongArray
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * Stores the values of a single [StatType] for every player
+ * in a minigame, indexed by the player's [StatTracker.index].
+ *
+ * Values are stored in pages which are allocated lazily, reading
+ * an index which has not been written to returns the default value.
+ */
+internal sealed class StatColumn<T>(
+    val type: StatType<T>
+) {
+    abstract fun get(index: Int): T
+
+    abstract fun set(index: Int, value: T)
+
+    abstract fun modify(index: Int, modifier: (T) -> T)
+
+    abstract fun snapshot(index: Int): StatValue
+
+    companion object {
+        const val PAGE_BITS = 6
+        const val PAGE_SIZE = 1 shl PAGE_BITS
+        const val PAGE_MASK = PAGE_SIZE - 1
+
+        fun <T> of(type: StatType<T>): StatColumn<T> {
+            return when (val encoding = type.encoding) {
+                null -> ObjectStatColumn(type)
+                is NumericStatEncoding -> NumericStatColumn(type, encoding)
+                BooleanStatEncoding -> PrimitiveStatColumn(type, encoding)
+            }
+        }
+    }
+}
+
+/**
+ * A column for primitive stats, values are stored as raw
+ * bits in [AtomicLongArray]s so they are never boxed.
+ */
+internal open class PrimitiveStatColumn<T>(
+    type: StatType<T>,
+    private val encoding: StatEncoding
+): StatColumn<T>(type) {
+    private val default = this.encoding.encode(type.default)
+
+    @Volatile
+    private var pages = arrayOfNulls<AtomicLongArray>(4)
+
+    override fun get(index: Int): T {
+        return this.encoding.decode(this.getBits(index))
+    }
+
+    override fun set(index: Int, value: T) {
+        this.getOrCreatePage(index).set(index and PAGE_MASK, this.encoding.encode(value))
+    }
+
+    override fun modify(index: Int, modifier: (T) -> T) {
+        this.getOrCreatePage(index).updateAndGet(index and PAGE_MASK) { bits ->
+            this.encoding.encode(modifier(this.encoding.decode(bits)))
+        }
+    }
+
+    override fun snapshot(index: Int): StatValue {
+        return PrimitiveStatValue(this.encoding, this.getBits(index))
+    }
+
+    protected fun getBits(index: Int): Long {
+        val pages = this.pages
+        val page = index shr PAGE_BITS
+        if (page >= pages.size) {
+            return this.default
+        }
+        return pages[page]?.get(index and PAGE_MASK) ?: this.default
+    }
+
+    protected fun getOrCreatePage(index: Int): AtomicLongArray {
+        val page = index shr PAGE_BITS
+        val pages = this.pages
+        if (page < pages.size) {
+            val existing = pages[page]
+            if (existing != null) {
+                return existing
+            }
+        }
+        synchronized(this) {
+            var current = this.pages
+            if (page >= current.size) {
+                current = current.copyOf(maxOf(page + 1, current.size * 2))
+            }
+            val existing = current[page]
+            if (existing != null) {
+                return existing
+            }
+            val created = AtomicLongArray(PAGE_SIZE)
+            if (this.default != 0L) {
+                for (i in 0 until PAGE_SIZE) {
+                    created.set(i, this.default)
+                }
+            }
+            current[page] = created
+            this.pages = current
+            return created
+        }
+    }
+}
+
+/**
+ * A column for numeric stats, these can be incremented
+ * without locking and can be aggregated over all players.
+ */
+internal class NumericStatColumn<T>(
+    type: StatType<T>,
+    private val numeric: NumericStatEncoding
+): PrimitiveStatColumn<T>(type, numeric) {
+    fun getAsDouble(index: Int): Double {
+        return this.numeric.toDouble(this.getBits(index))
+    }
+
+    fun add(index: Int, delta: Long) {
+        when (this.numeric) {
+            NumericStatEncoding.INT, NumericStatEncoding.LONG -> {
+                this.getOrCreatePage(index).getAndAdd(index and PAGE_MASK, delta)
+            }
+            NumericStatEncoding.FLOAT, NumericStatEncoding.DOUBLE -> this.add(index, delta.toDouble())
+        }
+    }
+
+    fun add(index: Int, delta: Double) {
+        val page = this.getOrCreatePage(index)
+        val offset = index and PAGE_MASK
+        when (this.numeric) {
+            NumericStatEncoding.INT, NumericStatEncoding.LONG -> page.getAndAdd(offset, delta.toLong())
+            NumericStatEncoding.FLOAT -> page.updateAndGet(offset) { bits ->
+                (Float.fromBits(bits.toInt()) + delta.toFloat()).toRawBits().toLong()
+            }
+            NumericStatEncoding.DOUBLE -> page.updateAndGet(offset) { bits ->
+                (Double.fromBits(bits) + delta).toRawBits()
+            }
+        }
+    }
+}
+
+/**
+ * A column for stats with custom serializers, these cannot
+ * be stored as primitives so values are stored as references.
+ */
+internal class ObjectStatColumn<T>(type: StatType<T>): StatColumn<T>(type) {
+    @Volatile
+    private var pages = arrayOfNulls<AtomicReferenceArray<Any?>>(4)
+
+    override fun get(index: Int): T {
+        val pages = this.pages
+        val page = index shr PAGE_BITS
+        if (page >= pages.size) {
+            return this.type.default
+        }
+        val values = pages[page] ?: return this.type.default
+        @Suppress("UNCHECKED_CAST")
+        return values.get(index and PAGE_MASK) as T
+    }
+
+    override fun set(index: Int, value: T) {
+        this.getOrCreatePage(index).set(index and PAGE_MASK, value)
+    }
+
+    override fun modify(index: Int, modifier: (T) -> T) {
+        this.getOrCreatePage(index).updateAndGet(index and PAGE_MASK) {
+            @Suppress("UNCHECKED_CAST")
+            modifier(it as T)
+        }
+    }
+
+    override fun snapshot(index: Int): StatValue {
+        return JsonStatValue(this.type.serializer.serialize(this.get(index)))
+    }
+
+    private fun getOrCreatePage(index: Int): AtomicReferenceArray<Any?> {
+        val page = index shr PAGE_BITS
+        val pages = this.pages
+        if (page < pages.size) {
+            val existing = pages[page]
+            if (existing != null) {
+                return existing
+            }
+        }
+        synchronized(this) {
+            var current = this.pages
+            if (page >= current.size) {
+                current = current.copyOf(maxOf(page + 1, current.size * 2))
+            }
+            val existing = current[page]
+            if (existing != null) {
+                return existing
+            }
+            val created = AtomicReferenceArray<Any?>(PAGE_SIZE)
+            for (i in 0 until PAGE_SIZE) {
+                created.set(i, this.type.default)
+            }
+            current[page] = created
+            this.pages = current
+            return created
+        }
+    }
+}
+
+/**
+ * A copy of a single stat value, this does not reference
+ * the column, so it can be written from any thread.
+ */
+internal sealed interface StatValue {
+    fun write(writer: JsonWriter)
+}
+
+internal class PrimitiveStatValue(
+    private val encoding: StatEncoding,
+    private val bits: Long
+): StatValue {
+    override fun write(writer: JsonWriter) {
+        this.encoding.write(writer, this.bits)
+    }
+}
+
+internal class JsonStatValue(private val element: JsonElement): StatValue {
+    override fun write(writer: JsonWriter) {
+        JsonUtils.GSON.toJson(this.element, writer)
+    }
+}
+
+/**
+ * Determines how the values of a primitive [StatType] are stored
+ * as raw bits in a [PrimitiveStatColumn].
+ *
+ * Stats with custom serializers have no encoding, and
+ * are stored in an [ObjectStatColumn] instead.
+ */
+internal sealed interface StatEncoding {
+    fun encode(value: Any?): Long
+
+    fun <T> decode(bits: Long): T
+
+    fun write(writer: JsonWriter, bits: Long)
+
+    companion object {
+        fun of(serializer: JsonSerializer<*>): StatEncoding? {
+            return when (serializer) {
+                BooleanSerializer -> BooleanStatEncoding
+                IntSerializer -> NumericStatEncoding.INT
+                LongSerializer -> NumericStatEncoding.LONG
+                FloatSerializer -> NumericStatEncoding.FLOAT
+                DoubleSerializer -> NumericStatEncoding.DOUBLE
+                else -> null
+            }
+        }
+
+        @Suppress("UNCHECKED_CAST")
+        fun <T> cast(value: Any): T {
+            return value as T
+        }
+    }
+}
+
+internal object BooleanStatEncoding: StatEncoding {
+    override fun encode(value: Any?): Long = if (value as Boolean) 1 else 0
+    override fun <T> decode(bits: Long): T = StatEncoding.cast(bits != 0L)
+    override fun write(writer: JsonWriter, bits: Long) {
+        writer.value(bits != 0L)
+    }
+}
+
+internal enum class NumericStatEncoding: StatEncoding {
+    INT {
+        override fun encode(value: Any?): Long = (value as Int).toLong()
+        override fun <T> decode(bits: Long): T = StatEncoding.cast(bits.toInt())
+        override fun toDouble(bits: Long): Double = bits.toInt().toDouble()
+        override fun write(writer: JsonWriter, bits: Long) {
+            writer.value(bits.toInt().toLong())
+        }
+    },
+    LONG {
+        override fun encode(value: Any?): Long = value as Long
+        override fun <T> decode(bits: Long): T = StatEncoding.cast(bits)
+        override fun toDouble(bits: Long): Double = bits.toDouble()
+        override fun write(writer: JsonWriter, bits: Long) {
+            writer.value(bits)
+        }
+    },
+    FLOAT {
+        override fun encode(value: Any?): Long = (value as Float).toRawBits().toLong()
+        override fun <T> decode(bits: Long): T = StatEncoding.cast(Float.fromBits(bits.toInt()))
+        override fun toDouble(bits: Long): Double = Float.fromBits(bits.toInt()).toDouble()
+        override fun write(writer: JsonWriter, bits: Long) {
+            writer.value(Float.fromBits(bits.toInt()))
+        }
+    },
+    DOUBLE {
+        override fun encode(value: Any?): Long = (value as Double).toRawBits()
+        override fun <T> decode(bits: Long): T = StatEncoding.cast(Double.fromBits(bits))
+        override fun toDouble(bits: Long): Double = Double.fromBits(bits)
+        override fun write(writer: JsonWriter, bits: Long) {
+            writer.value(Double.fromBits(bits))
+        }
+    };
+
+    abstract fun toDouble(bits: Long): Double
+}
@@ -7,16 +7,47 @@ package net.casual.arcade.minigame.stats
 import com.google.gson.JsonArray
 import com.google.gson.JsonElement
 import com.google.gson.JsonObject
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonWriter
+import net.casual.arcade.minigame.managers.MinigameStatManager
+import net.casual.arcade.utils.JsonUtils.element
+import net.casual.arcade.utils.JsonUtils.forEachElement
+import net.casual.arcade.utils.JsonUtils.forEachProperty
 import net.casual.arcade.utils.JsonUtils.objects
 import net.casual.arcade.utils.JsonUtils.string
 import net.minecraft.resources.ResourceLocation
+import java.util.*
 import java.util.concurrent.ConcurrentHashMap
 
-public class StatTracker {
+/**
+ * Tracks the stats of a single player in a minigame.
+ *
+ * The values of the stats are not stored in the tracker, instead
+ * they are stored in the [MinigameStatManager]'s columns at
+ * this tracker's [index].
+ */
+public class StatTracker internal constructor(
+    private val manager: MinigameStatManager,
+    internal val uuid: UUID,
+    internal val index: Int
+) {
     private val unprocessed = ConcurrentHashMap<ResourceLocation, Pair<JsonElement, String>>()
     private val stats = ConcurrentHashMap<StatType<*>, Stat<*>>()
     private var frozen: Boolean = false
 
+    /**
+     * Constructs a standalone tracker which is not part of any
+     * minigame, its stats are stored in their own columns.
+     *
+     * Each standalone tracker allocates its own stat manager,
+     * trackers should instead be created by a [MinigameStatManager].
+     */
+    @Deprecated(
+        "Standalone trackers allocate their own stat manager",
+        ReplaceWith("MinigameStatManager().getOrCreateTracker(uuid)")
+    )
+    public constructor(): this(MinigameStatManager(), UUID(0, 0), 0)
+
     public fun freeze() {
         this.frozen = true
         for (stat in this.stats.values) {
@@ -37,21 +68,35 @@ public class StatTracker {
             return type.serializer.deserialize(unprocessed.first)
         }
 
-        val stat = this.stats[type] ?: return type.default
-        @Suppress("UNCHECKED_CAST")
-        return (stat as Stat<T>).value
+        if (!this.stats.containsKey(type)) {
+            return type.default
+        }
+        return this.manager.getOrCreateColumn(type).get(this.index)
     }
 
     public fun <T> getOrCreateStat(type: StatType<T>): Stat<T> {
+        val existing = this.stats[type]
+        if (existing != null && !this.unprocessed.containsKey(type.id)) {
+            @Suppress("UNCHECKED_CAST")
+            return existing as Stat<T>
+        }
+
+        @Suppress("UNCHECKED_CAST")
+        val stat = this.stats.computeIfAbsent(type) { this.createStat(type) } as Stat<T>
         this.unprocessed.remove(type.id)?.let { (data, _) ->
-            val stat = this.createStat(type)
             stat.deserialize(data)
-            this.stats[type] = stat
-            return stat
         }
+        return stat
+    }
 
-        @Suppress("UNCHECKED_CAST")
-        return this.stats.getOrPut(type) { this.createStat(type) } as Stat<T>
+    /**
+     * Checks whether this tracker has a value for the given stat type.
+     *
+     * @param type The stat type to check.
+     * @return Whether the tracker has a value for the stat.
+     */
+    public fun hasStat(type: StatType<*>): Boolean {
+        return this.stats.containsKey(type) || this.unprocessed.containsKey(type.id)
     }
 
     public fun serialize(): JsonArray {
@@ -73,6 +118,33 @@ public class StatTracker {
         return stats
     }
 
+    /**
+     * Writes the stats in the same format as [serialize], without
+     * creating the intermediate json tree.
+     *
+     * @param writer The writer to write to.
+     */
+    public fun write(writer: JsonWriter) {
+        this.snapshot().write(writer)
+    }
+
+    /**
+     * Copies the current values of the stats, the snapshot
+     * can then be written with [Snapshot.write] from any thread.
+     *
+     * @return The snapshot of the stats.
+     */
+    internal fun snapshot(): Snapshot {
+        val stats = ArrayList<SnapshotStat>(this.stats.size + this.unprocessed.size)
+        for ((type, stat) in this.stats) {
+            stats.add(SnapshotStat(type.id.toString(), stat.snapshot(), type.serializer.type()))
+        }
+        for ((type, stat) in this.unprocessed) {
+            stats.add(SnapshotStat(type.toString(), JsonStatValue(stat.first), stat.second))
+        }
+        return Snapshot(stats)
+    }
+
     public fun deserialize(stats: JsonArray) {
         for (statData in stats.objects()) {
             val location = ResourceLocation.parse(statData.string("type"))
@@ -82,7 +154,72 @@ public class StatTracker {
         }
     }
 
+    internal fun load(stats: List<SavedStat>) {
+        for (stat in stats) {
+            this.unprocessed[stat.type] = stat.value to stat.valueType
+        }
+    }
+
     private fun <T> createStat(type: StatType<T>): Stat<T> {
-        return Stat(type).also { stat -> stat.frozen = this.frozen }
+        val column = this.manager.getOrCreateColumn(type)
+        return Stat(type, column, this.index).also { stat -> stat.frozen = this.frozen }
+    }
+
+    internal class Snapshot(private val stats: List<SnapshotStat>) {
+        fun write(writer: JsonWriter) {
+            writer.beginArray()
+            for (stat in this.stats) {
+                writer.beginObject()
+                writer.name("type").value(stat.type)
+                writer.name("value")
+                stat.value.write(writer)
+                writer.name("value_type").value(stat.valueType)
+                writer.endObject()
+            }
+            writer.endArray()
+        }
+    }
+
+    internal class SnapshotStat(
+        val type: String,
+        val value: StatValue,
+        val valueType: String
+    )
+
+    internal class SavedStat(
+        val type: ResourceLocation,
+        val value: JsonElement,
+        val valueType: String
+    )
+
+    internal companion object {
+        /**
+         * Reads the stats in the same format as [deserialize], without
+         * creating the intermediate json tree, this does not touch any
+         * tracker so is safe to call from any thread.
+         *
+         * Only the values of the stats are read as json trees.
+         *
+         * @param reader The reader to read from.
+         * @return The read stats, which can be loaded with [load].
+         */
+        fun read(reader: JsonReader): List<SavedStat> {
+            val stats = ArrayList<SavedStat>()
+            reader.forEachElement {
+                var location: ResourceLocation? = null
+                var value: JsonElement? = null
+                var type: String? = null
+                reader.forEachProperty { name, _ ->
+                    when (name) {
+                        "type" -> location = ResourceLocation.parse(reader.nextString())
+                        "value" -> value = reader.element()
+                        "value_type" -> type = reader.nextString()
+                        else -> reader.skipValue()
+                    }
+                }
+                stats.add(SavedStat(requireNotNull(location), requireNotNull(value), requireNotNull(type)))
+            }
+            return stats
+        }
     }
-}
\ No newline at end of file
+}
@@ -12,6 +12,8 @@ public class StatType<T>(
     public val default: T,
     public val serializer: JsonSerializer<T>
 ) {
+    internal val encoding: StatEncoding? = StatEncoding.of(this.serializer)
+
     public companion object {
         public fun bool(id: ResourceLocation, default: Boolean = false): StatType<Boolean> {
             return StatType(id, default, BooleanSerializer)
@@ -9,6 +9,8 @@ import com.mojang.brigadier.exceptions.DynamicCommandExceptionType
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet
 import net.casual.arcade.events.EventListener
 import net.casual.arcade.events.GlobalEventHandler
+import net.casual.arcade.events.InjectedListenerProvider
+import net.casual.arcade.events.ListenerProvider
 import net.casual.arcade.events.ListenerRegistry.Companion.register
 import net.casual.arcade.events.common.Event
 import net.casual.arcade.events.server.level.LevelEvent
@@ -24,6 +26,7 @@ import net.casual.arcade.minigame.annotation.MinigameEventListener
 import net.casual.arcade.minigame.events.MinigameEvent
 import net.casual.arcade.minigame.extensions.LevelMinigameExtension
 import net.casual.arcade.minigame.extensions.PlayerMinigameExtension
+import net.casual.arcade.minigame.managers.MinigameEventHandler
 import net.casual.arcade.minigame.managers.MinigameTickRateManager
 import net.casual.arcade.minigame.phase.Phase
 import net.casual.arcade.minigame.settings.GameSetting
@@ -47,6 +50,7 @@ import org.jetbrains.annotations.ApiStatus.Internal
 import java.lang.invoke.MethodHandles
 import java.lang.reflect.Method
 import java.lang.reflect.Modifier
+import java.util.function.Consumer
 import java.util.function.Predicate
 
 public object MinigameUtils {
@@ -208,29 +212,35 @@ public object MinigameUtils {
         }
 
         // This allows us to inject listener providers
-        GlobalEventHandler.Server.addInjectedProvider { event, consumer ->
-            if (event is ExtensionEvent) {
-                return@addInjectedProvider
-            }
-            val minigames = ObjectOpenHashSet<Minigame>(3)
-            if (event is PlayerEvent) {
-                val minigame = event.player.getMinigame()
-                if (minigame != null) {
-                    minigames.add(minigame)
+        GlobalEventHandler.Server.addInjectedProvider(object: InjectedListenerProvider {
+            override fun injectListenerProviders(event: Event, consumer: Consumer<ListenerProvider>) {
+                if (event is ExtensionEvent) {
+                    return
+                }
+                val minigames = ObjectOpenHashSet<Minigame>(3)
+                if (event is PlayerEvent) {
+                    val minigame = event.player.getMinigame()
+                    if (minigame != null) {
+                        minigames.add(minigame)
+                    }
+                }
+                if (event is LocatedLevelEvent) {
+                    minigames.addAll(event.level.getMinigames(event.pos))
+                } else if (event is LevelEvent) {
+                    minigames.addAll(event.level.getMinigames())
+                }
+                if (event is MinigameEvent) {
+                    minigames.add(event.minigame)
+                }
+                for (minigame in minigames) {
+                    consumer.accept(minigame.events.getInjectedProvider())
                 }
             }
-            if (event is LocatedLevelEvent) {
-                minigames.addAll(event.level.getMinigames(event.pos))
-            } else if (event is LevelEvent) {
-                minigames.addAll(event.level.getMinigames())
-            }
-            if (event is MinigameEvent) {
-                minigames.add(event.minigame)
-            }
-            for (minigame in minigames) {
-                consumer.accept(minigame.events.getInjectedProvider())
+
+            override fun mayInjectFor(type: Class<out Event>): Boolean {
+                return MinigameEventHandler.isInjectable(type)
             }
-        }
+        })
     }
 
     private fun parseMinigameEventMethod(
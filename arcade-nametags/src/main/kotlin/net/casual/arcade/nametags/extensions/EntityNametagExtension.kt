@@ -9,6 +9,7 @@ import eu.pb4.polymer.virtualentity.api.VirtualEntityUtils
 import eu.pb4.polymer.virtualentity.api.attachment.EntityAttachment
 import net.casual.arcade.events.GlobalEventHandler
 import net.casual.arcade.events.ListenerRegistry.Companion.register
+import net.casual.arcade.events.server.network.ClientboundPacketListeners
 import net.casual.arcade.events.server.player.PlayerClientboundPacketEvent
 import net.casual.arcade.events.server.player.PlayerClientboundPacketEvent.Companion.replacePacket
 import net.casual.arcade.events.server.player.PlayerPoseEvent
@@ -23,10 +24,8 @@ import net.casual.arcade.nametags.virtual.NametagElement
 import net.casual.arcade.nametags.virtual.NametagElementHolder
 import net.casual.arcade.utils.asClientGamePacket
 import net.casual.arcade.utils.impl.DelayedInvokers
-import net.casual.arcade.utils.modify
 import net.minecraft.network.protocol.Packet
 import net.minecraft.network.protocol.game.ClientGamePacketListener
-import net.minecraft.network.protocol.game.ClientboundBundlePacket
 import net.minecraft.network.protocol.game.ClientboundSetPassengersPacket
 import net.minecraft.server.level.ServerPlayer
 import net.minecraft.world.entity.Entity
@@ -95,9 +94,7 @@ public class EntityNametagExtension(entity: Entity): EntityExtension(entity) {
             GlobalEventHandler.Server.register<EntityExtensionEvent> { event ->
                 event.addExtension(::EntityNametagExtension)
             }
-            GlobalEventHandler.Server.register<PlayerClientboundPacketEvent> { event ->
-                event.replacePacket(::updatePacket)
-            }
+            ClientboundPacketListeners.register<ClientboundSetPassengersPacket>(listener = ::onPassengersPacket)
             GlobalEventHandler.Server.register<PlayerPoseEvent> { (player, previous, updated) ->
                 if (previous != updated) {
                     if (previous == Pose.CROUCHING) {
@@ -109,10 +106,19 @@ public class EntityNametagExtension(entity: Entity): EntityExtension(entity) {
             }
         }
 
-        private fun updatePacket(player: ServerPlayer, packet: Packet<*>): Packet<ClientGamePacketListener> {
-            if (packet is ClientboundBundlePacket) {
-                return packet.modify(player, this::updatePacket)
+        private fun onPassengersPacket(event: PlayerClientboundPacketEvent) {
+            val (player, packet) = event
+            val server = player.level().server
+            if (server.isSameThread) {
+                event.replacePacket(::updatePacket)
+            } else {
+                // Looking up the vehicle isn't thread safe, so we send the packet again from the server thread
+                event.cancel()
+                server.execute { player.connection.send(packet) }
             }
+        }
+
+        private fun updatePacket(player: ServerPlayer, packet: Packet<*>): Packet<ClientGamePacketListener> {
             if (packet !is ClientboundSetPassengersPacket) {
                 return packet.asClientGamePacket()
             }
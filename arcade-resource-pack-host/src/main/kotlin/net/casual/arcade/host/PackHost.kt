@@ -48,6 +48,22 @@ public abstract class PackHost {
         return HostedPackRef(future) { this.get(pack.name) }
     }
 
+    /**
+     * Adds a pack which is still being created, for example,
+     * one that is being built off-thread.
+     *
+     * @param name The name of the pack.
+     * @param pack The future pack.
+     * @return The reference to the hosted pack.
+     */
+    public fun add(name: String, pack: CompletableFuture<out ReadablePack>): HostedPackRef {
+        val future = pack.thenComposeAsync({ readable ->
+            this.packs[readable.name] = readable
+            this.hostPack(readable)
+        }, this.executor)
+        return HostedPackRef(future) { this.get(name) }
+    }
+
     public fun add(provider: PackProvider) {
         this.providers.add(provider)
     }
@@ -96,7 +112,7 @@ public abstract class PackHost {
     private fun hostPack(pack: ReadablePack): CompletableFuture<HostedPack> {
         return this.async {
             @Suppress("DEPRECATION")
-            val hash = Hashing.sha1().hashBytes(pack.stream().use(InputStream::readBytes)).toString()
+            val hash = pack.hash() ?: Hashing.sha1().hashBytes(pack.stream().use(InputStream::readBytes)).toString()
 
             val hosted = HostedPack(pack, this.createUrl(pack.name), hash)
             this.hosted[pack.name] = hosted
@@ -8,7 +8,10 @@ import java.io.InputStream
 import java.nio.file.Path
 import kotlin.io.path.*
 
-public class PathPack(private val path: Path): ReadablePack {
+public class PathPack @JvmOverloads constructor(
+    private val path: Path,
+    private val hash: String? = null
+): ReadablePack {
     override val name: String
         get() = this.path.nameWithoutExtension
 
@@ -23,4 +26,8 @@ public class PathPack(private val path: Path): ReadablePack {
     override fun length(): Long {
         return this.path.fileSize()
     }
+
+    override fun hash(): String? {
+        return this.hash
+    }
 }
\ No newline at end of file
@@ -46,6 +46,16 @@ public interface ReadablePack {
         return 0
     }
 
+    /**
+     * This gets the SHA-1 hash of the [ReadablePack] if it is already known.
+     * If this returns null then the pack will be read to compute its hash.
+     *
+     * @return The SHA-1 hash of the pack, or null if not known.
+     */
+    public fun hash(): String? {
+        return null
+    }
+
     public companion object {
         /**
          * Creates a single use [ReadablePack] with a given [name] and [stream].
@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.resources.creator
+
+import com.google.common.hash.HashCode
+import com.google.common.hash.Hashing
+import com.google.common.hash.HashingOutputStream
+import com.google.common.util.concurrent.ThreadFactoryBuilder
+import java.io.BufferedOutputStream
+import java.io.ByteArrayOutputStream
+import java.io.IOException
+import java.io.OutputStream
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardCopyOption
+import java.nio.file.StandardOpenOption
+import java.nio.file.attribute.FileTime
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Semaphore
+import java.util.concurrent.atomic.AtomicLong
+import java.util.zip.CRC32
+import java.util.zip.Deflater
+import kotlin.io.path.deleteIfExists
+import kotlin.io.path.fileSize
+import kotlin.io.path.getLastModifiedTime
+import kotlin.io.path.moveTo
+import kotlin.io.path.outputStream
+
+/**
+ * Writes resource pack zips, re-using the compressed entries
+ * from the previous write for any files whose contents haven't changed.
+ *
+ * Only the metadata of each entry is kept in memory, unchanged entries
+ * are copied directly from the previous zip on disk, and changed files
+ * are compressed in parallel as they are added to a [Build] and then
+ * spooled to a temporary file until the zip is written.
+ *
+ * The zip is hashed while it's being written, so the resulting
+ * hash can be handed directly to the pack host.
+ *
+ * The output is deterministic, entries are sorted by their
+ * path and have no timestamps.
+ */
+internal class IncrementalPackWriter {
+    private var previous: Map<String, Entry> = mapOf()
+    private var previousZip: WrittenZip? = null
+
+    /**
+     * Begins a new build, files should be added to the build
+     * as they are created, and then the build should be written.
+     *
+     * @param directory The directory to spool compressed files in.
+     * @return The build, which must be closed.
+     */
+    @Synchronized
+    fun begin(directory: Path): Build {
+        val zip = this.previousZip
+        // If the previous zip was modified or deleted we can't copy from it
+        if (zip == null || !zip.isUnchanged()) {
+            return Build(directory, mapOf(), null)
+        }
+        return Build(directory, this.previous, zip.path)
+    }
+
+    @Synchronized
+    private fun written(output: Path, entries: List<Entry>, offsets: LongArray) {
+        val previous = HashMap<String, Entry>(entries.size)
+        for ((i, entry) in entries.withIndex()) {
+            val offset = offsets[i] + LOCAL_HEADER_SIZE + entry.path.encodeToByteArray().size
+            previous[entry.path] = entry.copied(offset)
+        }
+        this.previous = previous
+        this.previousZip = WrittenZip(output, output.fileSize(), output.getLastModifiedTime())
+    }
+
+    inner class Build internal constructor(
+        directory: Path,
+        private val previous: Map<String, Entry>,
+        private val previousPath: Path?
+    ): AutoCloseable {
+        private val entries = ConcurrentHashMap<String, CompletableFuture<Entry>>()
+        private val spool = FileChannel.open(
+            Files.createTempFile(directory, ".pack", ".spool"),
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.DELETE_ON_CLOSE
+        )
+        private val spooled = AtomicLong()
+        // Limits how many uncompressed files are held in memory at once
+        private val permits = Semaphore(MAX_PENDING_FILES)
+
+        /**
+         * Adds a file to the build, the file is compressed off-thread
+         * unless it is unchanged since the previous build.
+         *
+         * @param path The path of the file in the zip.
+         * @param bytes The contents of the file.
+         */
+        fun add(path: String, bytes: ByteArray) {
+            this.permits.acquireUninterruptibly()
+            val future = CompletableFuture.supplyAsync({ this.process(path, bytes) }, compressor)
+            future.whenComplete { _, _ -> this.permits.release() }
+            this.entries[path] = future
+        }
+
+        fun contains(path: String): Boolean {
+            return this.entries.containsKey(path)
+        }
+
+        fun retain(paths: Set<String>) {
+            this.entries.keys.retainAll(paths)
+        }
+
+        /**
+         * Writes all the added files to a zip at the given [output].
+         *
+         * @param output The output path of the zip.
+         * @return The SHA-1 hash of the written zip.
+         */
+        fun write(output: Path): String {
+            val entries = this.entries.values.map(CompletableFuture<Entry>::join).sortedBy(Entry::path)
+            if (entries.size >= 0xFFFF) {
+                throw IllegalStateException("Resource pack has too many files to zip")
+            }
+
+            val previous = if (entries.any(Entry::copied)) {
+                FileChannel.open(requireNotNull(this.previousPath), StandardOpenOption.READ)
+            } else null
+
+            val temporary = output.resolveSibling(".${output.fileName}.tmp")
+            @Suppress("DEPRECATION")
+            val stream = HashingOutputStream(Hashing.sha1(), BufferedOutputStream(temporary.outputStream()))
+            try {
+                val offsets = previous.use {
+                    stream.use { this.writeZip(ZipWriter(it), entries, previous) }
+                }
+                temporary.moveTo(output, StandardCopyOption.REPLACE_EXISTING)
+                this@IncrementalPackWriter.written(output, entries, offsets)
+            } finally {
+                temporary.deleteIfExists()
+            }
+            return stream.hash().toString()
+        }
+
+        override fun close() {
+            this.spool.close()
+        }
+
+        private fun process(path: String, bytes: ByteArray): Entry {
+            val hash = Hashing.murmur3_128().hashBytes(bytes)
+            val previous = this.previous[path]
+            if (previous != null && previous.hash == hash && previous.size == bytes.size) {
+                return previous
+            }
+
+            val crc = CRC32()
+            crc.update(bytes)
+
+            val deflater = Deflater(Deflater.DEFAULT_COMPRESSION, true)
+            try {
+                deflater.setInput(bytes)
+                deflater.finish()
+                val compressed = ByteArrayOutputStream(bytes.size / 2 + 64)
+                val buffer = ByteArray(8192)
+                while (!deflater.finished()) {
+                    val count = deflater.deflate(buffer)
+                    compressed.write(buffer, 0, count)
+                }
+                if (compressed.size() >= bytes.size) {
+                    return this.spool(path, hash, crc.value, bytes.size, STORED, bytes)
+                }
+                return this.spool(path, hash, crc.value, bytes.size, DEFLATED, compressed.toByteArray())
+            } finally {
+                deflater.end()
+            }
+        }
+
+        private fun spool(path: String, hash: HashCode, crc: Long, size: Int, method: Int, data: ByteArray): Entry {
+            val offset = this.spooled.getAndAdd(data.size.toLong())
+            val buffer = ByteBuffer.wrap(data)
+            while (buffer.hasRemaining()) {
+                this.spool.write(buffer, offset + buffer.position())
+            }
+            return Entry(path, hash, crc, size, method, data.size.toLong(), false, offset)
+        }
+
+        private fun writeZip(writer: ZipWriter, entries: List<Entry>, previous: FileChannel?): LongArray {
+            val offsets = LongArray(entries.size)
+            val buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE)
+            for ((i, entry) in entries.withIndex()) {
+                offsets[i] = writer.written
+                val name = entry.path.encodeToByteArray()
+                writer.int(LOCAL_HEADER)
+                writer.header(entry, name.size)
+                writer.bytes(name)
+                val source = if (entry.copied) requireNotNull(previous) else this.spool
+                writer.copy(source, entry.offset, entry.compressedSize, buffer)
+            }
+            val directory = writer.written
+            for ((i, entry) in entries.withIndex()) {
+                val name = entry.path.encodeToByteArray()
+                writer.int(CENTRAL_HEADER)
+                writer.short(VERSION)
+                writer.header(entry, name.size)
+                writer.short(0) // Comment length
+                writer.short(0) // Disk number
+                writer.short(0) // Internal attributes
+                writer.int(0) // External attributes
+                writer.int(offsets[i])
+                writer.bytes(name)
+            }
+            val size = writer.written - directory
+            if (directory > 0xFFFFFFFFL) {
+                throw IllegalStateException("Resource pack is too large to zip")
+            }
+            writer.int(END_OF_DIRECTORY)
+            writer.short(0) // Disk number
+            writer.short(0) // Directory disk number
+            writer.short(entries.size)
+            writer.short(entries.size)
+            writer.int(size)
+            writer.int(directory)
+            writer.short(0) // Comment length
+            return offsets
+        }
+    }
+
+    /**
+     * The metadata of a zip entry, the compressed data is
+     * either in the build's spool file, or if [copied], in the
+     * previously written zip, at the given [offset].
+     */
+    internal class Entry(
+        val path: String,
+        val hash: HashCode,
+        val crc: Long,
+        val size: Int,
+        val method: Int,
+        val compressedSize: Long,
+        val copied: Boolean,
+        val offset: Long
+    ) {
+        fun copied(offset: Long): Entry {
+            return Entry(this.path, this.hash, this.crc, this.size, this.method, this.compressedSize, true, offset)
+        }
+    }
+
+    private class WrittenZip(val path: Path, val size: Long, val modified: FileTime) {
+        fun isUnchanged(): Boolean {
+            return try {
+                Files.exists(this.path) && this.path.fileSize() == this.size && this.path.getLastModifiedTime() == this.modified
+            } catch (e: IOException) {
+                false
+            }
+        }
+    }
+
+    private class ZipWriter(private val stream: OutputStream) {
+        var written = 0L
+            private set
+
+        fun header(entry: Entry, nameLength: Int) {
+            this.short(VERSION)
+            this.short(UTF8_FLAG)
+            this.short(entry.method)
+            this.short(0) // Time
+            this.short(DOS_EPOCH)
+            this.int(entry.crc)
+            this.int(entry.compressedSize)
+            this.int(entry.size.toLong())
+            this.short(nameLength)
+            this.short(0) // Extra length
+        }
+
+        fun short(value: Int) {
+            this.stream.write(value and 0xFF)
+            this.stream.write((value shr 8) and 0xFF)
+            this.written += 2
+        }
+
+        fun int(value: Long) {
+            this.short((value and 0xFFFF).toInt())
+            this.short(((value shr 16) and 0xFFFF).toInt())
+        }
+
+        fun bytes(bytes: ByteArray) {
+            this.stream.write(bytes)
+            this.written += bytes.size
+        }
+
+        fun copy(channel: FileChannel, position: Long, size: Long, buffer: ByteBuffer) {
+            var copied = 0L
+            while (copied < size) {
+                buffer.clear()
+                buffer.limit(minOf(buffer.capacity().toLong(), size - copied).toInt())
+                val read = channel.read(buffer, position + copied)
+                if (read < 0) {
+                    throw IOException("Unexpected end of resource pack data")
+                }
+                this.stream.write(buffer.array(), 0, read)
+                this.written += read
+                copied += read
+            }
+        }
+    }
+
+    private companion object {
+        const val LOCAL_HEADER = 0x04034b50L
+        const val CENTRAL_HEADER = 0x02014b50L
+        const val END_OF_DIRECTORY = 0x06054b50L
+        const val LOCAL_HEADER_SIZE = 30
+
+        const val VERSION = 20
+        const val UTF8_FLAG = 1 shl 11
+        const val STORED = 0
+        const val DEFLATED = 8
+        // 1980-01-01, the earliest date zips can represent
+        const val DOS_EPOCH = (1 shl 5) or 1
+
+        const val COPY_BUFFER_SIZE = 64 * 1024
+
+        val MAX_PENDING_FILES = Runtime.getRuntime().availableProcessors() * 4
+
+        val compressor: ExecutorService = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            ThreadFactoryBuilder().setNameFormat("resource-pack-compressor-%d").setDaemon(true).build()
+        )
+    }
+}
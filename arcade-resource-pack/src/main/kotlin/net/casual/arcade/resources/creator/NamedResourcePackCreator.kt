@@ -4,9 +4,17 @@
  */
 package net.casual.arcade.resources.creator
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder
 import eu.pb4.polymer.resourcepack.api.ResourcePackCreator
+import net.casual.arcade.host.pack.PathPack
+import java.nio.file.Files
 import java.nio.file.Path
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.zip.ZipFile
 import kotlin.io.path.createDirectories
+import kotlin.io.path.deleteIfExists
 import kotlin.io.path.exists
 import kotlin.io.path.isDirectory
 
@@ -14,6 +22,28 @@ public class NamedResourcePackCreator private constructor(
     private val name: String,
     private val creator: ResourcePackCreator = ResourcePackCreator.create()
 ) {
+    private val writer = IncrementalPackWriter()
+    @Volatile
+    private var building: IncrementalPackWriter.Build? = null
+
+    init {
+        // We capture the files as Polymer writes them, after its pre-finish tasks have
+        // run, the pack.mcmeta has been generated, and its write converters applied.
+        // Polymer is then given empty files, so it doesn't compress anything itself.
+        // Each file is handed straight to the writer, so we never hold the whole pack.
+        this.creator.afterInitialCreationEvent.register { builder ->
+            builder.addPreFinishTask { finishing ->
+                finishing.addWriteConverter { path, bytes ->
+                    val building = this.building
+                    if (building == null) bytes else {
+                        building.add(path, bytes)
+                        EMPTY
+                    }
+                }
+            }
+        }
+    }
+
     public fun zippedName(): String {
         return if (this.name.endsWith(".zip")) this.name else "${this.name}.zip"
     }
@@ -22,15 +52,90 @@ public class NamedResourcePackCreator private constructor(
         return this.creator
     }
 
-    public fun buildTo(path: Path) {
+    /**
+     * Builds the resource pack into the given directory.
+     *
+     * Only files that have changed since the previous build
+     * are re-compressed, see [buildToAsync] to build off-thread.
+     *
+     * @param path The directory to build the pack in.
+     * @return The built pack.
+     */
+    public fun buildTo(path: Path): PathPack {
+        return this.build(path)
+    }
+
+    /**
+     * Builds the resource pack into the given directory off-thread.
+     *
+     * Only files that have changed since the previous build
+     * are re-compressed, and the compression is done in parallel.
+     * The returned pack already knows its hash, so it can be
+     * passed straight to a pack host.
+     *
+     * @param path The directory to build the pack in.
+     * @return The future built pack.
+     */
+    public fun buildToAsync(path: Path): CompletableFuture<PathPack> {
+        return CompletableFuture.supplyAsync({ this.build(path) }, builder)
+    }
+
+    @Synchronized
+    private fun build(path: Path): PathPack {
         if (path.exists() && !path.isDirectory()) {
             throw IllegalArgumentException("Must specify directory when building NamedResourcePack")
         }
         path.createDirectories()
-        this.creator.build(path.resolve(this.zippedName()))
+
+        // Polymer has no way to skip writing its own zip, so we write it to a staging
+        // file, all of its entries are empty as we've captured their contents
+        val staging = Files.createTempFile(path, ".${this.name}", ".staging")
+        try {
+            this.writer.begin(path).use { building ->
+                try {
+                    this.building = building
+                    if (!this.creator.build(staging)) {
+                        throw IllegalStateException("Failed to build resource pack ${this.name}")
+                    }
+                } finally {
+                    this.building = null
+                }
+                this.reconcile(staging, building)
+
+                val output = path.resolve(this.zippedName())
+                val hash = building.write(output)
+                return PathPack(output, hash)
+            }
+        } finally {
+            staging.deleteIfExists()
+        }
+    }
+
+    private fun reconcile(staging: Path, building: IncrementalPackWriter.Build) {
+        // Our zip must have exactly the same files as Polymer's, if a file was written
+        // without passing through our converter, its contents are still in the staging zip
+        ZipFile(staging.toFile()).use { zip ->
+            val names = HashSet<String>()
+            for (entry in zip.entries()) {
+                if (entry.isDirectory) {
+                    continue
+                }
+                names.add(entry.name)
+                if (!building.contains(entry.name)) {
+                    building.add(entry.name, zip.getInputStream(entry).use { it.readBytes() })
+                }
+            }
+            building.retain(names)
+        }
     }
 
     public companion object {
+        private val EMPTY = ByteArray(0)
+
+        private val builder: ExecutorService = Executors.newSingleThreadExecutor(
+            ThreadFactoryBuilder().setNameFormat("resource-pack-builder-%d").setDaemon(true).build()
+        )
+
         public fun named(name: String, block: ResourcePackCreator.() -> Unit = {}): NamedResourcePackCreator {
             val creator = ResourcePackCreator.create()
             creator.block()
@@ -74,6 +74,11 @@ internal class PlayerPackExtension(private val uuid: UUID): Extension {
         this.addFuture(packet.id)
     }
 
+    internal fun onPackQueued(info: PackInfo) {
+        this.packs[info.uuid] = PackState(info, PackStatus.QUEUED)
+        this.addFuture(info.uuid)
+    }
+
     internal fun onPopPack(packet: ClientboundResourcePackPopPacket) {
         val uuid = packet.id
         if (uuid.isEmpty) {
@@ -8,13 +8,16 @@ import com.google.common.collect.HashMultimap
 import com.google.gson.JsonObject
 import com.mojang.serialization.JsonOps
 import it.unimi.dsi.fastutil.ints.Int2FloatLinkedOpenHashMap
+import it.unimi.dsi.fastutil.ints.Int2FloatOpenHashMap
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap
 import net.casual.arcade.resources.font.providers.BitmapFontProvider
 import net.casual.arcade.resources.font.providers.FontProvider
 import net.casual.arcade.resources.font.providers.SpaceFontProvider
 import net.casual.arcade.resources.lang.LanguageEntry
+import net.casual.arcade.utils.ComponentUtils
 import net.casual.arcade.utils.ComponentUtils.withFont
 import net.casual.arcade.utils.JsonUtils
+import net.casual.arcade.utils.string.GlyphWidths
 import net.minecraft.network.chat.Component
 import net.minecraft.resources.ResourceLocation
 import org.apache.commons.lang3.mutable.MutableInt
@@ -28,10 +31,14 @@ public abstract class FontResources(
     private val providers = ArrayList<FontProvider>()
     private val spaces by lazy(::createSpaces)
 
+    init {
+        ComponentUtils.registerGlyphWidths(this.id, this::createGlyphWidths)
+    }
+
     protected fun space(advance: Float): Component {
         val codepoint = this.nextCodepoint()
         this.spaces[codepoint] = advance
-        return Component.literal(Character.toString(codepoint)).withFont(id)
+        return ComponentUtils.intern(Component.literal(Character.toString(codepoint)).withFont(id))
     }
 
     protected fun bitmap(
@@ -42,7 +49,7 @@ public abstract class FontResources(
         val codepoint = this.nextCodepointAsString()
         val bitmap = BitmapFontProvider(texture, ascent, height, listOf(codepoint))
         this.providers.add(bitmap)
-        return Component.literal(codepoint).withFont(id)
+        return ComponentUtils.intern(Component.literal(codepoint).withFont(id))
     }
 
     protected fun translatable(
@@ -50,7 +57,7 @@ public abstract class FontResources(
         translations: Translatable.() -> Unit
     ): Component {
         Translatable(this, key).translations()
-        return Component.translatable(key).withFont(id)
+        return ComponentUtils.intern(Component.translatable(key).withFont(id))
     }
 
     protected fun at(path: String): ResourceLocation {
@@ -84,6 +91,17 @@ public abstract class FontResources(
         return Character.toString(this.nextCodepoint())
     }
 
+    private fun createGlyphWidths(): GlyphWidths {
+        // We only know the advances of spaces, bitmaps depend on their textures
+        val widths = Int2FloatOpenHashMap()
+        for (provider in this.providers) {
+            if (provider is SpaceFontProvider) {
+                widths.putAll(provider.advances)
+            }
+        }
+        return GlyphWidths.of(widths, 6.0F)
+    }
+
     private fun createSpaces(): Int2FloatLinkedOpenHashMap {
         val spaces = Int2FloatLinkedOpenHashMap()
         this.providers.add(SpaceFontProvider(spaces))
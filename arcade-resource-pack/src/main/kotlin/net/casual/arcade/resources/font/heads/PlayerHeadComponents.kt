@@ -5,13 +5,11 @@
 package net.casual.arcade.resources.font.heads
 
 import com.google.common.cache.CacheBuilder
-import com.mojang.authlib.GameProfile
 import it.unimi.dsi.fastutil.ints.Int2ObjectFunction
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap
 import net.casual.arcade.resources.ArcadeResourcePacks
 import net.casual.arcade.resources.font.pixel.PixelFontResources
 import net.casual.arcade.resources.font.spacing.SpacingFontResources
-import net.casual.arcade.utils.ArcadeUtils
 import net.casual.arcade.utils.ComponentUtils.color
 import net.casual.arcade.utils.ComponentUtils.wrap
 import net.casual.arcade.utils.PlayerUtils.levelServer
@@ -21,23 +19,27 @@ import net.minecraft.network.chat.Component
 import net.minecraft.network.chat.MutableComponent
 import net.minecraft.server.MinecraftServer
 import net.minecraft.server.level.ServerPlayer
-import java.awt.Color
 import java.io.IOException
-import java.net.URI
-import java.util.*
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.TimeUnit
 import javax.imageio.ImageIO
 import kotlin.io.path.inputStream
 
+/**
+ * Creates components which display the heads of players
+ * using the pixel font, see [PixelFontResources].
+ *
+ * Skins are fetched on a dedicated pool and persisted to disk,
+ * keyed by their texture hash, so each skin is only ever downloaded
+ * once; the generated components are kept in an LRU cache bounded
+ * by [maxCachedHeads].
+ */
 public class PlayerHeadComponents(private val shift: Int) {
-    private val uuidCache = CacheBuilder.newBuilder()
-        .expireAfterAccess(1, TimeUnit.MINUTES)
-        .build<UUID, CompletableFuture<Component>>()
+    private val heads = PlayerHeadTextures.LruCache<String, Component> { maxCachedHeads }
 
     private val nameCache = CacheBuilder.newBuilder()
-        .expireAfterAccess(1, TimeUnit.MINUTES)
+        .expireAfterWrite(10, TimeUnit.MINUTES)
         .build<String, CompletableFuture<Component>>()
 
     private val invalidNames = ConcurrentHashMap.newKeySet<String>()
@@ -60,25 +62,9 @@ public class PlayerHeadComponents(private val shift: Int) {
         player: ServerPlayer,
         force: Boolean = false
     ): CompletableFuture<Component> {
-        val uuid = player.uuid
-        val name = player.scoreboardName
-        val existing = this.uuidCache.getIfPresent(uuid)
-        if (!force && existing != null) {
-            return existing
-        }
-        val skinUrl = this.getSkinUrl(player.gameProfile, player.levelServer)
+        val skinUrl = PlayerHeadTextures.getSkinUrl(player.gameProfile, player.levelServer)
             ?: return CompletableFuture.completedFuture(this.steve)
-        val future = CompletableFuture.supplyAsync {
-            val component = generateHead(skinUrl)
-            if (existing != null) {
-                this.cacheHead(name, uuid, CompletableFuture.completedFuture(component))
-            }
-            component
-        }
-        if (existing == null) {
-            this.cacheHead(name, uuid, future)
-        }
-        return future
+        return this.getHeadFromUrl(skinUrl, force)
     }
 
     public fun getHead(
@@ -89,10 +75,6 @@ public class PlayerHeadComponents(private val shift: Int) {
         if (this.invalidNames.contains(name)) {
             return CompletableFuture.completedFuture(this.steve)
         }
-        val existing = this.nameCache.getIfPresent(name)
-        if (!force && existing != null) {
-            return existing
-        }
 
         val player = server.player(name)
         if (player != null) {
@@ -100,90 +82,97 @@ public class PlayerHeadComponents(private val shift: Int) {
             return getHead(player, force)
         }
 
-        val future = server.profileCache!!.getAsync(name).thenApply { optional ->
+        val existing = this.nameCache.getIfPresent(name)
+        if (!force && existing != null) {
+            return existing
+        }
+
+        val future = server.profileCache!!.getAsync(name).thenApplyAsync({ optional ->
             if (optional.isEmpty) {
                 invalidNames.add(name)
-                return@thenApply this.steve
+                return@thenApplyAsync null
             }
-            val uuid = optional.get().id
-            // If they're in the uuid cache, they should've been
-            // in the nameCache too, but we might as well check...
-            val cached = this.uuidCache.getIfPresent(uuid)
-            if (!force && cached != null) {
-                return@thenApply cached.join()
-            }
-
             // The previous profile didn't have textures
-            val profile = server.sessionService.fetchProfile(uuid, true)?.profile
-                ?: return@thenApply this.steve
-            val skinUrl = this.getSkinUrl(profile, server) ?: return@thenApply this.steve
-            val component = generateHead(skinUrl)
-            if (existing != null) {
-                this.cacheHead(name, uuid, CompletableFuture.completedFuture(component))
-            }
-            component
-        }
-        if (existing == null) {
-            this.nameCache.put(name, future)
+            val profile = server.sessionService.fetchProfile(optional.get().id, true)?.profile
+                ?: return@thenApplyAsync null
+            PlayerHeadTextures.getSkinUrl(profile, server)
+        }, PlayerHeadTextures.executor).thenCompose { skinUrl ->
+            if (skinUrl == null) CompletableFuture.completedFuture(this.steve) else this.getHeadFromUrl(skinUrl, force)
         }
+        this.nameCache.put(name, future)
         return future
     }
 
+    /**
+     * Fetches the heads of all the given players in the background,
+     * this should be used before displaying many heads at once.
+     *
+     * @param players The players to fetch the heads for.
+     * @return A future which completes once all heads have been fetched.
+     */
+    public fun prefetch(players: Collection<ServerPlayer>): CompletableFuture<Void> {
+        return CompletableFuture.allOf(*players.map { this.getHead(it) }.toTypedArray())
+    }
 
-    public fun invalidateHead(player: ServerPlayer) {
-        this.uuidCache.invalidate(player.uuid)
-        this.nameCache.invalidate(player.scoreboardName)
+    /**
+     * Fetches the heads of all the given player names in the background,
+     * this should be used before displaying many heads at once.
+     *
+     * @param names The names of the players to fetch the heads for.
+     * @param server The server instance.
+     * @return A future which completes once all heads have been fetched.
+     */
+    public fun prefetch(
+        names: Collection<String>,
+        server: MinecraftServer = ServerUtils.getServer()
+    ): CompletableFuture<Void> {
+        return CompletableFuture.allOf(*names.map { this.getHead(it, server) }.toTypedArray())
     }
 
-    private fun cacheHead(name: String, uuid: UUID, future: CompletableFuture<Component>) {
-        this.nameCache.put(name, future)
-        this.uuidCache.put(uuid, future)
+    public fun invalidateHead(player: ServerPlayer) {
+        val skinUrl = PlayerHeadTextures.getSkinUrl(player.gameProfile, player.levelServer)
+        if (skinUrl != null) {
+            this.heads.remove(PlayerHeadTextures.getHash(skinUrl))
+        }
+        this.nameCache.invalidate(player.scoreboardName)
     }
 
-    private fun getSkinUrl(profile: GameProfile, server: MinecraftServer): String? {
-        return server.sessionService.getTextures(profile).skin?.url
+    private fun getHeadFromUrl(skinUrl: String, force: Boolean): CompletableFuture<Component> {
+        val hash = PlayerHeadTextures.getHash(skinUrl)
+        if (!force) {
+            val cached = this.heads.get(hash)
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached)
+            }
+        }
+        return PlayerHeadTextures.getFace(skinUrl, force).thenApply { face ->
+            if (face == null) {
+                return@thenApply this.steve
+            }
+            val component = this.convertImageToComponent { x, y -> face[y * 8 + x] }
+            this.heads.put(hash, component)
+            component
+        }
     }
 
     private fun createSteveHead(): Component {
         try {
             val path = ArcadeResourcePacks.path("packs/PlayerHeads/steve.png")
             val image = path.inputStream().use(ImageIO::read)
-            val transparent = Color(0, true)
-            return this.convertImageToComponent(
-                { x, y -> Color(image.getRGB(x, y), true) },
-                { _, _ -> transparent }
-            )
+            return this.convertImageToComponent(image::getRGB)
         } catch (e: IOException) {
             return Component.empty()
         }
     }
 
-    private fun generateHead(skinTextureUrl: String): Component {
-        try {
-            val image = ImageIO.read(URI(skinTextureUrl).toURL())
-            return this.convertImageToComponent(
-                { x, y -> Color(image.getRGB(x + 8, y + 8), true) },
-                { x, y -> Color(image.getRGB(x + 40, y + 8), true) }
-            )
-        } catch (e: IOException) {
-            ArcadeUtils.logger.error("Failed to generate head texture from url: $skinTextureUrl", e)
-            return this.steve
-        }
-    }
-
-    private inline fun convertImageToComponent(
-        baseFetcher: (x: Int, y: Int) -> Color,
-        hatFetcher: (x: Int, y: Int) -> Color
-    ): MutableComponent {
+    private inline fun convertImageToComponent(fetcher: (x: Int, y: Int) -> Int): MutableComponent {
         val component = Component.empty()
         for (y in 0..7) {
             for (x in 0..7) {
                 if (x != 0) {
                     component.append(SpacingFontResources.spaced(-1))
                 }
-                val hat = hatFetcher.invoke(x, y)
-                val base = baseFetcher.invoke(x, y)
-                val pixel = PixelFontResources.pixel(8 - y + this.shift).wrap().color(base.overlayWith(hat).rgb)
+                val pixel = PixelFontResources.pixel(8 - y + this.shift).wrap().color(fetcher.invoke(x, y))
                 component.append(pixel)
             }
             if (y != 7) {
@@ -193,21 +182,15 @@ public class PlayerHeadComponents(private val shift: Int) {
         return component
     }
 
-    private fun Color.overlayWith(overlay: Color): Color {
-        val alphaRatio = overlay.alpha.toFloat() / 255
-        val invAlphaRatio = 1 - alphaRatio
-
-        val r = (overlay.red * alphaRatio + this.red * invAlphaRatio).toInt()
-        val g = (overlay.green * alphaRatio + this.green * invAlphaRatio).toInt()
-        val b = (overlay.blue * alphaRatio + this.blue * invAlphaRatio).toInt()
-        val a = maxOf(overlay.alpha, this.alpha)
-
-        return Color(r, g, b, a)
-    }
-
     public companion object {
         private val components = Int2ObjectOpenHashMap<PlayerHeadComponents>()
 
+        /**
+         * The maximum number of heads kept in memory for each shift.
+         */
+        @JvmStatic
+        public var maxCachedHeads: Int = 512
+
         public fun get(shift: Int = 0): PlayerHeadComponents {
             return this.components.computeIfAbsent(shift, Int2ObjectFunction(::PlayerHeadComponents))
         }
@@ -223,5 +206,9 @@ public class PlayerHeadComponents(private val shift: Int) {
         ): Component {
             return this.get(shift).getHeadOrDefault(name, server)
         }
+
+        public fun prefetch(players: Collection<ServerPlayer>, shift: Int = 0): CompletableFuture<Void> {
+            return this.get(shift).prefetch(players)
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.resources.font.heads
+
+import com.google.common.cache.CacheBuilder
+import com.google.common.hash.Hashing
+import com.google.common.util.concurrent.ThreadFactoryBuilder
+import com.mojang.authlib.GameProfile
+import net.casual.arcade.utils.ArcadeUtils
+import net.minecraft.server.MinecraftServer
+import java.awt.Color
+import java.awt.image.BufferedImage
+import java.io.IOException
+import java.net.URI
+import java.nio.file.Path
+import java.util.*
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import javax.imageio.ImageIO
+import kotlin.io.path.createDirectories
+import kotlin.io.path.exists
+import kotlin.io.path.inputStream
+import kotlin.io.path.outputStream
+
+/**
+ * Fetches and stores the faces of player skins, keyed by the
+ * hash of their skin texture.
+ *
+ * Faces are persisted to disk, so each skin only ever needs
+ * to be downloaded once; the most recently used faces are
+ * also kept in memory.
+ * Concurrent requests for the same skin share a single fetch.
+ */
+internal object PlayerHeadTextures {
+    private val HASH = Regex("[0-9a-fA-F]+")
+
+    private val directory by lazy {
+        ArcadeUtils.path.resolve("heads").apply { createDirectories() }
+    }
+
+    private val faces = LruCache<String, IntArray> { PlayerHeadComponents.maxCachedHeads }
+    private val pending = ConcurrentHashMap<String, Fetch>()
+
+    private val urls = CacheBuilder.newBuilder()
+        .weakKeys()
+        .build<GameProfile, Optional<String>>()
+
+    val executor: ExecutorService = Executors.newFixedThreadPool(
+        4, ThreadFactoryBuilder().setNameFormat("player-head-fetcher-%d").setDaemon(true).build()
+    )
+
+    fun getSkinUrl(profile: GameProfile, server: MinecraftServer): String? {
+        return this.urls.get(profile) {
+            Optional.ofNullable(server.sessionService.getTextures(profile).skin?.url)
+        }.orElse(null)
+    }
+
+    fun getHash(url: String): String {
+        val hash = url.substringAfterLast('/')
+        if (HASH.matches(hash)) {
+            return hash
+        }
+        return Hashing.sha256().hashString(url, Charsets.UTF_8).toString()
+    }
+
+    /**
+     * Gets the 8x8 face of the skin at the given url, with
+     * its hat layer already applied.
+     *
+     * @param url The url of the skin texture.
+     * @param refresh Whether to ignore any stored face and download it again.
+     * @return The future ARGB pixels of the face, or null if it failed.
+     */
+    fun getFace(url: String, refresh: Boolean = false): CompletableFuture<IntArray?> {
+        val hash = this.getHash(url)
+        if (!refresh) {
+            val cached = this.faces.get(hash)
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached)
+            }
+        }
+        // A refresh must not join a fetch which may just read the stored face
+        val created = Fetch(CompletableFuture(), refresh)
+        val fetch = this.pending.compute(hash) { _, existing ->
+            if (existing != null && (existing.refresh || !refresh)) existing else created
+        }!!
+        if (fetch !== created) {
+            return fetch.future
+        }
+        // The callback is attached outside the compute, as it may run immediately
+        CompletableFuture.supplyAsync({ this.loadFace(hash, url, refresh) }, this.executor).whenComplete { face, throwable ->
+            if (face != null) {
+                this.faces.put(hash, face)
+            }
+            this.pending.remove(hash, created)
+            if (throwable != null) {
+                created.future.completeExceptionally(throwable)
+            } else {
+                created.future.complete(face)
+            }
+        }
+        return created.future
+    }
+
+    private fun loadFace(hash: String, url: String, refresh: Boolean): IntArray? {
+        val path = this.directory.resolve("$hash.png")
+        if (!refresh && path.exists()) {
+            try {
+                val image = path.inputStream().use(ImageIO::read)
+                if (image != null && image.width == 8 && image.height == 8) {
+                    return image.getRGB(0, 0, 8, 8, null, 0, 8)
+                }
+            } catch (e: IOException) {
+                ArcadeUtils.logger.warn("Failed to read stored head {}, downloading again", hash, e)
+            }
+        }
+        val face = this.downloadFace(url) ?: return null
+        this.storeFace(path, face)
+        return face
+    }
+
+    private fun downloadFace(url: String): IntArray? {
+        try {
+            val image = ImageIO.read(URI(url).toURL()) ?: return null
+            val face = IntArray(64)
+            for (y in 0..7) {
+                for (x in 0..7) {
+                    val base = Color(image.getRGB(x + 8, y + 8), true)
+                    val hat = Color(image.getRGB(x + 40, y + 8), true)
+                    face[y * 8 + x] = base.overlayWith(hat).rgb
+                }
+            }
+            return face
+        } catch (e: Exception) {
+            ArcadeUtils.logger.error("Failed to generate head texture from url: $url", e)
+            return null
+        }
+    }
+
+    private fun storeFace(path: Path, face: IntArray) {
+        try {
+            val image = BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB)
+            image.setRGB(0, 0, 8, 8, face, 0, 8)
+            path.outputStream().use { ImageIO.write(image, "png", it) }
+        } catch (e: IOException) {
+            ArcadeUtils.logger.warn("Failed to store head texture", e)
+        }
+    }
+
+    private fun Color.overlayWith(overlay: Color): Color {
+        val alphaRatio = overlay.alpha.toFloat() / 255
+        val invAlphaRatio = 1 - alphaRatio
+
+        val r = (overlay.red * alphaRatio + this.red * invAlphaRatio).toInt()
+        val g = (overlay.green * alphaRatio + this.green * invAlphaRatio).toInt()
+        val b = (overlay.blue * alphaRatio + this.blue * invAlphaRatio).toInt()
+        val a = maxOf(overlay.alpha, this.alpha)
+
+        return Color(r, g, b, a)
+    }
+
+    private class Fetch(val future: CompletableFuture<IntArray?>, val refresh: Boolean)
+
+    /**
+     * A simple thread-safe least recently used cache.
+     */
+    class LruCache<K, V>(private val limit: () -> Int) {
+        private val map = object: LinkedHashMap<K, V>(16, 0.75F, true) {
+            override fun removeEldestEntry(eldest: MutableMap.MutableEntry<K, V>): Boolean {
+                return this.size > limit.invoke()
+            }
+        }
+
+        fun get(key: K): V? {
+            synchronized(this.map) {
+                return this.map[key]
+            }
+        }
+
+        fun put(key: K, value: V) {
+            synchronized(this.map) {
+                this.map[key] = value
+            }
+        }
+
+        fun remove(key: K) {
+            synchronized(this.map) {
+                this.map.remove(key)
+            }
+        }
+    }
+}
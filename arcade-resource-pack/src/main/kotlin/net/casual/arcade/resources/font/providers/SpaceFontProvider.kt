@@ -10,7 +10,7 @@ import com.mojang.serialization.codecs.RecordCodecBuilder
 import net.minecraft.util.ExtraCodecs
 
 public class SpaceFontProvider(
-    private val advances: Map<Int, Float>
+    public val advances: Map<Int, Float>
 ): FontProvider {
     override val type: FontProviderType
         get() = FontProviderType.Space
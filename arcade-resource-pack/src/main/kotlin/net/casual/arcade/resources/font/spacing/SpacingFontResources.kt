@@ -5,8 +5,10 @@
 package net.casual.arcade.resources.font.spacing
 
 import com.google.common.cache.CacheBuilder
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap
 import net.casual.arcade.resources.font.FontPUA
 import net.casual.arcade.resources.font.IndexedFontResources
+import net.casual.arcade.utils.ComponentUtils
 import net.casual.arcade.utils.ResourceUtils
 import net.minecraft.network.chat.Component
 import java.util.*
@@ -18,10 +20,13 @@ import kotlin.time.toJavaDuration
 
 public object SpacingFontResources: IndexedFontResources(ResourceUtils.arcade("spacing"), FontPUA.Plane15) {
     private const val SIZE = 4096
+    private const val MAX_COMPOSED = 1024
     private val INT_SIZE_RANGE = -SIZE..SIZE
 
     private val floats = TreeMap<Float, Component>()
 
+    // Composed integer advances are cached separately to avoid boxing
+    private val integers = Int2ObjectOpenHashMap<Component>()
     private val cache = CacheBuilder.newBuilder()
         .expireAfterAccess(1.minutes.toJavaDuration())
         .build<Float, Component>()
@@ -60,8 +65,7 @@ public object SpacingFontResources: IndexedFontResources(ResourceUtils.arcade("s
         if (advance in INT_SIZE_RANGE) {
             return spaced(advance)
         }
-        val advanceAsFloat = advance.toFloat()
-        val initial = this.cache.getIfPresent(advanceAsFloat)
+        val initial = synchronized(this.integers) { this.integers.get(advance) }
         if (initial != null) {
             return initial
         }
@@ -75,7 +79,13 @@ public object SpacingFontResources: IndexedFontResources(ResourceUtils.arcade("s
             remaining -= SIZE
         } while (remaining > SIZE)
         composed.append(this.spaced(remaining * advance.sign))
-        this.cache.put(advanceAsFloat, composed)
+        ComponentUtils.intern(composed)
+        synchronized(this.integers) {
+            if (this.integers.size >= MAX_COMPOSED) {
+                this.integers.clear()
+            }
+            this.integers.put(advance, composed)
+        }
         return composed
     }
 
@@ -106,7 +116,7 @@ public object SpacingFontResources: IndexedFontResources(ResourceUtils.arcade("s
             component.append(closest.value)
             remaining -= closest.key * sign
         }
-        this.cache.put(advance, component)
+        this.cache.put(advance, ComponentUtils.intern(component))
         return component
     }
 }
\ No newline at end of file
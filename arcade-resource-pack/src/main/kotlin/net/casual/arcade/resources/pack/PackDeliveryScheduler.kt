@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.resources.pack
+
+import net.casual.arcade.events.GlobalEventHandler
+import net.casual.arcade.events.ListenerRegistry.Companion.register
+import net.casual.arcade.events.server.ServerTickEvent
+import net.casual.arcade.events.server.player.PlayerDisconnectEvent
+import net.casual.arcade.resources.event.PackStatusEvent
+import net.casual.arcade.resources.utils.ResourcePackUtils
+import net.casual.arcade.resources.utils.ResourcePackUtils.getAllPackStates
+import net.casual.arcade.resources.utils.ResourcePackUtils.toPushPacket
+import net.casual.arcade.utils.PlayerUtils.levelServer
+import net.casual.arcade.utils.PlayerUtils.player
+import net.casual.arcade.utils.TimeUtils.Minutes
+import net.casual.arcade.utils.time.MinecraftTimeDuration
+import net.minecraft.server.MinecraftServer
+import net.minecraft.server.level.ServerPlayer
+import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Schedules the delivery of resource packs to players.
+ *
+ * Every pack sent with [ResourcePackUtils.sendResourcePack] goes
+ * through this scheduler, by default there are no limits and packs
+ * are pushed to players immediately.
+ *
+ * When a large number of players are sent a pack at once, every
+ * client will start downloading from the pack host at the same time.
+ * Setting [maxConcurrentDeliveries] and [maxBytesPerSecond] will
+ * queue any packs that exceed these limits, they will then be pushed
+ * as previous deliveries complete.
+ *
+ * Queued packs have the [PackStatus.QUEUED] status, and a [PackStatusEvent]
+ * is broadcast when a pack is queued, the pack futures and
+ * [ResourcePackUtils.afterPacksLoad] will also wait for queued packs.
+ */
+public object PackDeliveryScheduler {
+    private val queue = PriorityQueue<Delivery>()
+    private val active = HashMap<DeliveryKey, Int>()
+    private val sizes = ConcurrentHashMap<UUID, Long>()
+
+    private var tokens = 0.0
+    private var ticks = 0
+    private var sequence = 0L
+
+    private var delivered = 0
+    private var failed = 0
+
+    /**
+     * The maximum number of packs that may be downloading at once,
+     * any value less than or equal to 0 means there is no limit.
+     */
+    @JvmStatic
+    public var maxConcurrentDeliveries: Int = 0
+
+    /**
+     * The maximum number of bytes per second that players may be
+     * sent, any value less than or equal to 0 means there is no limit.
+     *
+     * This is estimated from the size of the packs that have been
+     * pushed, see [setPackSize]; packs with unknown sizes are
+     * not limited by this.
+     */
+    @JvmStatic
+    public var maxBytesPerSecond: Long = 0
+
+    /**
+     * How long a delivery may take before its slot is given
+     * to the next queued delivery.
+     */
+    @JvmStatic
+    public var deliveryTimeout: MinecraftTimeDuration = 1.Minutes
+
+    /**
+     * Determines the priority of a delivery, deliveries with
+     * a lower priority will be pushed first.
+     *
+     * By default, players with the fewest loaded packs go first.
+     */
+    @JvmStatic
+    public var prioritizer: (ServerPlayer, PackInfo) -> Int = { player, _ ->
+        player.getAllPackStates().count { it.hasLoadedPack() }
+    }
+
+    /**
+     * Sets the size of a given pack, this is used to limit
+     * the bandwidth of deliveries.
+     *
+     * Packs converted with [ResourcePackUtils.toPackInfo] have
+     * their size set automatically.
+     *
+     * @param pack The pack to set the size of.
+     * @param bytes The size of the pack in bytes.
+     */
+    @JvmStatic
+    public fun setPackSize(pack: PackInfo, bytes: Long) {
+        this.sizes[pack.uuid] = bytes
+    }
+
+    /**
+     * Gets the number of deliveries waiting to be pushed.
+     *
+     * @return The number of queued deliveries.
+     */
+    @JvmStatic
+    @Synchronized
+    public fun getQueuedCount(): Int {
+        return this.queue.size
+    }
+
+    /**
+     * Gets the number of deliveries that have been pushed
+     * and that the players are still loading.
+     *
+     * @return The number of active deliveries.
+     */
+    @JvmStatic
+    @Synchronized
+    public fun getActiveCount(): Int {
+        return this.active.size
+    }
+
+    /**
+     * Gets the number of deliveries that players have
+     * successfully loaded.
+     *
+     * @return The number of successful deliveries.
+     */
+    @JvmStatic
+    @Synchronized
+    public fun getDeliveredCount(): Int {
+        return this.delivered
+    }
+
+    /**
+     * Gets the number of deliveries that players have
+     * declined, failed to load, or timed out.
+     *
+     * @return The number of unsuccessful deliveries.
+     */
+    @JvmStatic
+    @Synchronized
+    public fun getFailedCount(): Int {
+        return this.failed
+    }
+
+    /**
+     * Gets the position of a player's pack in the queue.
+     *
+     * @param player The player.
+     * @param pack The pack.
+     * @return The position in the queue starting at 1, or -1 if it's not queued.
+     */
+    @JvmStatic
+    @Synchronized
+    public fun getQueuePosition(player: ServerPlayer, pack: PackInfo): Int {
+        val key = DeliveryKey(player.uuid, pack.uuid)
+        val delivery = this.queue.find { it.key == key } ?: return -1
+        return this.queue.count { it < delivery } + 1
+    }
+
+    @Synchronized
+    internal fun schedule(player: ServerPlayer, pack: PackInfo) {
+        val key = DeliveryKey(player.uuid, pack.uuid)
+        this.queue.removeIf { it.key == key }
+        if (this.active.containsKey(key) || (this.queue.isEmpty() && this.canStart(pack))) {
+            this.start(player, key, pack)
+            return
+        }
+
+        val priority = this.prioritizer.invoke(player, pack)
+        this.queue.add(Delivery(key, pack, priority, this.sequence++))
+        ResourcePackUtils.getExtension(player.uuid).onPackQueued(pack)
+        val server = player.levelServer
+        GlobalEventHandler.Server.broadcast(PackStatusEvent(server, player.gameProfile, pack.uuid, PackStatus.QUEUED))
+    }
+
+    @Synchronized
+    internal fun cancel(player: ServerPlayer, pack: PackInfo) {
+        val key = DeliveryKey(player.uuid, pack.uuid)
+        if (this.queue.removeIf { it.key == key }) {
+            val server = player.levelServer
+            GlobalEventHandler.Server.broadcast(PackStatusEvent(server, player.gameProfile, pack.uuid, PackStatus.REMOVED))
+        }
+    }
+
+    private fun canStart(pack: PackInfo): Boolean {
+        val concurrent = this.maxConcurrentDeliveries
+        if (concurrent > 0 && this.active.size >= concurrent) {
+            return false
+        }
+        val bandwidth = this.maxBytesPerSecond
+        if (bandwidth > 0) {
+            // Packs larger than the limit can be started once we've built up a full second
+            val size = this.sizes[pack.uuid] ?: 0L
+            return this.tokens >= minOf(size, bandwidth)
+        }
+        return true
+    }
+
+    private fun start(player: ServerPlayer, key: DeliveryKey, pack: PackInfo) {
+        if (this.maxBytesPerSecond > 0) {
+            this.tokens -= this.sizes[pack.uuid] ?: 0L
+        }
+        this.active[key] = this.ticks
+        player.connection.send(pack.toPushPacket(player.connection))
+    }
+
+    @Synchronized
+    private fun onServerTick(server: MinecraftServer) {
+        this.ticks++
+        val bandwidth = this.maxBytesPerSecond
+        if (bandwidth > 0) {
+            this.tokens = minOf(this.tokens + bandwidth / 20.0, bandwidth.toDouble())
+        }
+
+        val timeout = this.deliveryTimeout.ticks
+        val iterator = this.active.values.iterator()
+        while (iterator.hasNext()) {
+            if (this.ticks - iterator.next() > timeout) {
+                iterator.remove()
+                this.failed++
+            }
+        }
+
+        while (this.queue.isNotEmpty() && this.canStart(this.queue.peek().pack)) {
+            val delivery = this.queue.poll()
+            val player = server.player(delivery.key.player) ?: continue
+            this.start(player, delivery.key, delivery.pack)
+        }
+    }
+
+    @Synchronized
+    private fun onPackStatus(player: UUID, pack: UUID, status: PackStatus) {
+        if (status.isLoadingPack()) {
+            return
+        }
+        if (this.active.remove(DeliveryKey(player, pack)) != null) {
+            if (status.hasLoadedPack()) {
+                this.delivered++
+            } else {
+                this.failed++
+            }
+        }
+    }
+
+    @Synchronized
+    private fun onDisconnect(player: UUID) {
+        this.queue.removeIf { it.key.player == player }
+        this.active.keys.removeIf { it.player == player }
+    }
+
+    internal fun registerEvents() {
+        GlobalEventHandler.Server.register<ServerTickEvent>(phase = ServerTickEvent.PHASE_POST) { (server) ->
+            this.onServerTick(server)
+        }
+        GlobalEventHandler.Server.register<PackStatusEvent> { (_, profile, uuid, status) ->
+            this.onPackStatus(profile.id, uuid, status)
+        }
+        GlobalEventHandler.Server.register<PlayerDisconnectEvent> { (_, profile) ->
+            this.onDisconnect(profile.id)
+        }
+    }
+
+    private data class DeliveryKey(val player: UUID, val pack: UUID)
+
+    private class Delivery(
+        val key: DeliveryKey,
+        val pack: PackInfo,
+        val priority: Int,
+        val sequence: Long
+    ): Comparable<Delivery> {
+        override fun compareTo(other: Delivery): Int {
+            val comparison = this.priority.compareTo(other.priority)
+            return if (comparison != 0) comparison else this.sequence.compareTo(other.sequence)
+        }
+    }
+}
\ No newline at end of file
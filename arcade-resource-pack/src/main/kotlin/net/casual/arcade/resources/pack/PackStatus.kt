@@ -14,6 +14,14 @@ import net.minecraft.network.protocol.common.ServerboundResourcePackPacket.Actio
  * resource pack status.
  */
 public enum class PackStatus {
+    /**
+     * The server-side resource pack is queued by the
+     * [PackDeliveryScheduler] and hasn't been sent yet.
+     *
+     * This will be followed by [WAITING].
+     */
+    QUEUED,
+
     /**
      * Waiting for the player's response to receiving the
      * server-side resource pack request.
@@ -75,7 +83,7 @@ public enum class PackStatus {
      * @return Whether the player is loading the pack.
      */
     public fun isLoadingPack(): Boolean {
-        return this == WAITING || this == ACCEPTED
+        return this == QUEUED || this == WAITING || this == ACCEPTED
     }
 
     /**
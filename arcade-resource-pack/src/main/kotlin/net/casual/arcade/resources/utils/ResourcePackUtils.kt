@@ -9,16 +9,16 @@ import eu.pb4.polymer.resourcepack.api.ResourcePackBuilder
 import eu.pb4.polymer.resourcepack.api.ResourcePackCreator
 import net.casual.arcade.events.GlobalEventHandler
 import net.casual.arcade.events.ListenerRegistry.Companion.register
-import net.casual.arcade.events.server.network.ClientboundPacketEvent
+import net.casual.arcade.events.server.network.ClientboundPacketListeners
 import net.casual.arcade.events.server.player.PlayerDisconnectEvent
 import net.casual.arcade.events.server.player.PlayerDimensionChangeEvent
 import net.casual.arcade.host.pack.hosted.HostedPack
 import net.casual.arcade.host.PackHost
-import net.casual.arcade.host.pack.PathPack
 import net.casual.arcade.resources.creator.NamedResourcePackCreator
 import net.casual.arcade.resources.event.PackStatusEvent
 import net.casual.arcade.resources.extensions.PlayerPackExtension
 import net.casual.arcade.resources.font.FontResources
+import net.casual.arcade.resources.pack.PackDeliveryScheduler
 import net.casual.arcade.resources.pack.PackInfo
 import net.casual.arcade.resources.pack.PackState
 import net.casual.arcade.resources.pack.PackStatus
@@ -136,14 +136,18 @@ public object ResourcePackUtils {
             }
         }
 
-        this.connection.send(pack.toPushPacket(this.connection))
-        return this.resourcePacks.addFuture(pack.uuid)
+        // The future is added first, so queued packs are also waited for
+        val future = this.resourcePacks.addFuture(pack.uuid)
+        PackDeliveryScheduler.schedule(this, pack)
+        return future
     }
 
     @JvmStatic
     public fun ServerPlayer.removeResourcePack(pack: PackInfo): CompletableFuture<PackStatus> {
+        val future = this.resourcePacks.addFuture(pack.uuid)
         this.connection.send(pack.toPopPacket())
-        return this.resourcePacks.addFuture(pack.uuid)
+        PackDeliveryScheduler.cancel(this, pack)
+        return future
     }
 
     @JvmStatic
@@ -161,7 +165,9 @@ public object ResourcePackUtils {
      * @see PackInfo
      */
     public fun HostedPack.toPackInfo(required: Boolean = false, prompt: Component? = null): PackInfo {
-        return PackInfo(this.url, this.hash, required, prompt)
+        val info = PackInfo(this.url, this.hash, required, prompt)
+        PackDeliveryScheduler.setPackSize(info, this.pack.length())
+        return info
     }
 
     public fun PackHost.HostedPackRef.toPackInfo(required: Boolean = false, prompt: Component? = null): PackInfoRef {
@@ -169,8 +175,19 @@ public object ResourcePackUtils {
     }
 
     public fun PackHost.addPack(path: Path, creator: NamedResourcePackCreator): PackHost.HostedPackRef {
-        creator.buildTo(path)
-        return this.add(PathPack(path.resolve(creator.zippedName())))
+        return this.add(creator.buildTo(path))
+    }
+
+    /**
+     * Builds the [creator] off-thread and then hosts it.
+     *
+     * @param path The directory to build the pack in.
+     * @param creator The pack to build.
+     * @return The reference to the hosted pack.
+     * @see NamedResourcePackCreator.buildToAsync
+     */
+    public fun PackHost.addPackAsync(path: Path, creator: NamedResourcePackCreator): PackHost.HostedPackRef {
+        return this.add(creator.zippedName().removeSuffix(".zip"), creator.buildToAsync(path))
     }
 
     @JvmStatic
@@ -233,38 +250,27 @@ public object ResourcePackUtils {
     public fun ResourcePackCreator.addMissingItemModels(namespace: String) {
         val container = FabricLoader.getInstance().getModContainer(namespace).orElseThrow(::IllegalArgumentException)
         val assets = container.findPath("assets").orElseThrow(::FileNotFoundException)
-        this.addMissingItemModelsInternal(namespace, assets)
+        // Mod assets can't change, so we only need to walk them once
+        this.addMissingItemModelsInternal(namespace, assets, true)
     }
 
     @JvmStatic
     public fun ResourcePackCreator.addMissingItemModels(namespace: String, source: Path) {
-        this.addMissingItemModelsInternal(namespace, source.resolve("assets"))
+        this.addMissingItemModelsInternal(namespace, source.resolve("assets"), false)
     }
 
     @JvmStatic
-    private fun ResourcePackCreator.addMissingItemModelsInternal(namespace: String, assets: Path) {
-        val itemTextures = assets.resolve(namespace).resolve("textures").resolve("item")
-        val itemModels = assets.resolve(namespace).resolve("models").resolve("item")
-        val items = assets.resolve(namespace).resolve("items")
-        val itemTexturesDirectory = "$itemTextures/"
-        val itemModelsDirectory = "$itemModels/"
+    private fun ResourcePackCreator.addMissingItemModelsInternal(namespace: String, assets: Path, cache: Boolean) {
+        var cached: Map<String, ByteArray>? = null
         this.creationEvent.register { builder ->
-            if (itemTextures.isDirectory()) {
-                itemTextures.visitFileTree {
-                    onVisitFile { path, _ ->
-                        tryAddMissingItemModel(namespace, path, itemTexturesDirectory, itemModels, builder)
-                        FileVisitResult.CONTINUE
-                    }
-                }
+            val generated = cached ?: generateMissingItemModels(namespace, assets)
+            if (cache) {
+                cached = generated
             }
-            if (itemModels.isDirectory()) {
-                itemModels.visitFileTree {
-                    onVisitFile { path, _ ->
-                        tryAddMissingItemModelDefinitions(namespace, path, itemModelsDirectory, items, builder)
-                        FileVisitResult.CONTINUE
-                    }
-                }
+            for ((path, bytes) in generated) {
+                builder.addData(path, bytes)
             }
+
             val modelsPath = "assets/$namespace/models/item/"
             builder.forEachFile { path, _ ->
                 if (path.startsWith(modelsPath)) {
@@ -272,13 +278,39 @@ public object ResourcePackUtils {
                     val name = definition.substringAfterLast('/')
                     val relative = if (definition.contains('/')) definition.substringBeforeLast('/') + "/" else ""
                     if (builder.getData("assets/$namespace/items/$relative$name") == null) {
-                        tryAddMissingItemModelDefinitionRaw(namespace, relative, name.removeSuffix(".json"), builder)
+                        tryAddMissingItemModelDefinitionRaw(namespace, relative, name.removeSuffix(".json"), builder::addData)
                     }
                 }
             }
         }
     }
 
+    private fun generateMissingItemModels(namespace: String, assets: Path): Map<String, ByteArray> {
+        val itemTextures = assets.resolve(namespace).resolve("textures").resolve("item")
+        val itemModels = assets.resolve(namespace).resolve("models").resolve("item")
+        val items = assets.resolve(namespace).resolve("items")
+        val itemTexturesDirectory = "$itemTextures/"
+        val itemModelsDirectory = "$itemModels/"
+        val generated = LinkedHashMap<String, ByteArray>()
+        if (itemTextures.isDirectory()) {
+            itemTextures.visitFileTree {
+                onVisitFile { path, _ ->
+                    tryAddMissingItemModel(namespace, path, itemTexturesDirectory, itemModels, generated::put)
+                    FileVisitResult.CONTINUE
+                }
+            }
+        }
+        if (itemModels.isDirectory()) {
+            itemModels.visitFileTree {
+                onVisitFile { path, _ ->
+                    tryAddMissingItemModelDefinitions(namespace, path, itemModelsDirectory, items, generated::put)
+                    FileVisitResult.CONTINUE
+                }
+            }
+        }
+        return generated
+    }
+
     private fun mergeJsons(builder: ResourcePackBuilder, path: String, additional: JsonObject) {
         val existing = builder.getData(path)
         val json = if (existing != null) {
@@ -294,26 +326,26 @@ public object ResourcePackUtils {
         builder.addData(path, JsonUtils.GSON.toJson(json).encodeToByteArray())
     }
 
-    private fun tryAddMissingItemModelDefinitions(namespace: String, path: Path, dir: String, items: Path, builder: ResourcePackBuilder) {
+    private fun tryAddMissingItemModelDefinitions(namespace: String, path: Path, dir: String, items: Path, adder: (String, ByteArray) -> Unit) {
         val name = path.nameWithoutExtension
         val relative = (path.parent.toString() + "/").removePrefix(dir)
         if (items.resolve("$relative$name.json").notExists()) {
-            this.tryAddMissingItemModelDefinitionRaw(namespace, relative, name, builder)
+            this.tryAddMissingItemModelDefinitionRaw(namespace, relative, name, adder)
         }
     }
 
-    private fun tryAddMissingItemModelDefinitionRaw(namespace: String, relative: String, name: String, builder: ResourcePackBuilder) {
+    private fun tryAddMissingItemModelDefinitionRaw(namespace: String, relative: String, name: String, adder: (String, ByteArray) -> Unit) {
         val location = ResourceLocation.fromNamespaceAndPath(namespace, "item/$relative$name")
-        builder.addData("assets/$namespace/items/$relative$name.json", getDefaultItemModelDefinition(location))
+        adder.invoke("assets/$namespace/items/$relative$name.json", getDefaultItemModelDefinition(location))
     }
 
-    private fun tryAddMissingItemModel(namespace: String, path: Path, dir: String, models: Path, builder: ResourcePackBuilder) {
+    private fun tryAddMissingItemModel(namespace: String, path: Path, dir: String, models: Path, adder: (String, ByteArray) -> Unit) {
         val name = path.nameWithoutExtension
         val relative = (path.parent.toString() + "/").removePrefix(dir)
         val model = "$relative$name.json"
         if (models.resolve(model).notExists()) {
             val location = ResourceLocation.fromNamespaceAndPath(namespace, "item/$relative$name")
-            builder.addData("assets/$namespace/models/item/$model", getDefaultItemModel(location))
+            adder.invoke("assets/$namespace/models/item/$model", getDefaultItemModel(location))
         }
     }
 
@@ -339,7 +371,7 @@ public object ResourcePackUtils {
         """.trimIndent().encodeToByteArray()
     }
 
-    private fun getExtension(uuid: UUID): PlayerPackExtension {
+    internal fun getExtension(uuid: UUID): PlayerPackExtension {
         return universe.getOrPut(uuid) { PlayerPackExtension(uuid) }
     }
 
@@ -359,13 +391,12 @@ public object ResourcePackUtils {
         GlobalEventHandler.Server.register<PlayerDisconnectEvent> { (_, profile) ->
             universe.remove(profile.id)
         }
-        GlobalEventHandler.Server.register<ClientboundPacketEvent> { (_, profile, packet) ->
-            // This may be off thread
-            if (packet is ClientboundResourcePackPushPacket) {
-                getExtension(profile.id).onPushPack(packet)
-            } else if (packet is ClientboundResourcePackPopPacket) {
-                getExtension(profile.id).onPopPack(packet)
-            }
+        // These may be off thread
+        ClientboundPacketListeners.registerConnection<ClientboundResourcePackPushPacket> { (_, profile, packet) ->
+            getExtension(profile.id).onPushPack(packet as ClientboundResourcePackPushPacket)
+        }
+        ClientboundPacketListeners.registerConnection<ClientboundResourcePackPopPacket> { (_, profile, packet) ->
+            getExtension(profile.id).onPopPack(packet as ClientboundResourcePackPopPacket)
         }
         GlobalEventHandler.Server.register<PackStatusEvent> { (server, profile, uuid, status) ->
             getExtension(profile.id).onPackStatus(server, uuid, status)
@@ -377,5 +408,6 @@ public object ResourcePackUtils {
                 }
             }
         }
+        PackDeliveryScheduler.registerEvents()
     }
 }
\ No newline at end of file
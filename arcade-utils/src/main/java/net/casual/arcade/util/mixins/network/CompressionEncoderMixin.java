@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.util.mixins.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import net.casual.arcade.utils.network.SharedPacketEncoder;
+import net.minecraft.network.CompressionEncoder;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(CompressionEncoder.class)
+public class CompressionEncoderMixin {
+    @Shadow private int threshold;
+
+    @Inject(
+        method = "encode(Lio/netty/channel/ChannelHandlerContext;Lio/netty/buffer/ByteBuf;Lio/netty/buffer/ByteBuf;)V",
+        at = @At("HEAD"),
+        cancellable = true
+    )
+    private void onEncode(ChannelHandlerContext context, ByteBuf input, ByteBuf output, CallbackInfo ci) {
+        if (SharedPacketEncoder.compress(this.threshold, input, output)) {
+            ci.cancel();
+        }
+    }
+
+    @Inject(
+        method = "encode(Lio/netty/channel/ChannelHandlerContext;Lio/netty/buffer/ByteBuf;Lio/netty/buffer/ByteBuf;)V",
+        at = @At("TAIL")
+    )
+    private void afterEncode(ChannelHandlerContext context, ByteBuf input, ByteBuf output, CallbackInfo ci) {
+        SharedPacketEncoder.compressed(output);
+    }
+}
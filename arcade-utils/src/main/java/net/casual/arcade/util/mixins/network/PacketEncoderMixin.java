@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.util.mixins.network;
+
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.MessageToByteEncoder;
+import net.casual.arcade.utils.network.SharedPacketEncoder;
+import net.minecraft.network.PacketEncoder;
+import net.minecraft.network.PacketListener;
+import net.minecraft.network.ProtocolInfo;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.Packet;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+
+@Mixin(PacketEncoder.class)
+public abstract class PacketEncoderMixin<T extends PacketListener> extends MessageToByteEncoder<Packet<T>> {
+    @Shadow @Final private ProtocolInfo<T> protocolInfo;
+
+    @WrapOperation(
+        method = "encode(Lio/netty/channel/ChannelHandlerContext;Lnet/minecraft/network/protocol/Packet;Lio/netty/buffer/ByteBuf;)V",
+        at = @At(
+            value = "INVOKE",
+            target = "Lnet/minecraft/network/codec/StreamCodec;encode(Ljava/lang/Object;Ljava/lang/Object;)V"
+        )
+    )
+    private void onEncodePacket(
+        StreamCodec<ByteBuf, Packet<? super T>> instance,
+        Object buf,
+        Object packet,
+        Operation<Void> original
+    ) {
+        SharedPacketEncoder.encode(
+            this.protocolInfo.id(),
+            (Packet<?>) packet,
+            (ByteBuf) buf,
+            out -> original.call(instance, out, packet)
+        );
+    }
+
+    @Override
+    public void write(ChannelHandlerContext context, Object msg, ChannelPromise promise) throws Exception {
+        // The encoded bytes are passed on to the compression encoder within the
+        // write, if the connection has no compression encoder they're never used
+        try {
+            super.write(context, msg, promise);
+        } finally {
+            SharedPacketEncoder.written();
+        }
+    }
+}
@@ -4,9 +4,11 @@
  */
 package net.casual.arcade.utils
 
-import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap
+import com.google.common.collect.MapMaker
+import it.unimi.dsi.fastutil.ints.Int2FloatOpenHashMap
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap
 import net.casual.arcade.utils.ComponentUtils.ComponentGenerator
+import net.casual.arcade.utils.string.GlyphWidths
 import net.minecraft.ChatFormatting
 import net.minecraft.ChatFormatting.*
 import net.minecraft.network.chat.*
@@ -18,6 +20,9 @@ import net.minecraft.world.entity.Entity
 import net.minecraft.world.item.ItemStack
 import java.net.URI
 import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+import kotlin.math.roundToInt
 import kotlin.reflect.KProperty
 
 public object ComponentUtils {
@@ -27,7 +32,9 @@ public object ComponentUtils {
     private val formattingByColour = Int2ObjectOpenHashMap<ChatFormatting>()
     private val formattingToName: EnumMap<ChatFormatting, String>
 
-    private val charWidths = Int2IntOpenHashMap()
+    private val defaultWidths: GlyphWidths
+    private val fontWidths = ConcurrentHashMap<ResourceLocation, Lazy<GlyphWidths>>()
+    private val interned: ConcurrentMap<Component, Float> = MapMaker().weakKeys().makeMap()
 
     init {
         for (formatting in ChatFormatting.entries) {
@@ -53,34 +60,35 @@ public object ComponentUtils {
             WHITE to "White",
         )
 
-        this.charWidths.defaultReturnValue(6)
-        this.charWidths.put(32, 4)
-        this.charWidths.put(33, 2)
-        this.charWidths.put(34, 4)
-        this.charWidths.put(39, 2)
-        this.charWidths.put(40, 4)
-        this.charWidths.put(41, 4)
-        this.charWidths.put(42, 4)
-        this.charWidths.put(44, 2)
-        this.charWidths.put(46, 2)
-        this.charWidths.put(58, 2)
-        this.charWidths.put(59, 2)
-        this.charWidths.put(60, 5)
-        this.charWidths.put(62, 5)
-        this.charWidths.put(64, 7)
-        this.charWidths.put(73, 4)
-        this.charWidths.put(91, 4)
-        this.charWidths.put(93, 4)
-        this.charWidths.put(96, 3)
-        this.charWidths.put(102, 5)
-        this.charWidths.put(105, 2)
-        this.charWidths.put(107, 5)
-        this.charWidths.put(108, 3)
-        this.charWidths.put(116, 4)
-        this.charWidths.put(123, 4)
-        this.charWidths.put(124, 2)
-        this.charWidths.put(125, 4)
-        this.charWidths.put(126, 7)
+        val charWidths = Int2FloatOpenHashMap()
+        charWidths.put(32, 4.0F)
+        charWidths.put(33, 2.0F)
+        charWidths.put(34, 4.0F)
+        charWidths.put(39, 2.0F)
+        charWidths.put(40, 4.0F)
+        charWidths.put(41, 4.0F)
+        charWidths.put(42, 4.0F)
+        charWidths.put(44, 2.0F)
+        charWidths.put(46, 2.0F)
+        charWidths.put(58, 2.0F)
+        charWidths.put(59, 2.0F)
+        charWidths.put(60, 5.0F)
+        charWidths.put(62, 5.0F)
+        charWidths.put(64, 7.0F)
+        charWidths.put(73, 4.0F)
+        charWidths.put(91, 4.0F)
+        charWidths.put(93, 4.0F)
+        charWidths.put(96, 3.0F)
+        charWidths.put(102, 5.0F)
+        charWidths.put(105, 2.0F)
+        charWidths.put(107, 5.0F)
+        charWidths.put(108, 3.0F)
+        charWidths.put(116, 4.0F)
+        charWidths.put(123, 4.0F)
+        charWidths.put(124, 2.0F)
+        charWidths.put(125, 4.0F)
+        charWidths.put(126, 7.0F)
+        this.defaultWidths = GlyphWidths.of(charWidths, 6.0F)
     }
 
     public fun negativeWidthOf(component: Component): MutableComponent {
@@ -101,25 +109,94 @@ public object ComponentUtils {
         return contents.key
     }
 
+    /**
+     * Registers the glyph widths of a given font, these are
+     * used when calculating the width of components.
+     *
+     * The [widths] are only computed the first time they're needed.
+     * Any fonts that aren't registered use the default font widths.
+     *
+     * @param font The id of the font.
+     * @param widths The supplier for the font's glyph widths.
+     */
+    public fun registerGlyphWidths(font: ResourceLocation, widths: () -> GlyphWidths) {
+        this.fontWidths[font] = lazy(widths)
+        // Any previously measured widths may have used the wrong font
+        this.interned.replaceAll { _, _ -> Float.NaN }
+    }
+
+    /**
+     * Marks a component as interned, meaning its width is only
+     * calculated once and then re-used for subsequent calls to [widthOf].
+     *
+     * The interned component **must not** be mutated afterward.
+     * Interned widths are kept for as long as the component instance is reachable.
+     *
+     * @param component The component to intern.
+     * @return The given component.
+     */
+    public fun <C: Component> intern(component: C): C {
+        this.interned.putIfAbsent(component, Float.NaN)
+        return component
+    }
+
     public fun widthOf(component: Component): Int {
-        var width = 0
-        component.visit({ style, content ->
-            width += this.widthOf(content)
-            if (style.isBold) {
-                width += content.length
-            }
+        return this.preciseWidthOf(component).roundToInt()
+    }
 
-            Optional.empty<Unit>()
-        }, Style.EMPTY)
-        return width
+    public fun preciseWidthOf(component: Component): Float {
+        return this.measure(component, Style.EMPTY)
     }
 
     public fun widthOf(string: String): Int {
-        return string.sumOf(this::widthOf)
+        return this.widthOf(string, Style.EMPTY).roundToInt()
     }
 
     public fun widthOf(char: Char): Int {
-        return this.charWidths.get(char.code)
+        return this.defaultWidths.get(char.code).toInt()
+    }
+
+    private fun measure(component: Component, parent: Style): Float {
+        // Interned widths are only valid if there's no inherited style
+        val cached = if (parent.isEmpty) this.interned[component] else null
+        if (cached != null && !cached.isNaN()) {
+            return cached
+        }
+        val style = component.style.applyTo(parent)
+        var width = when (val contents = component.contents) {
+            is PlainTextContents -> this.widthOf(contents.text(), style)
+            else -> {
+                var visited = 0.0F
+                contents.visit({ inner, content ->
+                    visited += this.widthOf(content, inner)
+                    Optional.empty<Unit>()
+                }, style)
+                visited
+            }
+        }
+        for (sibling in component.siblings) {
+            width += this.measure(sibling, style)
+        }
+        if (cached != null) {
+            this.interned[component] = width
+        }
+        return width
+    }
+
+    private fun widthOf(string: String, style: Style): Float {
+        val widths = this.fontWidths[style.font]?.value ?: this.defaultWidths
+        val bold = style.isBold
+        var width = 0.0F
+        var i = 0
+        while (i < string.length) {
+            val codepoint = string.codePointAt(i)
+            width += widths.get(codepoint)
+            if (bold) {
+                width += 1.0F
+            }
+            i += Character.charCount(codepoint)
+        }
+        return width
     }
 
     @JvmStatic
@@ -5,6 +5,8 @@
 package net.casual.arcade.utils
 
 import com.google.gson.*
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonWriter
 import com.mojang.serialization.DataResult
 import com.mojang.serialization.Decoder
 import com.mojang.serialization.Encoder
@@ -14,6 +16,7 @@ import net.minecraft.Util
 import net.minecraft.nbt.*
 import java.io.InputStream
 import java.io.Reader
+import java.io.Writer
 import java.util.*
 
 public object JsonUtils {
@@ -69,6 +72,80 @@ public object JsonUtils {
         return GSON.toJsonTree(any)
     }
 
+    /**
+     * Decodes json from the given reader without building a json tree,
+     * the [block] should consume exactly one json value from the reader.
+     *
+     * @param reader The reader to read from.
+     * @param block The function to read the json value.
+     * @return The value returned by [block].
+     */
+    public inline fun <T> decodeStreaming(reader: Reader, block: (JsonReader) -> T): T {
+        return GSON.newJsonReader(reader).use(block)
+    }
+
+    /**
+     * Encodes json to the given writer without building a json tree,
+     * the [block] should write exactly one json value to the writer.
+     *
+     * @param writer The writer to write to.
+     * @param block The function to write the json value.
+     */
+    public inline fun encodeStreaming(writer: Writer, block: (JsonWriter) -> Unit) {
+        GSON.newJsonWriter(writer).use(block)
+    }
+
+    /**
+     * Reads the next value from the reader as a json tree, this
+     * can be used to read small values in an otherwise streamed document.
+     *
+     * @return The next json value.
+     */
+    public fun JsonReader.element(): JsonElement {
+        return JsonParser.parseReader(this)
+    }
+
+    /**
+     * Writes the given json tree to the writer, this can be
+     * used to write small values in an otherwise streamed document.
+     *
+     * @param element The json value to write.
+     * @return The writer.
+     */
+    public fun JsonWriter.element(element: JsonElement): JsonWriter {
+        GSON.toJson(element, this)
+        return this
+    }
+
+    /**
+     * Reads each element of the next json array, the [block]
+     * should consume exactly one json value from the reader.
+     *
+     * @param block The function to read each element.
+     */
+    public inline fun JsonReader.forEachElement(block: (JsonReader) -> Unit) {
+        this.beginArray()
+        while (this.hasNext()) {
+            block.invoke(this)
+        }
+        this.endArray()
+    }
+
+    /**
+     * Reads each property of the next json object, the [block]
+     * should consume exactly one json value from the reader,
+     * or skip it with [JsonReader.skipValue].
+     *
+     * @param block The function to read each property.
+     */
+    public inline fun JsonReader.forEachProperty(block: (String, JsonReader) -> Unit) {
+        this.beginObject()
+        while (this.hasNext()) {
+            block.invoke(this.nextName(), this)
+        }
+        this.endObject()
+    }
+
     public fun JsonObject.getWithNull(key: String): JsonElement? {
         val value = this.get(key) ?: return null
         return if (value.isJsonNull) null else value
@@ -14,6 +14,7 @@ import net.casual.arcade.utils.TimeUtils.Ticks
 import net.casual.arcade.utils.chat.PlayerFormattedChat
 import net.casual.arcade.utils.impl.Sound
 import net.casual.arcade.utils.math.location.LocationWithLevel
+import net.casual.arcade.utils.network.SharedPacketEncoder
 import net.casual.arcade.utils.time.MinecraftTimeDuration
 import net.minecraft.advancements.AdvancementHolder
 import net.minecraft.core.BlockPos
@@ -39,6 +40,7 @@ import net.minecraft.world.damagesource.DamageSource
 import net.minecraft.world.entity.Entity
 import net.minecraft.world.entity.ai.attributes.AttributeModifier
 import net.minecraft.world.entity.ai.attributes.Attributes
+import net.minecraft.world.entity.player.ChatVisiblity
 import net.minecraft.world.item.ItemStack
 import net.minecraft.world.level.ChunkPos
 import net.minecraft.world.level.GameType
@@ -59,10 +61,43 @@ public object PlayerUtils {
     public val ServerPlayer.isSurvival: Boolean
         get() = this.isGameMode(GameType.SURVIVAL)
 
+    /**
+     * Sends a packet to all the players.
+     *
+     * If the packet is encoded the same for every player, see
+     * [SharedPacketEncoder.isShareable], then it is only encoded
+     * once and shared between all the connections.
+     *
+     * @param packet The packet to broadcast.
+     */
     @JvmStatic
     public fun Iterable<ServerPlayer>.broadcast(packet: Packet<*>) {
+        val shared = SharedPacketEncoder.share(packet)
         for (player in this) {
-            player.connection.send(packet)
+            player.connection.send(shared)
+        }
+    }
+
+    /**
+     * Sends a packet to all the players, the packet is only
+     * encoded once and shared between all the connections.
+     *
+     * If a packet is rewritten for a specific player, then that
+     * player's packet is encoded normally. Only packet types which
+     * are known to be encoded the same for every player are shared,
+     * any other packets are encoded for each player,
+     * see [SharedPacketEncoder.isShareable].
+     *
+     * @param packet The packet to broadcast.
+     * @param compress Whether the packet should also only be compressed once.
+     * @see SharedPacketEncoder
+     */
+    @JvmStatic
+    @JvmOverloads
+    public fun Iterable<ServerPlayer>.broadcastShared(packet: Packet<*>, compress: Boolean = false) {
+        val shared = SharedPacketEncoder.share(packet, compress)
+        for (player in this) {
+            player.connection.send(shared)
         }
     }
 
@@ -72,9 +107,11 @@ public object PlayerUtils {
         message: Component,
         filter: Predicate<ServerPlayer> = Predicate { true }
     ) {
+        // Equivalent to ServerPlayer#sendSystemMessage, but the packet may be shared
+        val packet = SharedPacketEncoder.share(ClientboundSystemChatPacket(message, false))
         for (player in this) {
-            if (filter.test(player)) {
-                player.sendSystemMessage(message)
+            if (filter.test(player) && player.chatVisibility != ChatVisiblity.HIDDEN) {
+                player.connection.send(packet)
             }
         }
     }
@@ -6,27 +6,50 @@ package net.casual.arcade.utils.math.path
 
 import com.google.common.collect.ImmutableList
 import com.mojang.serialization.Codec
-import net.casual.arcade.utils.MathUtils.distanceToSegment
+import net.casual.arcade.utils.MathUtils.component1
+import net.casual.arcade.utils.MathUtils.component2
+import net.casual.arcade.utils.MathUtils.component3
 import net.minecraft.world.phys.Vec3
+import kotlin.math.max
+import kotlin.math.min
 
 /**
  * This class represents a path represented by
  * a list of [Vec3]s.
+ *
+ * The checkpoints are stored in primitive arrays, and the segments
+ * between them are spatially indexed, so nearest checkpoint and
+ * segment queries don't need to check every checkpoint.
  */
 public class CheckpointedPath private constructor(
     private val checkpoints: List<Vec3>
 ): Iterable<Vec3> {
+    private val xs = DoubleArray(this.checkpoints.size)
+    private val ys = DoubleArray(this.checkpoints.size)
+    private val zs = DoubleArray(this.checkpoints.size)
+
+    // The distance along the path to each checkpoint
+    private val distances = DoubleArray(this.checkpoints.size)
+
+    private val grid: PathSegmentGrid
+
     /**
      * The length of the path.
      */
     public val length: Double
 
     init {
-        var distance = 0.0
-        for (i in 0 until this.checkpoints.lastIndex - 1) {
-            distance += this.checkpoints[i].distanceTo(this.checkpoints[i + 1])
+        for ((i, checkpoint) in this.checkpoints.withIndex()) {
+            this.xs[i] = checkpoint.x
+            this.ys[i] = checkpoint.y
+            this.zs[i] = checkpoint.z
+            if (i > 0) {
+                this.distances[i] = this.distances[i - 1] + checkpoint.distanceTo(this.checkpoints[i - 1])
+            }
         }
-        this.length = distance
+        this.length = this.distances[this.checkpoints.lastIndex]
+        val average = this.length / this.checkpoints.lastIndex
+        this.grid = PathSegmentGrid(this.xs, this.zs, max(average, MIN_CELL_SIZE))
     }
 
     /**
@@ -54,7 +77,7 @@ public class CheckpointedPath private constructor(
      * @return The closest checkpoint to that position.
      */
     public fun calculateNearestCheckpoint(position: Vec3): Vec3 {
-        return this.checkpoints.minBy(position::distanceToSqr)
+        return this.getCheckpoint(this.calculateNearestCheckpointIndex(position))
     }
 
     /**
@@ -64,16 +87,18 @@ public class CheckpointedPath private constructor(
      * @return The closest checkpoint index to that position.
      */
     public fun calculateNearestCheckpointIndex(position: Vec3): Int {
-        var closestTargetIndex = 0
-        var closestDistance = position.distanceToSqr(this.checkpoints[closestTargetIndex])
-        for (i in 1..this.checkpoints.lastIndex) {
-            val checkpoint = this.checkpoints[i]
-            val distance = checkpoint.distanceToSqr(position)
-            if (distance < closestDistance) {
-                closestTargetIndex = i
-                closestDistance = distance
+        val (x, y, z) = position
+        var closestTargetIndex = -1
+        var closestDistance = Double.MAX_VALUE
+        this.grid.search(x, z, { segment ->
+            for (i in segment..segment + 1) {
+                val distance = this.distanceToCheckpointSqr(i, x, y, z)
+                if (distance < closestDistance || (distance == closestDistance && i < closestTargetIndex)) {
+                    closestTargetIndex = i
+                    closestDistance = distance
+                }
             }
-        }
+        }, { bound -> closestTargetIndex >= 0 && closestDistance <= bound * bound })
         return closestTargetIndex
     }
 
@@ -109,18 +134,61 @@ public class CheckpointedPath private constructor(
      * @see calculateNextCheckpoint
      */
     public fun calculateNextCheckpointIndex(position: Vec3, tolerance: Double): Int {
+        val (x, y, z) = position
+        val toleranceSqr = tolerance * tolerance
+        // The first segment whose start we're already at
+        var reachedIndex = Int.MAX_VALUE
         var closestTargetIndex = 0
-        var closestDistance = position.distanceTo(this.checkpoints[closestTargetIndex])
-        for (i in 0 until this.checkpoints.lastIndex) {
-            val start = this.checkpoints[i]
-            val end = this.checkpoints[i + 1]
-            if (start.closerThan(position, tolerance)) {
-                // If we're at the start of a segment, we immediately know
-                // that we must target this next segment
-                return i + 1
+        var closestDistance = this.distanceToCheckpointSqr(0, x, y, z)
+        this.grid.search(x, z, { segment ->
+            if (segment < reachedIndex && this.distanceToCheckpointSqr(segment, x, y, z) < toleranceSqr) {
+                reachedIndex = segment
+            }
+            val distance = this.distanceToSegmentSqr(segment, x, y, z)
+            if (distance < closestDistance || (distance == closestDistance && segment + 1 < closestTargetIndex)) {
+                closestDistance = distance
+                closestTargetIndex = segment + 1
             }
+        }, { bound -> bound >= tolerance && closestDistance <= bound * bound })
+
+        if (reachedIndex != Int.MAX_VALUE) {
+            // If we're at the start of a segment, we immediately know
+            // that we must target this next segment
+            return reachedIndex + 1
+        }
+        return closestTargetIndex
+    }
 
-            val distance = position.distanceToSegment(start, end)
+    /**
+     * This calculates the next checkpoint index given a
+     * specific position, current index, and tolerance, only
+     * considering the segments within a [window] of the current index.
+     *
+     * This is the same as [calculateNextCheckpointIndex] except
+     * that it allows checkpoints to be skipped, or missed checkpoints
+     * to be targeted again, without searching the entire path.
+     *
+     * @param position The starting position.
+     * @param currentIndex The current targeted checkpoint index.
+     * @param tolerance How close the [position] must be to
+     * the checkpoint to count as visiting it.
+     * @param window The number of segments before and after
+     * the current segment to check.
+     * @return The next checkpoint index.
+     */
+    public fun calculateNextCheckpointIndex(position: Vec3, currentIndex: Int, tolerance: Double, window: Int): Int {
+        val (x, y, z) = position
+        val toleranceSqr = tolerance * tolerance
+        val from = this.windowStart(currentIndex, window)
+        val to = this.windowEnd(currentIndex, window)
+
+        var closestTargetIndex = from
+        var closestDistance = this.distanceToCheckpointSqr(from, x, y, z)
+        for (i in from..to) {
+            if (this.distanceToCheckpointSqr(i, x, y, z) < toleranceSqr) {
+                return i + 1
+            }
+            val distance = this.distanceToSegmentSqr(i, x, y, z)
             if (distance < closestDistance) {
                 closestDistance = distance
                 closestTargetIndex = i + 1
@@ -151,11 +219,104 @@ public class CheckpointedPath private constructor(
         return currentIndex
     }
 
+    /**
+     * Calculates how far along the path the given position is.
+     *
+     * The position is projected onto the nearest segment of the path,
+     * and the distance along the path to that projection is returned.
+     * This can be divided by the [length] to get the fraction of the
+     * path that has been completed.
+     *
+     * @param position The position.
+     * @return The distance along the path.
+     */
+    public fun calculateProgress(position: Vec3): Double {
+        val (x, y, z) = position
+        var closestSegment = -1
+        var closestDistance = Double.MAX_VALUE
+        this.grid.search(x, z, { segment ->
+            val distance = this.distanceToSegmentSqr(segment, x, y, z)
+            if (distance < closestDistance || (distance == closestDistance && segment < closestSegment)) {
+                closestDistance = distance
+                closestSegment = segment
+            }
+        }, { bound -> closestSegment >= 0 && closestDistance <= bound * bound })
+        return this.progressAlong(closestSegment, x, y, z)
+    }
+
+    /**
+     * Calculates how far along the path the given position is, only
+     * considering the segments within a [window] of the current index.
+     *
+     * @param position The position.
+     * @param currentIndex The current targeted checkpoint index.
+     * @param window The number of segments before and after
+     * the current segment to check.
+     * @return The distance along the path.
+     * @see calculateProgress
+     */
+    public fun calculateProgress(position: Vec3, currentIndex: Int, window: Int): Double {
+        val (x, y, z) = position
+        var closestSegment = -1
+        var closestDistance = Double.MAX_VALUE
+        for (i in this.windowStart(currentIndex, window)..this.windowEnd(currentIndex, window)) {
+            val distance = this.distanceToSegmentSqr(i, x, y, z)
+            if (distance < closestDistance) {
+                closestDistance = distance
+                closestSegment = i
+            }
+        }
+        return this.progressAlong(closestSegment, x, y, z)
+    }
+
     override fun iterator(): Iterator<Vec3> {
         return this.checkpoints.iterator()
     }
 
+    private fun windowStart(currentIndex: Int, window: Int): Int {
+        // The targeted checkpoint is the end of the current segment
+        return max(0, min(currentIndex - 1, this.checkpoints.lastIndex - 1) - window)
+    }
+
+    private fun windowEnd(currentIndex: Int, window: Int): Int {
+        return min(this.checkpoints.lastIndex - 1, max(currentIndex - 1, 0) + window)
+    }
+
+    private fun progressAlong(segment: Int, x: Double, y: Double, z: Double): Double {
+        val scalar = this.projectionScalar(segment, x, y, z)
+        return this.distances[segment] + scalar * (this.distances[segment + 1] - this.distances[segment])
+    }
+
+    private fun distanceToCheckpointSqr(index: Int, x: Double, y: Double, z: Double): Double {
+        val dx = x - this.xs[index]
+        val dy = y - this.ys[index]
+        val dz = z - this.zs[index]
+        return dx * dx + dy * dy + dz * dz
+    }
+
+    private fun distanceToSegmentSqr(segment: Int, x: Double, y: Double, z: Double): Double {
+        val scalar = this.projectionScalar(segment, x, y, z)
+        val dx = x - (this.xs[segment] + scalar * (this.xs[segment + 1] - this.xs[segment]))
+        val dy = y - (this.ys[segment] + scalar * (this.ys[segment + 1] - this.ys[segment]))
+        val dz = z - (this.zs[segment] + scalar * (this.zs[segment + 1] - this.zs[segment]))
+        return dx * dx + dy * dy + dz * dz
+    }
+
+    private fun projectionScalar(segment: Int, x: Double, y: Double, z: Double): Double {
+        val sx = this.xs[segment + 1] - this.xs[segment]
+        val sy = this.ys[segment + 1] - this.ys[segment]
+        val sz = this.zs[segment + 1] - this.zs[segment]
+        val lengthSqr = sx * sx + sy * sy + sz * sz
+        if (lengthSqr == 0.0) {
+            return 0.0
+        }
+        val dot = (x - this.xs[segment]) * sx + (y - this.ys[segment]) * sy + (z - this.zs[segment]) * sz
+        return (dot / lengthSqr).coerceIn(0.0, 1.0)
+    }
+
     public companion object {
+        private const val MIN_CELL_SIZE = 1.0
+
         public val CODEC: Codec<CheckpointedPath> = Vec3.CODEC.listOf(2, Int.MAX_VALUE)
             .xmap(::CheckpointedPath) { it.checkpoints }
 
@@ -167,7 +328,7 @@ public class CheckpointedPath private constructor(
          * @return The [CheckpointedPath] instance.
          */
         public fun create(path: List<Vec3>): CheckpointedPath {
-            require(path.size < 2) { "Checkpointed path must have at least 2 points" }
+            require(path.size >= 2) { "Checkpointed path must have at least 2 points" }
             return CheckpointedPath(ImmutableList.copyOf(path))
         }
     }
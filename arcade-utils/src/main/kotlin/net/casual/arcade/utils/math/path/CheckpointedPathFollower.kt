@@ -10,20 +10,24 @@ import net.minecraft.world.phys.Vec3
  * Utility class that keeps track of the next
  * index of a [CheckpointedPath] that it's following.
  *
- * Calling [update] or [refresh] periodically to
+ * Calling [update], [track], or [refresh] periodically to
  * update the [target] position on the path.
  *
  * @param position The starting position.
  * @param path The path to follow.
  * @param tolerance The tolerance to be within each checkpoint.
+ * @param window The number of segments around the current
+ * checkpoint that are checked when calling [track].
  * @see CheckpointedPath
  */
 public class CheckpointedPathFollower(
     position: Vec3,
     private val path: CheckpointedPath,
-    private val tolerance: Double = 1.0
+    private val tolerance: Double = 1.0,
+    private val window: Int = 8
 ) {
     private var index = this.path.calculateNextCheckpointIndex(position, this.tolerance)
+    private var position = position
 
     /**
      * The target position.
@@ -31,6 +35,14 @@ public class CheckpointedPathFollower(
     public val target: Vec3
         get() = this.path.getCheckpoint(this.index)
 
+    /**
+     * The distance along the path of the last updated position.
+     *
+     * @see CheckpointedPath.calculateProgress
+     */
+    public val progress: Double
+        get() = this.path.calculateProgress(this.position, this.index, this.window)
+
     /**
      * Checks whether the [position] has reached the next checkpoint,
      * and updates the [index] accordingly.
@@ -42,6 +54,22 @@ public class CheckpointedPathFollower(
      */
     public fun update(position: Vec3) {
         this.index = this.path.calculateNextCheckpointIndex(position, this.index, this.tolerance)
+        this.position = position
+    }
+
+    /**
+     * Updates the [index] to be the next target checkpoint,
+     * only searching the checkpoints within the [window] of
+     * the current checkpoint.
+     *
+     * Unlike [update] this allows checkpoints to be skipped,
+     * while being much cheaper than [refresh] for long paths.
+     *
+     * @param position The updated position.
+     */
+    public fun track(position: Vec3) {
+        this.index = this.path.calculateNextCheckpointIndex(position, this.index, this.tolerance, this.window)
+        this.position = position
     }
 
     /**
@@ -54,5 +82,6 @@ public class CheckpointedPathFollower(
      */
     public fun refresh(position: Vec3) {
         this.index = this.path.calculateNextCheckpointIndex(position, this.tolerance)
+        this.position = position
     }
 }
\ No newline at end of file
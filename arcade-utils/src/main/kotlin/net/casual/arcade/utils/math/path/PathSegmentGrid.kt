@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.utils.math.path
+
+import it.unimi.dsi.fastutil.ints.IntArrayList
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap
+import kotlin.math.abs
+import kotlin.math.floor
+import kotlin.math.max
+import kotlin.math.min
+
+/**
+ * A uniform grid over the x-z plane, which indexes the segments
+ * of a path by the cells that they cross.
+ *
+ * Paths are generally spread out horizontally, so the y-axis is
+ * not indexed, the grid is only used to narrow down the candidate
+ * segments, the distances are still measured in 3 dimensions.
+ */
+internal class PathSegmentGrid(
+    xs: DoubleArray,
+    zs: DoubleArray,
+    val cellSize: Double
+) {
+    val cells = Long2ObjectOpenHashMap<IntArray>()
+
+    val minCellX: Int
+    val minCellZ: Int
+    val maxCellX: Int
+    val maxCellZ: Int
+
+    init {
+        val building = Long2ObjectOpenHashMap<IntArrayList>()
+        var minCellX = Int.MAX_VALUE
+        var minCellZ = Int.MAX_VALUE
+        var maxCellX = Int.MIN_VALUE
+        var maxCellZ = Int.MIN_VALUE
+        for (i in 0 until xs.lastIndex) {
+            val fromX = this.cell(min(xs[i], xs[i + 1]))
+            val toX = this.cell(max(xs[i], xs[i + 1]))
+            val fromZ = this.cell(min(zs[i], zs[i + 1]))
+            val toZ = this.cell(max(zs[i], zs[i + 1]))
+            // Long diagonal segments would fill their whole bounding box, so we only add the cells they cross
+            this.traverse(xs[i], zs[i], xs[i + 1], zs[i + 1]) { x, z ->
+                val key = pack(x, z)
+                var segments = building.get(key)
+                if (segments == null) {
+                    segments = IntArrayList(4)
+                    building.put(key, segments)
+                }
+                segments.add(i)
+            }
+            minCellX = min(minCellX, fromX)
+            minCellZ = min(minCellZ, fromZ)
+            maxCellX = max(maxCellX, toX)
+            maxCellZ = max(maxCellZ, toZ)
+        }
+        for (entry in building.long2ObjectEntrySet()) {
+            this.cells.put(entry.longKey, entry.value.toIntArray())
+        }
+        this.minCellX = minCellX
+        this.minCellZ = minCellZ
+        this.maxCellX = maxCellX
+        this.maxCellZ = maxCellZ
+    }
+
+    fun cell(coordinate: Double): Int {
+        return floor(coordinate / this.cellSize).toInt()
+    }
+
+    /**
+     * Visits every cell that the line from (x0, z0) to (x1, z1)
+     * crosses, by stepping to whichever cell boundary is crossed next.
+     */
+    private inline fun traverse(x0: Double, z0: Double, x1: Double, z1: Double, visitor: (Int, Int) -> Unit) {
+        var cx = this.cell(x0)
+        var cz = this.cell(z0)
+        val endX = this.cell(x1)
+        val endZ = this.cell(z1)
+        val dx = x1 - x0
+        val dz = z1 - z0
+        val stepX = if (endX > cx) 1 else -1
+        val stepZ = if (endZ > cz) 1 else -1
+        // The distance along the line, as a fraction, between each crossed boundary
+        val deltaX = if (dx != 0.0) abs(this.cellSize / dx) else Double.POSITIVE_INFINITY
+        val deltaZ = if (dz != 0.0) abs(this.cellSize / dz) else Double.POSITIVE_INFINITY
+        // The distance along the line, as a fraction, to the next crossed boundary
+        var nextX = if (dx != 0.0) ((if (stepX > 0) cx + 1 else cx) * this.cellSize - x0) / dx else Double.POSITIVE_INFINITY
+        var nextZ = if (dz != 0.0) ((if (stepZ > 0) cz + 1 else cz) * this.cellSize - z0) / dz else Double.POSITIVE_INFINITY
+
+        visitor.invoke(cx, cz)
+        var remaining = abs(endX - cx) + abs(endZ - cz)
+        while (remaining > 0) {
+            // Checking the end cells guarantees we finish at the end, regardless of rounding
+            if (cx != endX && (cz == endZ || nextX < nextZ)) {
+                cx += stepX
+                nextX += deltaX
+            } else {
+                cz += stepZ
+                nextZ += deltaZ
+            }
+            visitor.invoke(cx, cz)
+            remaining--
+        }
+    }
+
+    /**
+     * Visits the segments in rings of cells around the given position.
+     *
+     * The [visitor] is invoked for every segment in a cell, segments
+     * may be visited more than once.
+     * After each ring, [done] is invoked with the minimum horizontal
+     * distance of any segment that has not yet been visited, if it
+     * returns true the search stops.
+     */
+    inline fun search(x: Double, z: Double, visitor: (Int) -> Unit, done: (Double) -> Boolean) {
+        val cx = this.cell(x)
+        val cz = this.cell(z)
+        val start = max(0, max(this.outside(cx, this.minCellX, this.maxCellX), this.outside(cz, this.minCellZ, this.maxCellZ)))
+        val end = max(
+            max(abs(cx - this.minCellX), abs(cx - this.maxCellX)),
+            max(abs(cz - this.minCellZ), abs(cz - this.maxCellZ))
+        )
+        for (ring in start..end) {
+            for (gx in max(cx - ring, this.minCellX)..min(cx + ring, this.maxCellX)) {
+                if (gx == cx - ring || gx == cx + ring) {
+                    for (gz in max(cz - ring, this.minCellZ)..min(cz + ring, this.maxCellZ)) {
+                        this.cells.get(pack(gx, gz))?.forEach(visitor)
+                    }
+                } else {
+                    if (cz - ring >= this.minCellZ) {
+                        this.cells.get(pack(gx, cz - ring))?.forEach(visitor)
+                    }
+                    if (cz + ring <= this.maxCellZ) {
+                        this.cells.get(pack(gx, cz + ring))?.forEach(visitor)
+                    }
+                }
+            }
+            if (done.invoke(ring * this.cellSize)) {
+                return
+            }
+        }
+    }
+
+    fun outside(cell: Int, min: Int, max: Int): Int {
+        return if (cell < min) min - cell else if (cell > max) cell - max else 0
+    }
+
+    companion object {
+        fun pack(x: Int, z: Int): Long {
+            return (x.toLong() shl 32) or (z.toLong() and 0xFFFFFFFFL)
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.utils.network
+
+import com.google.common.collect.MapMaker
+import io.netty.buffer.ByteBuf
+import io.netty.buffer.ByteBufUtil
+import io.netty.buffer.Unpooled
+import net.casual.arcade.utils.toByteArray
+import net.minecraft.core.particles.ColorParticleOption
+import net.minecraft.core.particles.DustColorTransitionOptions
+import net.minecraft.core.particles.DustParticleOptions
+import net.minecraft.core.particles.ParticleOptions
+import net.minecraft.core.particles.SimpleParticleType
+import net.minecraft.network.ConnectionProtocol
+import net.minecraft.network.chat.Component
+import net.minecraft.network.chat.HoverEvent
+import net.minecraft.network.chat.contents.TranslatableContents
+import net.minecraft.network.protocol.BundlePacket
+import net.minecraft.network.protocol.Packet
+import net.minecraft.network.protocol.game.*
+import org.jetbrains.annotations.ApiStatus.Internal
+import java.util.*
+import java.util.concurrent.ConcurrentMap
+import java.util.function.Consumer
+
+/**
+ * Allows a packet that is being sent to many connections to only be serialized once.
+ *
+ * Packets marked with [share] are serialized by the first connection which
+ * encodes them, any other connections in the same protocol state will then
+ * just copy the already encoded bytes instead of serializing the packet again.
+ *
+ * Rewriting packets, for example with `PlayerClientboundPacketEvent`, is
+ * still fully supported; a rewritten packet is a different instance and
+ * will therefore be encoded normally for that connection.
+ * Rewriters which run while the packet is being encoded cannot be
+ * detected this way, so [share] only shares packet types which are
+ * known to be encoded the same for every connection, any other packets
+ * are encoded normally, see [isShareable].
+ *
+ * Shared packets may also be compressed only once, the compressed bytes
+ * are then re-used by any other connections with the same compression
+ * threshold.
+ */
+public object SharedPacketEncoder {
+    private val shared: ConcurrentMap<Packet<*>, SharedEncoding> = MapMaker().weakKeys().makeMap()
+
+    // The encoding that was just written by this thread, this
+    // is picked up by the compression encoder if there is one
+    private val compressing = ThreadLocal<PendingCompression>()
+
+    /**
+     * Marks a packet to be encoded only once for all the connections it's sent to.
+     *
+     * The encoded bytes are kept for as long as the packet instance is reachable.
+     * [BundlePacket]s cannot be shared as they are never directly encoded,
+     * the sub-packets should be shared instead.
+     *
+     * Compressing only pays off for larger packets, packets below
+     * the compression threshold are never compressed anyway.
+     *
+     * If the packet may be rewritten for each connection, see
+     * [isShareable], then it is not shared and will be encoded normally.
+     *
+     * @param packet The packet to share.
+     * @param compress Whether the compressed bytes should also be shared.
+     * @return The given packet.
+     */
+    @JvmStatic
+    @JvmOverloads
+    public fun <P: Packet<*>> share(packet: P, compress: Boolean = false): P {
+        if (packet !is BundlePacket<*> && this.isShareable(packet)) {
+            this.shared.putIfAbsent(packet, SharedEncoding(compress))
+        }
+        return packet
+    }
+
+    /**
+     * Checks whether a packet has been marked as shared.
+     *
+     * @param packet The packet to check.
+     * @return Whether the packet is shared.
+     */
+    @JvmStatic
+    public fun isShared(packet: Packet<*>): Boolean {
+        return this.shared.containsKey(packet)
+    }
+
+    /**
+     * Checks whether a packet is encoded the same for every connection.
+     *
+     * Only packet types which are known to be safe are shareable, such
+     * as chat, title, tab list, player info, and particle packets. The
+     * components of these packets are checked with [isShareable], and
+     * particles must not contain items or blocks, which may be rewritten
+     * by Polymer for each player. Any other packets are never shareable.
+     *
+     * @param packet The packet to check.
+     * @return Whether the packet can be shared.
+     */
+    @JvmStatic
+    public fun isShareable(packet: Packet<*>): Boolean {
+        return when (packet) {
+            is ClientboundSystemChatPacket -> this.isShareable(packet.content())
+            is ClientboundSetTitleTextPacket -> this.isShareable(packet.text())
+            is ClientboundSetSubtitleTextPacket -> this.isShareable(packet.text())
+            is ClientboundSetActionBarTextPacket -> this.isShareable(packet.text())
+            is ClientboundTabListPacket -> this.isShareable(packet.header()) && this.isShareable(packet.footer())
+            is ClientboundPlayerInfoUpdatePacket -> packet.entries().all { entry ->
+                val name = entry.displayName()
+                name == null || this.isShareable(name)
+            }
+            is ClientboundPlayerInfoRemovePacket -> true
+            is ClientboundSetTitlesAnimationPacket -> true
+            is ClientboundClearTitlesPacket -> true
+            is ClientboundLevelParticlesPacket -> this.isShareable(packet.particle)
+            else -> false
+        }
+    }
+
+    private fun isShareable(particle: ParticleOptions): Boolean {
+        return when (particle) {
+            is SimpleParticleType -> true
+            is DustParticleOptions -> true
+            is DustColorTransitionOptions -> true
+            is ColorParticleOption -> true
+            else -> false
+        }
+    }
+
+    /**
+     * Checks whether a component is encoded the same for every connection.
+     *
+     * Translatable components may be translated into each player's
+     * language while they are encoded, and items in hover events may
+     * be rewritten by Polymer for each player. Packets containing
+     * components with either of these should not be shared.
+     *
+     * @param component The component to check.
+     * @return Whether the component can be shared.
+     */
+    @JvmStatic
+    public fun isShareable(component: Component): Boolean {
+        if (component.contents is TranslatableContents) {
+            return false
+        }
+        when (val hover = component.style.hoverEvent) {
+            is HoverEvent.ShowItem -> return false
+            is HoverEvent.ShowText -> if (!this.isShareable(hover.value())) {
+                return false
+            }
+            is HoverEvent.ShowEntity -> {
+                val name = hover.entity().name
+                if (name.isPresent && !this.isShareable(name.get())) {
+                    return false
+                }
+            }
+            else -> { }
+        }
+        for (sibling in component.siblings) {
+            if (!this.isShareable(sibling)) {
+                return false
+            }
+        }
+        return true
+    }
+
+    @Internal
+    @JvmStatic
+    public fun encode(protocol: ConnectionProtocol, packet: Packet<*>, buf: ByteBuf, encoder: Consumer<ByteBuf>) {
+        val encoding = this.shared[packet]
+        if (encoding == null) {
+            if (this.compressing.get() != null) {
+                this.compressing.remove()
+            }
+            encoder.accept(buf)
+            return
+        }
+        val bytes = encoding.getOrEncode(protocol, encoder)
+        buf.writeBytes(bytes)
+        if (encoding.compress) {
+            this.compressing.set(PendingCompression(encoding, protocol, bytes))
+        } else if (this.compressing.get() != null) {
+            this.compressing.remove()
+        }
+    }
+
+    /**
+     * Clears the encoding that was just written by this thread,
+     * the packet has been fully written, including compression, or
+     * the connection has no compression.
+     */
+    @Internal
+    @JvmStatic
+    public fun written() {
+        if (this.compressing.get() != null) {
+            this.compressing.remove()
+        }
+    }
+
+    /**
+     * Writes the already compressed bytes of the packet that was just encoded.
+     *
+     * @param threshold The compression threshold of the connection.
+     * @param input The uncompressed bytes.
+     * @param output The buffer to write the compressed bytes to.
+     * @return Whether the compressed bytes were written.
+     */
+    @Internal
+    @JvmStatic
+    public fun compress(threshold: Int, input: ByteBuf, output: ByteBuf): Boolean {
+        val pending = this.compressing.get() ?: return false
+        val size = pending.bytes.size
+        // Other handlers may have modified the buffer, in which case we can't use our bytes
+        if (input.readableBytes() != size || !ByteBufUtil.equals(input, input.readerIndex(), Unpooled.wrappedBuffer(pending.bytes), 0, size)) {
+            this.compressing.remove()
+            return false
+        }
+        val compressed = pending.encoding.getCompressed(pending.protocol, threshold)
+        if (compressed == null) {
+            // We'll store the result after this connection has compressed it
+            pending.threshold = threshold
+            return false
+        }
+        this.compressing.remove()
+        input.skipBytes(size)
+        output.writeBytes(compressed)
+        return true
+    }
+
+    @Internal
+    @JvmStatic
+    public fun compressed(output: ByteBuf) {
+        val pending = this.compressing.get() ?: return
+        this.compressing.remove()
+        if (pending.threshold >= 0) {
+            pending.encoding.putCompressed(pending.protocol, pending.threshold, ByteBufUtil.getBytes(output))
+        }
+    }
+
+    private class PendingCompression(
+        val encoding: SharedEncoding,
+        val protocol: ConnectionProtocol,
+        val bytes: ByteArray
+    ) {
+        var threshold = -1
+    }
+
+    private class SharedEncoding(val compress: Boolean) {
+        private val encoded = EnumMap<ConnectionProtocol, ByteArray>(ConnectionProtocol::class.java)
+        private val compressed = EnumMap<ConnectionProtocol, CompressedBytes>(ConnectionProtocol::class.java)
+
+        fun getOrEncode(protocol: ConnectionProtocol, encoder: Consumer<ByteBuf>): ByteArray {
+            // Connections may be encoding on different netty threads
+            synchronized(this) {
+                return this.encoded.getOrPut(protocol) {
+                    val buf = Unpooled.buffer()
+                    try {
+                        encoder.accept(buf)
+                        buf.toByteArray()
+                    } finally {
+                        buf.release()
+                    }
+                }
+            }
+        }
+
+        fun getCompressed(protocol: ConnectionProtocol, threshold: Int): ByteArray? {
+            synchronized(this) {
+                val compressed = this.compressed[protocol] ?: return null
+                return if (compressed.threshold == threshold) compressed.bytes else null
+            }
+        }
+
+        fun putCompressed(protocol: ConnectionProtocol, threshold: Int, bytes: ByteArray) {
+            synchronized(this) {
+                this.compressed.putIfAbsent(protocol, CompressedBytes(threshold, bytes))
+            }
+        }
+    }
+
+    private class CompressedBytes(val threshold: Int, val bytes: ByteArray)
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2025 senseiwells
+ * Licensed under the MIT License. See LICENSE file in the project root for details.
+ */
+package net.casual.arcade.utils.string
+
+import it.unimi.dsi.fastutil.ints.Int2FloatMap
+import it.unimi.dsi.fastutil.ints.Int2FloatMaps
+import it.unimi.dsi.fastutil.ints.Int2FloatOpenHashMap
+
+/**
+ * A flattened table of the advances of the glyphs in a font.
+ *
+ * If the codepoints of the font are mostly contiguous then the
+ * advances are stored in a single array indexed by codepoint,
+ * otherwise they fall back to a hash map.
+ *
+ * @see net.casual.arcade.utils.ComponentUtils.registerGlyphWidths
+ */
+public class GlyphWidths private constructor(
+    private val offset: Int,
+    private val table: FloatArray,
+    private val sparse: Int2FloatMap?,
+    private val fallback: Float
+) {
+    /**
+     * Gets the advance of the given codepoint.
+     *
+     * @param codepoint The codepoint.
+     * @return The advance of the glyph.
+     */
+    public fun get(codepoint: Int): Float {
+        if (this.sparse != null) {
+            return this.sparse.get(codepoint)
+        }
+        val index = codepoint - this.offset
+        if (index < 0 || index >= this.table.size) {
+            return this.fallback
+        }
+        val width = this.table[index]
+        return if (width.isNaN()) this.fallback else width
+    }
+
+    public companion object {
+        /**
+         * Creates a glyph width table from a map of codepoints to advances.
+         *
+         * @param widths The advances of the glyphs.
+         * @param fallback The advance of any glyphs not in [widths].
+         * @return The glyph width table.
+         */
+        @JvmStatic
+        public fun of(widths: Int2FloatMap, fallback: Float): GlyphWidths {
+            if (widths.isEmpty()) {
+                return GlyphWidths(0, FloatArray(0), null, fallback)
+            }
+            var min = Int.MAX_VALUE
+            var max = Int.MIN_VALUE
+            for (entry in Int2FloatMaps.fastIterable(widths)) {
+                min = minOf(min, entry.intKey)
+                max = maxOf(max, entry.intKey)
+            }
+            val range = max.toLong() - min + 1
+            if (range > widths.size * 4L + 128) {
+                val sparse = Int2FloatOpenHashMap(widths)
+                sparse.defaultReturnValue(fallback)
+                return GlyphWidths(0, FloatArray(0), sparse, fallback)
+            }
+            val table = FloatArray(range.toInt()) { Float.NaN }
+            for (entry in Int2FloatMaps.fastIterable(widths)) {
+                table[entry.intKey - min] = entry.floatValue
+            }
+            return GlyphWidths(min, table, null, fallback)
+        }
+    }
+}
\ No newline at end of file
@@ -150,6 +150,10 @@ public class SuppliedBossbar(
         return this.fog.get(player)
     }
 
+    override fun isDeferrable(): Boolean {
+        return true
+    }
+
     override fun tick(server: MinecraftServer) {
         this.title.tick(server)
         this.progress.tick(server)
@@ -18,4 +18,16 @@ public interface TickableUI {
     public fun shouldTickWhenPaused(): Boolean {
         return false
     }
+
+    /**
+     * Whether this UI only refreshes what is displayed when ticked,
+     * if so, ticks may be skipped when the server is under load.
+     *
+     * UI which counts ticks, such as timers, must not be deferrable.
+     *
+     * @return Whether ticks may be skipped.
+     */
+    public fun isDeferrable(): Boolean {
+        return false
+    }
 }
\ No newline at end of file
@@ -8,14 +8,16 @@ import net.casual.arcade.utils.ComponentUtils.bold
 import net.casual.arcade.utils.ComponentUtils.lime
 import net.casual.arcade.utils.ComponentUtils.red
 import net.casual.arcade.utils.ComponentUtils.yellow
+import net.casual.arcade.utils.PlayerUtils.broadcast
 import net.casual.arcade.utils.PlayerUtils.clearTitle
 import net.casual.arcade.utils.PlayerUtils.sendSound
-import net.casual.arcade.utils.PlayerUtils.sendTitle
 import net.casual.arcade.utils.PlayerUtils.setTitleAnimation
 import net.casual.arcade.utils.TimeUtils.Ticks
 import net.casual.arcade.utils.impl.Sound
 import net.casual.arcade.utils.time.MinecraftTimeDuration
 import net.minecraft.network.chat.Component
+import net.minecraft.network.protocol.game.ClientboundSetSubtitleTextPacket
+import net.minecraft.network.protocol.game.ClientboundSetTitleTextPacket
 import net.minecraft.server.level.ServerPlayer
 import net.minecraft.sounds.SoundEvents
 import org.jetbrains.annotations.ApiStatus.OverrideOnly
@@ -55,9 +57,10 @@ public interface TitledCountdown: Countdown {
         val title = this.getCountdownTitle(current)
         val subtitle = this.getCountdownSubtitle(current)
         val sound = this.getCountdownSound(current)
-        for (player in players) {
-            player.sendTitle(title, subtitle)
-            if (sound != null) {
+        players.broadcast(ClientboundSetTitleTextPacket(title))
+        players.broadcast(ClientboundSetSubtitleTextPacket(subtitle))
+        if (sound != null) {
+            for (player in players) {
                 player.sendSound(sound)
             }
         }
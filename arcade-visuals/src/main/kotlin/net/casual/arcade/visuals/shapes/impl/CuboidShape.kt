@@ -9,6 +9,8 @@ import net.minecraft.core.Direction.Axis
 import net.minecraft.world.phys.AABB
 import net.minecraft.world.phys.Vec3
 import org.joml.Vector3d
+import kotlin.math.ceil
+import kotlin.math.floor
 
 public class CuboidShape(
     public val aabb: AABB
@@ -17,6 +19,73 @@ public class CuboidShape(
         return CuboidShapeIterator(this.aabb, pointsPerUnit)
     }
 
+    /**
+     * Gets the points of only the part of the surface
+     * of this cuboid which lies within a given [area].
+     *
+     * The generated points are the same as the points
+     * generated by [iterator], so they remain consistent
+     * as the area moves.
+     *
+     * @param area The area to get the points within.
+     * @return The points within the area.
+     */
+    public fun within(area: AABB): ShapePoints {
+        return ShapePoints { pointsPerUnit -> this.getPointsWithin(area, pointsPerUnit).iterator() }
+    }
+
+    private fun getPointsWithin(area: AABB, pointsPerUnit: Double): List<Vec3> {
+        val points = ArrayList<Vec3>()
+        for (axis in Axis.VALUES) {
+            if (this.aabb.min(axis) > area.max(axis) || this.aabb.max(axis) < area.min(axis)) {
+                return points
+            }
+        }
+
+        for (axis in Axis.VALUES) {
+            val (u, v) = when (axis!!) {
+                Axis.X -> Axis.Y to Axis.Z
+                Axis.Y -> Axis.X to Axis.Z
+                Axis.Z -> Axis.X to Axis.Y
+            }
+            val uRange = this.getStepRange(u, area, pointsPerUnit)
+            val vRange = this.getStepRange(v, area, pointsPerUnit)
+            for (fixed in doubleArrayOf(this.aabb.min(axis), this.aabb.max(axis))) {
+                if (fixed < area.min(axis) || fixed > area.max(axis)) {
+                    continue
+                }
+                val coordinates = DoubleArray(3)
+                coordinates[axis.ordinal] = fixed
+                for (i in uRange) {
+                    coordinates[u.ordinal] = this.getStep(u, i, pointsPerUnit)
+                    for (j in vRange) {
+                        coordinates[v.ordinal] = this.getStep(v, j, pointsPerUnit)
+                        points.add(Vec3(coordinates[0], coordinates[1], coordinates[2]))
+                    }
+                }
+            }
+        }
+        return points
+    }
+
+    private fun getStepRange(axis: Axis, area: AABB, pointsPerUnit: Double): IntRange {
+        val min = this.aabb.min(axis)
+        val delta = this.aabb.max(axis) - min
+        if (delta <= 0.0) {
+            return 0..0
+        }
+        val steps = getSteps(delta, pointsPerUnit)
+        val start = ceil((area.min(axis) - min) / delta * steps).toInt().coerceAtLeast(0)
+        val end = floor((area.max(axis) - min) / delta * steps).toInt().coerceAtMost(steps)
+        return start..end
+    }
+
+    private fun getStep(axis: Axis, step: Int, pointsPerUnit: Double): Double {
+        val min = this.aabb.min(axis)
+        val delta = this.aabb.max(axis) - min
+        return min + delta * (step.toDouble() / getSteps(delta, pointsPerUnit))
+    }
+
     private class CuboidShapeIterator(
         private val min: Vec3,
         private val max: Vec3,
@@ -26,9 +95,9 @@ public class CuboidShape(
         private val dy = this.max.y - this.min.y
         private val dz = this.max.z - this.min.z
 
-        private val xSteps = (this.dx * this.pointsPerUnit).toInt().coerceAtLeast(1)
-        private val ySteps = (this.dy * this.pointsPerUnit).toInt().coerceAtLeast(1)
-        private val zSteps = (this.dz * this.pointsPerUnit).toInt().coerceAtLeast(1)
+        private val xSteps = getSteps(this.dx, this.pointsPerUnit)
+        private val ySteps = getSteps(this.dy, this.pointsPerUnit)
+        private val zSteps = getSteps(this.dz, this.pointsPerUnit)
 
         private var face = 0
         private var i = 0
@@ -130,4 +199,10 @@ public class CuboidShape(
             }
         }
     }
+
+    private companion object {
+        fun getSteps(delta: Double, pointsPerUnit: Double): Int {
+            return (delta * pointsPerUnit).toInt().coerceAtLeast(1)
+        }
+    }
 }
\ No newline at end of file
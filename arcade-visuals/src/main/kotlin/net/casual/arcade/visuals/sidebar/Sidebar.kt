@@ -26,6 +26,10 @@ public abstract class Sidebar(title: PlayerSpecificElement<Component>): TrackedP
         }
     }
 
+    override fun isDeferrable(): Boolean {
+        return true
+    }
+
     override fun onAddPlayer(player: ServerPlayer) {
         player.sidebar.set(this)
     }
@@ -8,6 +8,7 @@ import com.mojang.authlib.GameProfile
 import net.casual.arcade.utils.ClientboundPlayerInfoUpdatePacket
 import net.casual.arcade.utils.EnumUtils
 import net.casual.arcade.utils.PlayerUtils.levelServer
+import net.casual.arcade.utils.network.SharedPacketEncoder
 import net.casual.arcade.visuals.core.TrackedPlayerUI
 import net.casual.arcade.visuals.core.TickableUI
 import net.casual.arcade.visuals.elements.ComponentElements
@@ -80,10 +81,10 @@ public open class PlayerListDisplay(
         }
 
         if (uuids.isNotEmpty()) {
-            this.sendToAllPlayers(removing)
+            this.sendToAllPlayers(SharedPacketEncoder.share(removing))
         }
         if (entries.isNotEmpty()) {
-            this.sendToAllPlayers(ClientboundPlayerInfoUpdatePacket(EnumUtils.completeSet(), entries))
+            this.sendToAllPlayers(SharedPacketEncoder.share(ClientboundPlayerInfoUpdatePacket(EnumUtils.completeSet(), entries)))
         }
     }
 
@@ -91,6 +92,10 @@ public open class PlayerListDisplay(
         return true
     }
 
+    override fun isDeferrable(): Boolean {
+        return true
+    }
+
     public open fun replacePlayerInfoUpdatePacket(
         receiver: ServerPlayer,
         packet: ClientboundPlayerInfoUpdatePacket
@@ -200,7 +205,7 @@ public open class PlayerListDisplay(
                 -index, // For some reason, Mojang does this in reverse
                 null
             ))
-            this.sendToAllPlayers(ClientboundPlayerInfoUpdatePacket(actions, entries))
+            this.sendToAllPlayers(SharedPacketEncoder.share(ClientboundPlayerInfoUpdatePacket(actions, entries)))
         }
         return null
     }
@@ -19,7 +19,17 @@ public abstract class CustomBorder: WorldBorder(), SerializableBorder {
     protected abstract var borderState: BorderState
     protected abstract var centerState: CenterBorderState
 
+    /**
+     * The number of ticks this border has been ticked for.
+     *
+     * Moving border states are evaluated from this, so they
+     * don't need to step their own state each tick.
+     */
+    public var ticks: Long = 0
+        private set
+
     override fun tick() {
+        this.ticks++
         this.borderState = this.borderState.update()
         this.centerState = this.centerState.update()
     }
@@ -142,8 +152,11 @@ public abstract class CustomBorder: WorldBorder(), SerializableBorder {
         return this.status === BorderStatus.STATIONARY && this.getCenterStatus() === CenterBorderStatus.STATIONARY
     }
 
-    internal fun changeCenter(x: Double, z: Double) {
+    internal fun changeCenter(x: Double, z: Double, broadcast: Boolean = true) {
         this.borderState.onCenterChange()
+        if (!broadcast) {
+            return
+        }
 
         for (listener in this.listeners) {
             listener.onBorderCenterSet(this, x, z)
@@ -7,6 +7,7 @@ package net.casual.arcade.border.state
 import net.casual.arcade.border.CustomBorder
 import net.casual.arcade.utils.ServerUtils
 import net.casual.arcade.utils.calculateTPS
+import net.minecraft.Util
 import net.minecraft.util.Mth
 import net.minecraft.world.level.border.BorderChangeListener.DelegateBorderChangeListener
 import net.minecraft.world.level.border.BorderStatus
@@ -24,8 +25,13 @@ public class MovingBorderState(
     private val sizeFrom: Double,
     private val sizeTo: Double
 ): BorderState {
-    private var tickDuration = realDuration / 50.0
-    private var ticks = 0
+    private val tickDuration = realDuration / 50.0
+    private val startTick = this.border.ticks
+
+    // The client interpolates the border using real time, we
+    // keep track of what the client expects the remaining time to be
+    private var syncedAt = Util.getMillis()
+    private var syncedRemaining = this.realDuration
 
     override fun getMinX(): Double {
         val maxSize = this.border.absoluteMaxSize
@@ -48,7 +54,7 @@ public class MovingBorderState(
     }
 
     override fun getSize(): Double {
-        val progress = this.ticks / this.tickDuration
+        val progress = this.getElapsedTicks() / this.tickDuration
         return if (progress < 1.0) Mth.lerp(progress, this.sizeFrom, this.sizeTo) else this.sizeTo
     }
 
@@ -58,7 +64,7 @@ public class MovingBorderState(
 
     override fun getLerpRemainingTime(): Long {
         val tps = ServerUtils.getServerOrNull()?.calculateTPS() ?: 20.0F
-        return ((this.tickDuration - this.ticks) / tps * 1000).toLong()
+        return ((this.tickDuration - this.getElapsedTicks()) / tps * 1000).toLong()
     }
 
     override fun getLerpTarget(): Double {
@@ -74,21 +80,39 @@ public class MovingBorderState(
     }
 
     override fun update(): BorderState {
-        if (this.ticks++ % 20 == 0) {
-            // We need to update any listeners
-            // Most importantly those that send updates to the client
-            // This is because the client logic uses real time
-            // So if the tick speed has changed we need to tell the client
-            for (listener in this.border.listeners) {
-                // We do not want to update DelegateBorderChangeListener
-                // This updates borders in other dimensions
-                if (listener !is DelegateBorderChangeListener) {
-                    listener.onBorderSizeLerping(this.border, this.sizeFrom, this.sizeTo, this.realDuration)
-                }
-            }
+        val elapsed = this.getElapsedTicks()
+        if (elapsed >= this.tickDuration) {
+            return StillBorderState(this.border, this.sizeTo)
+        }
+        if (elapsed % 20 == 0L) {
+            this.resyncIfDrifted()
         }
+        return this
+    }
 
-        return if (this.ticks >= this.tickDuration) StillBorderState(this.border, this.sizeTo) else this
+    private fun getElapsedTicks(): Long {
+        return this.border.ticks - this.startTick
+    }
+
+    private fun resyncIfDrifted() {
+        // We only need to update the client if the tick speed has
+        // changed enough that its interpolation has drifted
+        val now = Util.getMillis()
+        val expected = this.syncedRemaining - (now - this.syncedAt)
+        val remaining = this.getLerpRemainingTime()
+        if (abs(expected - remaining) < RESYNC_THRESHOLD_MS) {
+            return
+        }
+        this.syncedAt = now
+        this.syncedRemaining = remaining
+
+        for (listener in this.border.listeners) {
+            // We do not want to update DelegateBorderChangeListener
+            // This updates borders in other dimensions
+            if (listener !is DelegateBorderChangeListener) {
+                listener.onBorderSizeLerping(this.border, this.sizeFrom, this.sizeTo, this.realDuration)
+            }
+        }
     }
 
     override fun getCollisionShape(): VoxelShape {
@@ -103,4 +127,8 @@ public class MovingBorderState(
             BooleanOp.ONLY_FIRST
         )
     }
+
+    private companion object {
+        const val RESYNC_THRESHOLD_MS = 500L
+    }
 }
\ No newline at end of file
@@ -19,15 +19,18 @@ public class MovingCenterBorderState(
     realDuration: Long,
 ): CenterBorderState {
     private val tickDuration = realDuration / 50.0
-    private var ticks = 0
+    private val startTick = this.border.ticks
+
+    private var broadcastX = this.centerX
+    private var broadcastZ = this.centerZ
 
     override fun getCenterX(): Double {
-        val progress = this.ticks / this.tickDuration
+        val progress = this.getElapsedTicks() / this.tickDuration
         return if (progress < 1.0) Mth.lerp(progress, this.centerX, this.targetCenterX) else this.targetCenterX
     }
 
     override fun getCenterZ(): Double {
-        val progress = this.ticks / this.tickDuration
+        val progress = this.getElapsedTicks() / this.tickDuration
         return if (progress < 1.0) Mth.lerp(progress, this.centerZ, this.targetCenterZ) else this.targetCenterZ
     }
 
@@ -41,17 +44,40 @@ public class MovingCenterBorderState(
 
     override fun getLerpRemainingTime(): Long {
         val tps = ServerUtils.getServerOrNull()?.calculateTPS() ?: 20.0F
-        return ((this.tickDuration - this.ticks) / tps * 1000).toLong()
+        return ((this.tickDuration - this.getElapsedTicks()) / tps * 1000).toLong()
     }
 
     override fun update(): CenterBorderState {
-        this.ticks++
+        if (this.getElapsedTicks() >= this.tickDuration) {
+            this.border.changeCenter(this.targetCenterX, this.targetCenterZ)
+            return StillCenterBorderState(this.targetCenterX, this.targetCenterZ)
+        }
 
-        this.border.changeCenter(this.getCenterX(), this.getCenterZ())
-        return if (this.ticks >= this.tickDuration) StillCenterBorderState(this.targetCenterX, this.targetCenterZ) else this
+        val x = this.getCenterX()
+        val z = this.getCenterZ()
+        // The client cannot interpolate the center, so we only send
+        // the center once it has moved a noticeable distance
+        val dx = x - this.broadcastX
+        val dz = z - this.broadcastZ
+        val broadcast = dx * dx + dz * dz >= BROADCAST_DISTANCE * BROADCAST_DISTANCE
+        if (broadcast) {
+            this.broadcastX = x
+            this.broadcastZ = z
+        }
+        this.border.changeCenter(x, z, broadcast)
+        return this
     }
 
     override fun getStatus(): CenterBorderStatus {
-        return if ((this.ticks / this.tickDuration) < 1.0) CenterBorderStatus.MOVING else CenterBorderStatus.STATIONARY
+        val progress = this.getElapsedTicks() / this.tickDuration
+        return if (progress < 1.0) CenterBorderStatus.MOVING else CenterBorderStatus.STATIONARY
+    }
+
+    private fun getElapsedTicks(): Long {
+        return this.border.ticks - this.startTick
+    }
+
+    private companion object {
+        const val BROADCAST_DISTANCE = 0.0625
     }
 }
\ No newline at end of file
@@ -23,7 +23,7 @@ public class StillBorderState(
     private var maxX: Double = 0.0
     private var maxZ: Double = 0.0
 
-    private lateinit var shape: VoxelShape
+    private var shape: VoxelShape? = null
 
     init {
         this.updateShape()
@@ -74,7 +74,9 @@ public class StillBorderState(
     }
 
     override fun getCollisionShape(): VoxelShape {
-        return this.shape
+        // The shape is only rebuilt when it's needed, as the
+        // center may change every tick while it's moving
+        return this.shape ?: this.createShape().also { this.shape = it }
     }
 
     private fun updateShape() {
@@ -98,7 +100,11 @@ public class StillBorderState(
             -this.border.absoluteMaxSize.toDouble(),
             this.border.absoluteMaxSize.toDouble()
         )
-        this.shape = Shapes.join(
+        this.shape = null
+    }
+
+    private fun createShape(): VoxelShape {
+        return Shapes.join(
             Shapes.INFINITY,
             Shapes.box(
                 floor(this.getMinX()),